@@ -0,0 +1,92 @@
+// 로그인 폭주 부하 테스트 (k6): BCrypt 가 몰려도 나머지 API 지연이 유지되는지 확인
+//
+// 시나리오 (동시 실행):
+//   login_storm : /auth/login 에 STORM_RPS 로 로그인 (절반은 틀린 비밀번호)
+//   browse      : /api/music 목록 조회
+//   stream      : 목록의 mp3Url 앞부분 64KB Range 요청
+//
+// 통과 기준: 비인증 API 의 p95/p99 지연, 로그인은 200/401/400 또는 503(+Retry-After) 만 허용
+//
+// 서버 기동 후 server/ 에서 실행 (LOGIN_EMAIL/LOGIN_PASSWORD 는 미리 가입된 로컬 계정):
+//   k6 run -e BASE=http://127.0.0.1:8080 -e LOGIN_EMAIL=a@b.c -e LOGIN_PASSWORD=secret scripts/login-storm.js
+// 비교: app.auth.password.threads/queue-capacity 를 바꿔 가며 browse/stream 의 p99 와 auth.password.* 지표 확인
+import http from 'k6/http';
+import { check } from 'k6';
+import { Trend, Counter } from 'k6/metrics';
+
+const BASE = __ENV.BASE || 'http://127.0.0.1:8080';
+const EMAIL = __ENV.LOGIN_EMAIL || 'storm@keydrop.invalid';
+const PASSWORD = __ENV.LOGIN_PASSWORD || 'password';
+const STORM_RPS = Number(__ENV.STORM_RPS || 200);
+const DURATION = __ENV.DURATION || '60s';
+
+const loginLatency = new Trend('login_latency', true);
+const loginShed = new Counter('login_shed');
+
+export const options = {
+  scenarios: {
+    login_storm: {
+      executor: 'constant-arrival-rate',
+      exec: 'login',
+      rate: STORM_RPS,
+      timeUnit: '1s',
+      duration: DURATION,
+      preAllocatedVUs: 50,
+      maxVUs: 400,
+    },
+    browse: {
+      executor: 'constant-vus',
+      exec: 'browse',
+      vus: 20,
+      duration: DURATION,
+    },
+    stream: {
+      executor: 'constant-vus',
+      exec: 'stream',
+      vus: 10,
+      duration: DURATION,
+    },
+  },
+  thresholds: {
+    'http_req_duration{scenario:browse}': ['p(95)<100', 'p(99)<250'],
+    'http_req_duration{scenario:stream}': ['p(95)<150', 'p(99)<300'],
+    'checks{scenario:login_storm}': ['rate>0.99'],
+    'checks{scenario:browse}': ['rate>0.999'],
+    'checks{scenario:stream}': ['rate>0.999'],
+  },
+};
+
+export function setup() {
+  const res = http.get(`${BASE}/api/music`);
+  const urls = res.status === 200 ? res.json().map((m) => m.mp3Url).filter((u) => u) : [];
+  return { urls };
+}
+
+export function login() {
+  const password = Math.random() < 0.5 ? PASSWORD : `${PASSWORD}-wrong`;
+  const res = http.post(`${BASE}/auth/login`, JSON.stringify({ email: EMAIL, password }), {
+    headers: { 'Content-Type': 'application/json' },
+    tags: { name: 'login' },
+  });
+  loginLatency.add(res.timings.duration);
+  if (res.status === 503) loginShed.add(1);
+  check(res, {
+    'login answered': (r) => [200, 400, 401].includes(r.status)
+        || (r.status === 503 && r.headers['Retry-After'] !== undefined),
+  });
+}
+
+export function browse() {
+  const res = http.get(`${BASE}/api/music`, { tags: { name: 'music' } });
+  check(res, { 'music 200': (r) => r.status === 200 });
+}
+
+export function stream(data) {
+  if (data.urls.length === 0) return;
+  const url = data.urls[Math.floor(Math.random() * data.urls.length)];
+  const res = http.get(url.startsWith('http') ? url : `${BASE}${url}`, {
+    headers: { Range: 'bytes=0-65535' },
+    tags: { name: 'media' },
+  });
+  check(res, { 'media 206': (r) => r.status === 206 });
+}
@@ -0,0 +1,82 @@
+#!/usr/bin/env bash
+# 기동 벤치마크: 일반 jar vs AOT+CDS (./gradlew build -Pproduction 결과)
+#
+# 측정 항목 (모드별 ROUNDS 회 반복):
+#   ready_ms  : 프로세스 시작 -> /health 200 (기본 음악 복사 + 워밍업 포함)
+#   first_ms  : ready 직후 첫 GET /api/music 응답 시간
+#   p50/p99   : 이후 DURATION 초 동안 /api/music, /api/music/search 를 번갈아 호출한 응답 시간
+#
+# DB 접속 정보(SPRING_DATASOURCE_*)와 LIVEKIT_* 환경 변수가 설정된 상태에서 server/ 에서 실행:
+#   ./gradlew build -x test -Pproduction && scripts/startup-benchmark.sh
+#
+# 아직 측정 결과 없음: 이 스크립트와 -Pproduction 빌드는 실제 DB/네트워크가 있는 환경에서
+# 돌려 본 적이 없으므로, plain 대비 fast 의 개선 폭은 검증되지 않은 상태
+set -euo pipefail
+
+PORT="${PORT:-18080}"
+ROUNDS="${ROUNDS:-3}"
+DURATION="${DURATION:-60}"
+BASE="http://127.0.0.1:${PORT}"
+HERE="$(cd "$(dirname "$0")/.." && pwd)"
+
+run_mode() {
+  local mode="$1"
+  local dir cmd
+  case "$mode" in
+    plain)
+      dir="$HERE/build/libs"
+      cmd=(java -jar app.jar)
+      ;;
+    fast)
+      dir="$HERE/build/cds"
+      cmd=(java -XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled=true -Dspring.profiles.default=prod -jar app.jar)
+      ;;
+  esac
+
+  local start now ready_ms first_ms pid
+  start=$(date +%s%N)
+  (cd "$dir" && exec "${cmd[@]}" --server.port="$PORT" >"/tmp/keydrop-bench-$mode.log" 2>&1) &
+  pid=$!
+  trap 'kill $pid 2>/dev/null || true' RETURN
+
+  until [ "$(curl -s -o /dev/null -w '%{http_code}' "$BASE/health" || true)" = "200" ]; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "$mode: server exited, see /tmp/keydrop-bench-$mode.log" >&2
+      return 1
+    fi
+    sleep 0.05
+  done
+  now=$(date +%s%N)
+  ready_ms=$(( (now - start) / 1000000 ))
+
+  first_ms=$(curl -s -o /dev/null -H 'Accept-Encoding: gzip' -w '%{time_total}' "$BASE/api/music" \
+    | awk '{ printf "%.1f", $1 * 1000 }')
+
+  local samples="/tmp/keydrop-bench-$mode.samples"
+  : >"$samples"
+  local end=$(( $(date +%s) + DURATION ))
+  local i=0
+  while [ "$(date +%s)" -lt "$end" ]; do
+    if (( i % 2 == 0 )); then url="$BASE/api/music"; else url="$BASE/api/music/search?q=a&bpmMin=100&bpmMax=140"; fi
+    curl -s -o /dev/null -H 'Accept-Encoding: gzip' -w '%{time_total}\n' "$url" >>"$samples"
+    i=$((i + 1))
+  done
+
+  local stats
+  stats=$(sort -n "$samples" | awk '{ v[NR] = $1 * 1000 } END {
+    p50 = v[int(NR * 0.50) > 0 ? int(NR * 0.50) : 1]
+    p99 = v[int(NR * 0.99) > 0 ? int(NR * 0.99) : 1]
+    printf "%d %.1f %.1f", NR, p50, p99 }')
+
+  printf '%-6s %8s %9s %8s %9s %9s\n' "$mode" "$ready_ms" "$first_ms" $stats
+
+  kill "$pid" 2>/dev/null || true
+  wait "$pid" 2>/dev/null || true
+}
+
+printf '%-6s %8s %9s %8s %9s %9s\n' mode ready_ms first_ms requests p50_ms p99_ms
+for mode in plain fast; do
+  for _ in $(seq "$ROUNDS"); do
+    run_mode "$mode"
+  done
+done
@@ -0,0 +1,62 @@
+package com.keydrop.server.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access token verification as done per authenticated request.
+ *
+ * perRequestParser: the previous implementation (new parser per call, full verification every time)
+ * cachedProvider:   JwtProvider with the shared parser and the verified-token cache (steady state: hits)
+ *
+ * ./gradlew jmh -Pjmh.includes=JwtProviderBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(4)
+public class JwtProviderBenchmark {
+
+  private static final String SECRET = "KeydropDefaultSecretKeyForJwtAuthentication2026!@#";
+
+  private Key key;
+  private JwtProvider provider;
+  private String token;
+
+  @Setup
+  public void setUp() {
+    key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+    provider = new JwtProvider(SECRET, 10_000, new SimpleMeterRegistry());
+    token = provider.createAccessToken(42L, "bench@keydrop.invalid");
+  }
+
+  @Benchmark
+  public Long perRequestParser() {
+    Claims claims = Jwts.parserBuilder()
+        .setSigningKey(key)
+        .build()
+        .parseClaimsJws(token)
+        .getBody();
+    if (!"ACCESS".equals(claims.get("token_type", String.class))) throw new IllegalStateException();
+    return Long.parseLong(claims.getSubject());
+  }
+
+  @Benchmark
+  public Long cachedProvider() {
+    return provider.getUserIdFromAccessToken(token);
+  }
+}
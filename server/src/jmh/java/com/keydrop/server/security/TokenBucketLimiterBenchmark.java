@@ -0,0 +1,64 @@
+package com.keydrop.server.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one {@link TokenBucketLimiter#tryAcquire} as done by AuthRateLimitFilter per auth request.
+ *
+ * allowedSpreadKeys: many clients, each well under its limit (map lookup + CAS, little contention)
+ * allowedHotKey:     every thread on the same bucket that never runs dry (CAS contention)
+ * deniedHotKey:      a throttled client hammering one bucket (read only, no write)
+ *
+ * ./gradlew jmh -Pjmh.includes=TokenBucketLimiterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(4)
+public class TokenBucketLimiterBenchmark {
+
+  private static final int KEYS = 10_000;
+
+  private TokenBucketLimiter generous;
+  private TokenBucketLimiter exhausted;
+  private String[] keys;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    generous = new TokenBucketLimiter((int) TokenBucketLimiter.MAX_CAPACITY, Duration.ofNanos(1), KEYS * 2);
+    exhausted = new TokenBucketLimiter(1, Duration.ofHours(1), KEYS * 2);
+    keys = new String[KEYS];
+    for (int i = 0; i < KEYS; i++) {
+      keys[i] = "10.0." + (i >> 8) + "." + (i & 0xFF);
+      generous.tryAcquire(keys[i]);
+    }
+    exhausted.tryAcquire("hot");
+  }
+
+  @Benchmark
+  public long allowedSpreadKeys() {
+    return generous.tryAcquire(keys[ThreadLocalRandom.current().nextInt(KEYS)]);
+  }
+
+  @Benchmark
+  public long allowedHotKey() {
+    return generous.tryAcquire("hot");
+  }
+
+  @Benchmark
+  public long deniedHotKey() {
+    return exhausted.tryAcquire("hot");
+  }
+}
@@ -0,0 +1,61 @@
+package com.keydrop.server.service;
+
+import io.livekit.server.AccessToken;
+import io.livekit.server.CanPublish;
+import io.livekit.server.CanSubscribe;
+import io.livekit.server.RoomJoin;
+import io.livekit.server.RoomName;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Viewer token minting throughput on one thread (= tokens/sec per core).
+ *
+ * accessToken: the previous implementation (new io.livekit.server.AccessToken per viewer)
+ * signer:      LiveKitTokenSigner (thread-local HMAC key, cached per-room grant template)
+ *
+ * ./gradlew jmh -Pjmh.includes=LiveKitTokenSignerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(1)
+public class LiveKitTokenSignerBenchmark {
+
+  private static final String API_KEY = "APIbenchKey";
+  private static final String API_SECRET = "bench-secret-bench-secret-bench-secret-0123";
+  private static final String ROOM = "dj-room-42";
+
+  private final AtomicLong seq = new AtomicLong();
+  private LiveKitTokenSigner signer;
+
+  @Setup
+  public void setUp() {
+    signer = new LiveKitTokenSigner(API_KEY, API_SECRET, Duration.ofHours(6), 1000);
+  }
+
+  @Benchmark
+  public String accessToken() {
+    String identity = "viewer-" + seq.incrementAndGet();
+    AccessToken token = new AccessToken(API_KEY, API_SECRET);
+    token.setIdentity(identity);
+    token.setName(identity);
+    token.addGrants(new RoomJoin(true), new RoomName(ROOM), new CanSubscribe(true), new CanPublish(false));
+    return token.toJwt();
+  }
+
+  @Benchmark
+  public String signer() {
+    return signer.sign(ROOM, "viewer-" + seq.incrementAndGet(), false);
+  }
+}
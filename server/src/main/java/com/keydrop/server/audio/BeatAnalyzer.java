@@ -0,0 +1,269 @@
+package com.keydrop.server.audio;
+
+import javazoom.jl.decoder.Bitstream;
+import javazoom.jl.decoder.BitstreamException;
+import javazoom.jl.decoder.Decoder;
+import javazoom.jl.decoder.Header;
+import javazoom.jl.decoder.JavaLayerException;
+import javazoom.jl.decoder.SampleBuffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Tempo and beat grid of an MP3, computed server-side so every client gets the same grid.
+ *
+ * 1) decode with JLayer, downmix to mono
+ * 2) onset envelope: per 512-sample hop, log energy of the full band and of a ~150 Hz low-pass
+ *    (kick drum), half-wave rectified first difference, local mean removed
+ * 3) BPM: autocorrelation of the envelope over 80..180 BPM lags (same folding range as the client's
+ *    BpmEstimator), weighted by a broad prior around 120 BPM, refined with parabolic interpolation
+ * 4) confidence: how far the winning peak stands above the average autocorrelation, 0..1
+ * 5) beat phase: comb over the envelope at the found period; downbeat: the one of four beat
+ *    positions with the strongest low-band onsets every four beats
+ */
+public final class BeatAnalyzer {
+
+  private static final int HOP = 512;
+  private static final double MIN_BPM = 80;
+  private static final double MAX_BPM = 180;
+  private static final double PRIOR_BPM = 120;
+  private static final double LOW_PASS_HZ = 150;
+  private static final double MEAN_WINDOW_SEC = 0.5;
+  private static final double MIN_ANALYSIS_SEC = 5;
+
+  private BeatAnalyzer() {
+  }
+
+  public record Result(double bpm, double confidence, double firstDownbeatSec, double durationSec) {}
+
+  public static Result analyze(InputStream mp3) throws IOException {
+    return analyze(mp3, null);
+  }
+
+  /**
+   * Same as {@link #analyze(InputStream)}; when {@code peaks} is given it also receives the
+   * amplitude envelope (max |sample| per bucket) from the same decode.
+   */
+  public static Result analyze(InputStream mp3, PeakAccumulator peaks) throws IOException {
+    Bitstream bitstream = new Bitstream(mp3);
+    Decoder decoder = new Decoder();
+    OnsetEnvelope envelope = null;
+    long decoded = 0;
+    try {
+      Header header;
+      while ((header = bitstream.readFrame()) != null) {
+        SampleBuffer out = (SampleBuffer) decoder.decodeFrame(header, bitstream);
+        if (envelope == null) envelope = new OnsetEnvelope(out.getSampleFrequency());
+        envelope.add(out.getBuffer(), out.getBufferLength(), out.getChannelCount());
+        if (peaks != null) {
+          peaks.max((double) decoded / out.getSampleFrequency(), maxAbs(out.getBuffer(), out.getBufferLength()));
+        }
+        decoded += out.getBufferLength() / out.getChannelCount();
+        bitstream.closeFrame();
+      }
+    } catch (JavaLayerException e) {
+      // 뒷부분이 깨진 파일은 앞부분만으로 분석
+      if (envelope == null || envelope.durationSec() < MIN_ANALYSIS_SEC) {
+        throw new IOException("mp3 decode failed", e);
+      }
+    } finally {
+      try {
+        bitstream.close();
+      } catch (BitstreamException ignored) {
+        // 입력 스트림은 호출자가 닫음
+      }
+    }
+    if (envelope == null || envelope.durationSec() < MIN_ANALYSIS_SEC) {
+      throw new IOException("not enough audio to analyze");
+    }
+    return analyze(envelope);
+  }
+
+  private static float maxAbs(short[] samples, int length) {
+    int m = 0;
+    for (int i = 0; i < length; i++) {
+      int v = Math.abs(samples[i]);
+      if (v > m) m = v;
+    }
+    return m / 32768f;
+  }
+
+  private static Result analyze(OnsetEnvelope env) {
+    double rate = env.frameRate();
+    float[] onset = removeLocalMean(env.onset(), (int) Math.round(rate * MEAN_WINDOW_SEC));
+    float[] low = removeLocalMean(env.lowOnset(), (int) Math.round(rate * MEAN_WINDOW_SEC));
+
+    int minLag = (int) Math.floor(60 * rate / MAX_BPM);
+    int maxLag = (int) Math.ceil(60 * rate / MIN_BPM);
+    double[] acf = autocorrelation(onset, maxLag + 1);
+
+    int best = -1;
+    double bestScore = 0;
+    double sum = 0;
+    for (int lag = minLag; lag <= maxLag; lag++) {
+      double bpm = 60 * rate / lag;
+      double octaves = Math.log(bpm / PRIOR_BPM) / Math.log(2);
+      double score = acf[lag] * Math.exp(-0.5 * octaves * octaves);
+      sum += acf[lag];
+      if (best < 0 || score > bestScore) {
+        best = lag;
+        bestScore = score;
+      }
+    }
+    double mean = sum / (maxLag - minLag + 1);
+    double confidence = acf[0] > mean ? clamp((acf[best] - mean) / (acf[0] - mean)) : 0;
+
+    double period = best;
+    if (best > minLag && best < maxLag) {
+      double a = acf[best - 1];
+      double b = acf[best];
+      double c = acf[best + 1];
+      double denom = a - 2 * b + c;
+      if (denom < 0) period = best + 0.5 * (a - c) / denom;
+    }
+    double bpm = Math.round(60 * rate / period * 100) / 100.0;
+
+    // 비트 위상: period 간격 빗(comb)으로 onset 합이 최대인 위치
+    int phase = 0;
+    double phaseScore = -1;
+    for (int p = 0; p < (int) Math.ceil(period); p++) {
+      double s = comb(onset, p, period);
+      if (s > phaseScore) {
+        phaseScore = s;
+        phase = p;
+      }
+    }
+    // 다운비트: 4박 중 저역 onset 이 가장 강한 박
+    int downbeat = 0;
+    double downbeatScore = -1;
+    for (int j = 0; j < 4; j++) {
+      double s = comb(low, phase + j * period, 4 * period);
+      if (s > downbeatScore) {
+        downbeatScore = s;
+        downbeat = j;
+      }
+    }
+    double firstDownbeatSec = (phase + downbeat * period) * HOP / env.sampleRate();
+
+    return new Result(bpm, Math.round(confidence * 1000) / 1000.0,
+        Math.round(firstDownbeatSec * 1000) / 1000.0, env.durationSec());
+  }
+
+  private static double comb(float[] x, double start, double period) {
+    double s = 0;
+    for (double t = start; t < x.length; t += period) {
+      int i = (int) Math.round(t);
+      if (i < x.length) s += x[i];
+    }
+    return s;
+  }
+
+  private static double[] autocorrelation(float[] x, int lags) {
+    double[] r = new double[lags];
+    for (int lag = 0; lag < lags && lag < x.length; lag++) {
+      double s = 0;
+      for (int i = lag; i < x.length; i++) s += x[i] * x[i - lag];
+      r[lag] = s / (x.length - lag);
+    }
+    return r;
+  }
+
+  private static float[] removeLocalMean(float[] x, int window) {
+    int w = Math.max(1, window);
+    float[] out = new float[x.length];
+    double acc = 0;
+    int half = w / 2;
+    // 중앙 이동평균 (prefix 합)
+    double[] prefix = new double[x.length + 1];
+    for (int i = 0; i < x.length; i++) {
+      acc += x[i];
+      prefix[i + 1] = acc;
+    }
+    for (int i = 0; i < x.length; i++) {
+      int from = Math.max(0, i - half);
+      int to = Math.min(x.length, i + half + 1);
+      double mean = (prefix[to] - prefix[from]) / (to - from);
+      out[i] = (float) Math.max(0, x[i] - mean);
+    }
+    return out;
+  }
+
+  private static double clamp(double v) {
+    return Math.max(0, Math.min(1, v));
+  }
+
+  /** Streaming onset envelope; keeps two floats per 512-sample hop. */
+  private static final class OnsetEnvelope {
+    private final int sampleRate;
+    private final double lowPassCoeff;
+    private float[] onset = new float[4096];
+    private float[] lowOnset = new float[4096];
+    private int frames;
+    private long samples;
+
+    private double lowState;
+    private double energy;
+    private double lowEnergy;
+    private int inHop;
+    private double prevLog = Double.NaN;
+    private double prevLowLog = Double.NaN;
+
+    OnsetEnvelope(int sampleRate) {
+      this.sampleRate = sampleRate;
+      this.lowPassCoeff = 1 - Math.exp(-2 * Math.PI * LOW_PASS_HZ / sampleRate);
+    }
+
+    void add(short[] interleaved, int length, int channels) {
+      int ch = Math.max(1, channels);
+      for (int i = 0; i + ch <= length; i += ch) {
+        double m = 0;
+        for (int c = 0; c < ch; c++) m += interleaved[i + c];
+        m /= ch * 32768.0;
+        lowState += lowPassCoeff * (m - lowState);
+        energy += m * m;
+        lowEnergy += lowState * lowState;
+        samples++;
+        if (++inHop == HOP) endHop();
+      }
+    }
+
+    private void endHop() {
+      double log = Math.log1p(1000 * energy / HOP);
+      double lowLog = Math.log1p(1000 * lowEnergy / HOP);
+      if (frames == onset.length) {
+        onset = Arrays.copyOf(onset, frames * 2);
+        lowOnset = Arrays.copyOf(lowOnset, frames * 2);
+      }
+      onset[frames] = Double.isNaN(prevLog) ? 0 : (float) (Math.max(0, log - prevLog) + Math.max(0, lowLog - prevLowLog));
+      lowOnset[frames] = Double.isNaN(prevLowLog) ? 0 : (float) Math.max(0, lowLog - prevLowLog);
+      frames++;
+      prevLog = log;
+      prevLowLog = lowLog;
+      energy = 0;
+      lowEnergy = 0;
+      inHop = 0;
+    }
+
+    int sampleRate() {
+      return sampleRate;
+    }
+
+    double frameRate() {
+      return (double) sampleRate / HOP;
+    }
+
+    double durationSec() {
+      return (double) samples / sampleRate;
+    }
+
+    float[] onset() {
+      return Arrays.copyOf(onset, frames);
+    }
+
+    float[] lowOnset() {
+      return Arrays.copyOf(lowOnset, frames);
+    }
+  }
+}
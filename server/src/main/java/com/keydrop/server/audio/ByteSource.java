@@ -0,0 +1,74 @@
+package com.keydrop.server.audio;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Sequential reader used by the container parsers.
+ *
+ * Skips are implemented as reads so that a wrapping DigestInputStream still sees every byte
+ * (a single pass computes both the parse and the content hash).
+ */
+final class ByteSource {
+
+  private final InputStream in;
+  private final byte[] scratch = new byte[8192];
+  private long position;
+
+  ByteSource(InputStream in) {
+    this.in = in;
+  }
+
+  long position() {
+    return position;
+  }
+
+  /** Returns the next byte or -1 at end of stream. */
+  int read() throws IOException {
+    int b = in.read();
+    if (b >= 0) position++;
+    return b;
+  }
+
+  int readU8() throws IOException {
+    int b = read();
+    if (b < 0) throw new EOFException();
+    return b;
+  }
+
+  void readFully(byte[] b, int off, int len) throws IOException {
+    int n = in.readNBytes(b, off, len);
+    position += n;
+    if (n < len) throw new EOFException();
+  }
+
+  /** Reads up to len bytes; returns the count actually read (less than len only at end of stream). */
+  int readUpTo(byte[] b, int off, int len) throws IOException {
+    int n = in.readNBytes(b, off, len);
+    position += n;
+    return n;
+  }
+
+  long readUIntBE(int bytes) throws IOException {
+    long v = 0;
+    for (int i = 0; i < bytes; i++) v = (v << 8) | readU8();
+    return v;
+  }
+
+  long readUIntLE(int bytes) throws IOException {
+    long v = 0;
+    for (int i = 0; i < bytes; i++) v |= ((long) readU8()) << (8 * i);
+    return v;
+  }
+
+  void skip(long n) throws IOException {
+    while (n > 0) {
+      int len = (int) Math.min(scratch.length, n);
+      int r = in.read(scratch, 0, len);
+      if (r < 0) throw new EOFException();
+      position += r;
+      n -= r;
+    }
+  }
+}
@@ -0,0 +1,417 @@
+package com.keydrop.server.audio;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streaming, header-only probe for the containers recordings arrive in.
+ *
+ * MediaRecorder output (WebM / Ogg with Opus) cannot be decoded without a native codec, so for
+ * compressed formats the peak envelope is built from encoded packet sizes over time, which tracks
+ * loudness closely enough for an overview waveform. WAV is PCM, so real sample peaks are used.
+ *
+ * The probe only ever reads forward; it never seeks and never buffers more than a packet.
+ */
+public final class ContainerProbe {
+
+  public record Result(String container, String codec, Double durationSec) {
+    static Result unknown() {
+      return new Result("unknown", null, null);
+    }
+  }
+
+  private ContainerProbe() {
+  }
+
+  public static Result probe(InputStream in, PeakAccumulator peaks) throws IOException {
+    ByteSource src = new ByteSource(in);
+    byte[] magic = new byte[4];
+    if (src.readUpTo(magic, 0, 4) < 4) return Result.unknown();
+
+    if ((magic[0] & 0xFF) == 0x1A && (magic[1] & 0xFF) == 0x45 && (magic[2] & 0xFF) == 0xDF && (magic[3] & 0xFF) == 0xA3) {
+      return new WebmParser(src, peaks).parse();
+    }
+    String tag = new String(magic, StandardCharsets.US_ASCII);
+    if (tag.equals("OggS")) {
+      return new OggParser(src, peaks).parse();
+    }
+    if (tag.equals("RIFF")) {
+      return new WavParser(src, peaks).parse();
+    }
+    if (tag.startsWith("ID3") || Mp3FrameHeader.parse(toInt(magic)) != null) {
+      return new Mp3Parser(src, peaks, magic).parse();
+    }
+    return Result.unknown();
+  }
+
+  static int toInt(byte[] b) {
+    return ((b[0] & 0xFF) << 24) | ((b[1] & 0xFF) << 16) | ((b[2] & 0xFF) << 8) | (b[3] & 0xFF);
+  }
+
+  /**
+   * Matroska/WebM. Master elements are entered without tracking their end, which makes
+   * unknown-size Segments/Clusters written by MediaRecorder parse the same as finalized files.
+   */
+  private static final class WebmParser {
+    private static final long SEGMENT = 0x18538067L;
+    private static final long INFO = 0x1549A966L;
+    private static final long TIMECODE_SCALE = 0x2AD7B1L;
+    private static final long DURATION = 0x4489L;
+    private static final long TRACKS = 0x1654AE6BL;
+    private static final long TRACK_ENTRY = 0xAEL;
+    private static final long CODEC_ID = 0x86L;
+    private static final long CLUSTER = 0x1F43B675L;
+    private static final long CLUSTER_TIMECODE = 0xE7L;
+    private static final long BLOCK_GROUP = 0xA0L;
+    private static final long BLOCK = 0xA1L;
+    private static final long SIMPLE_BLOCK = 0xA3L;
+    private static final long UNKNOWN_SIZE = -1L;
+    // 업로드된 파일의 크기 필드를 그대로 믿지 않음 (이보다 크면 그 요소는 건너뜀)
+    private static final int MAX_CODEC_ID = 256;
+    private static final int MAX_UINT = 8;
+
+    private final ByteSource src;
+    private final PeakAccumulator peaks;
+
+    private long timecodeScale = 1_000_000L;
+    private Double infoDuration;
+    private String codec;
+    private long clusterTimecode;
+    private long lastBlockTimecode = -1;
+
+    WebmParser(ByteSource src, PeakAccumulator peaks) {
+      this.src = src;
+      this.peaks = peaks;
+    }
+
+    Result parse() throws IOException {
+      // EBML header: magic 는 이미 읽음
+      long headerSize = readSize();
+      if (headerSize == UNKNOWN_SIZE) return new Result("webm", null, null);
+      src.skip(headerSize);
+
+      try {
+        while (true) {
+          long id = readId();
+          if (id < 0) break;
+          long size = readSize();
+
+          if (id == SEGMENT || id == INFO || id == TRACKS || id == TRACK_ENTRY || id == CLUSTER || id == BLOCK_GROUP) {
+            continue; // master: 자식들을 그대로 이어서 읽음
+          }
+          if (size == UNKNOWN_SIZE) break;
+
+          if (id == TIMECODE_SCALE && size <= MAX_UINT) {
+            timecodeScale = src.readUIntBE((int) size);
+          } else if (id == DURATION && (size == 4 || size == 8)) {
+            infoDuration = readFloat((int) size);
+          } else if (id == CODEC_ID && codec == null && size <= MAX_CODEC_ID) {
+            byte[] b = new byte[(int) size];
+            src.readFully(b, 0, b.length);
+            codec = new String(b, StandardCharsets.US_ASCII).trim();
+          } else if (id == CLUSTER_TIMECODE && size <= MAX_UINT) {
+            clusterTimecode = src.readUIntBE((int) size);
+          } else if (id == SIMPLE_BLOCK || id == BLOCK) {
+            readBlock(size);
+          } else {
+            src.skip(size);
+          }
+        }
+      } catch (EOFException e) {
+        // 잘린 파일: 지금까지 본 정보로 마무리
+      }
+
+      Double duration = null;
+      if (infoDuration != null && infoDuration > 0) {
+        duration = infoDuration * timecodeScale / 1e9;
+      } else if (lastBlockTimecode >= 0) {
+        duration = lastBlockTimecode * (double) timecodeScale / 1e9;
+      }
+      return new Result("webm", codecName(codec), duration);
+    }
+
+    private void readBlock(long size) throws IOException {
+      long start = src.position();
+      readVint(); // track number
+      int rel = (short) src.readUIntBE(2);
+      src.readU8(); // flags
+      long headerLen = src.position() - start;
+      long payload = size - headerLen;
+      if (payload < 0) throw new EOFException("invalid block size");
+      src.skip(payload);
+
+      long tc = clusterTimecode + rel;
+      if (tc > lastBlockTimecode) lastBlockTimecode = tc;
+      peaks.add(tc * (double) timecodeScale / 1e9, payload);
+    }
+
+    private double readFloat(int size) throws IOException {
+      long bits = src.readUIntBE(size);
+      return size == 4 ? Float.intBitsToFloat((int) bits) : Double.longBitsToDouble(bits);
+    }
+
+    /** Element id including its length marker, or -1 at end of stream. */
+    private long readId() throws IOException {
+      int first = src.read();
+      if (first < 0) return -1;
+      int len = Integer.numberOfLeadingZeros(first) - 23;
+      if (len < 1 || len > 4) throw new EOFException("invalid EBML id");
+      long id = first;
+      for (int i = 1; i < len; i++) id = (id << 8) | src.readU8();
+      return id;
+    }
+
+    private long readSize() throws IOException {
+      int first = src.readU8();
+      int len = Integer.numberOfLeadingZeros(first) - 23;
+      if (len < 1 || len > 8) throw new EOFException("invalid EBML size");
+      long value = first & (0xFF >>> len);
+      boolean allOnes = value == (0xFF >>> len);
+      for (int i = 1; i < len; i++) {
+        int b = src.readU8();
+        allOnes &= b == 0xFF;
+        value = (value << 8) | b;
+      }
+      return allOnes ? UNKNOWN_SIZE : value;
+    }
+
+    private long readVint() throws IOException {
+      return readSize();
+    }
+
+    private static String codecName(String codecId) {
+      if (codecId == null) return null;
+      return switch (codecId) {
+        case "A_OPUS" -> "opus";
+        case "A_VORBIS" -> "vorbis";
+        case "A_AAC" -> "aac";
+        case "A_PCM/INT/LIT" -> "pcm";
+        default -> codecId.toLowerCase();
+      };
+    }
+  }
+
+  /** Ogg pages; duration comes from the last granule position. */
+  private static final class OggParser {
+    private final ByteSource src;
+    private final PeakAccumulator peaks;
+
+    OggParser(ByteSource src, PeakAccumulator peaks) {
+      this.src = src;
+      this.peaks = peaks;
+    }
+
+    Result parse() throws IOException {
+      String codec = null;
+      long rate = 48000;
+      long preSkip = 0;
+      long lastGranule = -1;
+      boolean first = true;
+      byte[] header = new byte[23];
+      byte[] segments = new byte[255];
+
+      try {
+        while (true) {
+          if (!first) {
+            byte[] capture = new byte[4];
+            if (src.readUpTo(capture, 0, 4) < 4) break;
+            if (!"OggS".equals(new String(capture, StandardCharsets.US_ASCII))) break;
+          }
+          // capture pattern 뒤 23바이트: version, type, granule(8), serial(4), seq(4), crc(4), nsegs(1)
+          src.readFully(header, 0, header.length);
+          long granule = 0;
+          for (int i = 0; i < 8; i++) granule |= ((long) (header[2 + i] & 0xFF)) << (8 * i);
+          int nsegs = header[22] & 0xFF;
+          src.readFully(segments, 0, nsegs);
+          long dataLen = 0;
+          for (int i = 0; i < nsegs; i++) dataLen += segments[i] & 0xFF;
+
+          if (first) {
+            byte[] head = new byte[(int) Math.min(dataLen, 19)];
+            src.readFully(head, 0, head.length);
+            src.skip(dataLen - head.length);
+            String sig = new String(head, 0, Math.min(8, head.length), StandardCharsets.US_ASCII);
+            if (sig.equals("OpusHead") && head.length >= 12) {
+              codec = "opus";
+              preSkip = (head[10] & 0xFF) | ((head[11] & 0xFF) << 8);
+            } else if (head.length >= 16 && head[0] == 1 && sig.startsWith("\u0001vorbis")) {
+              codec = "vorbis";
+              rate = (head[12] & 0xFFL) | ((head[13] & 0xFFL) << 8) | ((head[14] & 0xFFL) << 16) | ((head[15] & 0xFFL) << 24);
+            }
+            first = false;
+          } else {
+            src.skip(dataLen);
+          }
+
+          if (granule != -1 && granule > lastGranule) {
+            lastGranule = granule;
+            if (rate > 0) peaks.add((double) granule / rate, dataLen);
+          }
+        }
+      } catch (EOFException e) {
+        // 잘린 파일
+      }
+
+      Double duration = lastGranule > 0 && rate > 0 ? Math.max(0, lastGranule - preSkip) / (double) rate : null;
+      return new Result("ogg", codec, duration);
+    }
+  }
+
+  /** RIFF/WAVE with integer or float PCM. */
+  private static final class WavParser {
+    private static final int PCM_BUFFER_SIZE = 64 * 1024;
+
+    private final ByteSource src;
+    private final PeakAccumulator peaks;
+
+    WavParser(ByteSource src, PeakAccumulator peaks) {
+      this.src = src;
+      this.peaks = peaks;
+    }
+
+    Result parse() throws IOException {
+      src.skip(4); // RIFF size
+      byte[] four = new byte[4];
+      src.readFully(four, 0, 4);
+      if (!"WAVE".equals(new String(four, StandardCharsets.US_ASCII))) return new Result("riff", null, null);
+
+      int format = 0;
+      int channels = 0;
+      long sampleRate = 0;
+      int blockAlign = 0;
+      int bits = 0;
+
+      try {
+        while (true) {
+          if (src.readUpTo(four, 0, 4) < 4) break;
+          String id = new String(four, StandardCharsets.US_ASCII);
+          long size = src.readUIntLE(4);
+
+          if (id.equals("fmt ")) {
+            format = (int) src.readUIntLE(2);
+            channels = (int) src.readUIntLE(2);
+            sampleRate = src.readUIntLE(4);
+            src.skip(4); // byte rate
+            blockAlign = (int) src.readUIntLE(2);
+            bits = (int) src.readUIntLE(2);
+            long rest = size - 16;
+            if (format == 0xFFFE && rest >= 10) {
+              src.skip(8); // cbSize, validBits, channelMask
+              format = (int) src.readUIntLE(2); // sub format GUID 앞 2바이트
+              rest -= 10;
+            }
+            src.skip(rest + (size & 1));
+          } else if (id.equals("data")) {
+            // blockAlign 이 한 프레임(채널 x 샘플)보다 작으면 샘플을 읽을 때 버퍼를 넘어감
+            if (blockAlign <= 0 || channels <= 0 || sampleRate <= 0 || blockAlign < channels * ((bits + 7) / 8)) break;
+            boolean streaming = size == 0 || size == 0xFFFFFFFFL;
+            long frames = readPcm(streaming ? Long.MAX_VALUE : size, format, channels, blockAlign, bits, sampleRate);
+            return new Result("wav", pcmCodec(format, bits), frames / (double) sampleRate);
+          } else {
+            src.skip(size + (size & 1));
+          }
+        }
+      } catch (EOFException e) {
+        // 잘린 파일
+      }
+      return new Result("wav", pcmCodec(format, bits), null);
+    }
+
+    private long readPcm(long bytes, int format, int channels, int blockAlign, int bits, long sampleRate)
+        throws IOException {
+      int bytesPerSample = (bits + 7) / 8;
+      byte[] buf = new byte[blockAlign * Math.max(1, PCM_BUFFER_SIZE / blockAlign)];
+      long frame = 0;
+      long remaining = bytes;
+      while (remaining > 0) {
+        int want = (int) Math.min(buf.length, remaining - remaining % blockAlign);
+        if (want <= 0) break;
+        int n = src.readUpTo(buf, 0, want);
+        int frames = n / blockAlign;
+        for (int f = 0; f < frames; f++) {
+          int off = f * blockAlign; // channel 0 만 사용 (buildPeaks.ts 와 동일)
+          float v = Math.abs(sample(buf, off, format, bytesPerSample));
+          peaks.max((frame + f) / (double) sampleRate, v);
+        }
+        frame += frames;
+        remaining -= n;
+        if (n < want) break;
+      }
+      return frame;
+    }
+
+    private static float sample(byte[] b, int off, int format, int bytesPerSample) {
+      switch (bytesPerSample) {
+        case 1:
+          return ((b[off] & 0xFF) - 128) / 128f;
+        case 2:
+          return (short) ((b[off] & 0xFF) | (b[off + 1] << 8)) / 32768f;
+        case 3:
+          return ((b[off] & 0xFF) | ((b[off + 1] & 0xFF) << 8) | (b[off + 2] << 16)) / 8388608f;
+        case 4: {
+          int v = (b[off] & 0xFF) | ((b[off + 1] & 0xFF) << 8) | ((b[off + 2] & 0xFF) << 16) | (b[off + 3] << 24);
+          return format == 3 ? Float.intBitsToFloat(v) : v / 2147483648f;
+        }
+        default:
+          return 0f;
+      }
+    }
+
+    private static String pcmCodec(int format, int bits) {
+      if (format == 3) return "pcm_f" + bits + "le";
+      if (format == 1) return (bits == 8 ? "pcm_u8" : "pcm_s" + bits + "le");
+      return format == 0 ? null : "wav_0x" + Integer.toHexString(format);
+    }
+  }
+
+  /** MPEG audio; walks frame headers only. */
+  private static final class Mp3Parser {
+    private final ByteSource src;
+    private final PeakAccumulator peaks;
+    private final byte[] magic;
+
+    Mp3Parser(ByteSource src, PeakAccumulator peaks, byte[] magic) {
+      this.src = src;
+      this.peaks = peaks;
+      this.magic = magic;
+    }
+
+    Result parse() throws IOException {
+      int window = toInt(magic);
+      if (magic[0] == 'I' && magic[1] == 'D' && magic[2] == '3') {
+        byte[] id3 = new byte[10];
+        System.arraycopy(magic, 0, id3, 0, 4);
+        src.readFully(id3, 4, 6);
+        src.skip(Mp3FrameHeader.id3v2Size(id3) - 10L);
+        byte[] next = new byte[4];
+        if (src.readUpTo(next, 0, 4) < 4) return new Result("mp3", "mp3", null);
+        window = toInt(next);
+      }
+
+      long samples = 0;
+      int sampleRate = 0;
+      try {
+        while (true) {
+          Mp3FrameHeader h = Mp3FrameHeader.parse(window);
+          if (h == null) {
+            // 동기 실패 -> 1바이트씩 밀면서 다음 프레임 헤더 탐색
+            int b = src.read();
+            if (b < 0) break;
+            window = (window << 8) | b;
+            continue;
+          }
+          peaks.add(samples / (double) h.sampleRate(), h.frameLength());
+          samples += h.samplesPerFrame();
+          sampleRate = h.sampleRate();
+          src.skip(h.frameLength() - 4L);
+          window = (int) src.readUIntBE(4);
+        }
+      } catch (EOFException e) {
+        // 마지막 프레임
+      }
+      return new Result("mp3", "mp3", sampleRate > 0 ? samples / (double) sampleRate : null);
+    }
+  }
+}
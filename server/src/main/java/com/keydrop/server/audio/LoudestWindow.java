@@ -0,0 +1,86 @@
+package com.keydrop.server.audio;
+
+import javazoom.jl.decoder.Bitstream;
+import javazoom.jl.decoder.BitstreamException;
+import javazoom.jl.decoder.Decoder;
+import javazoom.jl.decoder.Header;
+import javazoom.jl.decoder.JavaLayerException;
+import javazoom.jl.decoder.SampleBuffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Finds the window of a given length with the highest mean energy in an MP3, e.g. the drop of a
+ * dance track, for preview clips.
+ *
+ * The file is decoded with JLayer and its energy summed into 100 ms blocks; the window is then a
+ * sliding sum over the blocks, so memory is 10 floats per second regardless of file size.
+ */
+public final class LoudestWindow {
+
+  private static final int BLOCKS_PER_SECOND = 10;
+
+  private LoudestWindow() {
+  }
+
+  public record Result(double startSec, double durationSec) {}
+
+  public static Result find(InputStream mp3, double windowSec) throws IOException {
+    Bitstream bitstream = new Bitstream(mp3);
+    Decoder decoder = new Decoder();
+    float[] blocks = new float[BLOCKS_PER_SECOND * 60 * 10];
+    long samples = 0;
+    int sampleRate = 0;
+    try {
+      Header header;
+      while ((header = bitstream.readFrame()) != null) {
+        SampleBuffer out = (SampleBuffer) decoder.decodeFrame(header, bitstream);
+        sampleRate = out.getSampleFrequency();
+        short[] buf = out.getBuffer();
+        int channels = out.getChannelCount();
+        int frames = out.getBufferLength() / channels;
+        int block = (int) (samples * BLOCKS_PER_SECOND / sampleRate);
+        if (block >= blocks.length) blocks = Arrays.copyOf(blocks, Math.max(block + 1, blocks.length * 2));
+        double energy = 0;
+        for (int i = 0; i < frames * channels; i++) {
+          double v = buf[i] / 32768.0;
+          energy += v * v;
+        }
+        // 프레임(26ms)은 블록(100ms)보다 짧으므로 시작 위치의 블록에 통째로 더함
+        blocks[block] += (float) (energy / channels);
+        samples += frames;
+        bitstream.closeFrame();
+      }
+    } catch (JavaLayerException e) {
+      // 뒷부분이 깨진 파일은 디코딩된 앞부분에서 고름
+      if (samples == 0) throw new IOException("mp3 decode failed", e);
+    } finally {
+      try {
+        bitstream.close();
+      } catch (BitstreamException ignored) {
+        // 입력 스트림은 호출자가 닫음
+      }
+    }
+    if (samples == 0) throw new IOException("no audio frames");
+
+    double durationSec = (double) samples / sampleRate;
+    int total = (int) Math.min(blocks.length, Math.ceil(durationSec * BLOCKS_PER_SECOND));
+    int window = (int) Math.round(windowSec * BLOCKS_PER_SECOND);
+    if (window >= total) return new Result(0, durationSec);
+
+    double sum = 0;
+    for (int i = 0; i < window; i++) sum += blocks[i];
+    double best = sum;
+    int bestStart = 0;
+    for (int start = 1; start + window <= total; start++) {
+      sum += blocks[start + window - 1] - blocks[start - 1];
+      if (sum > best) {
+        best = sum;
+        bestStart = start;
+      }
+    }
+    return new Result((double) bestStart / BLOCKS_PER_SECOND, durationSec);
+  }
+}
@@ -0,0 +1,73 @@
+package com.keydrop.server.audio;
+
+/**
+ * Decoded 4-byte MPEG audio frame header (MPEG 1/2/2.5, layers I-III).
+ * Free-format and reserved values are rejected so that a false sync can be skipped.
+ */
+public record Mp3FrameHeader(
+    int version,        // 1 = MPEG1, 2 = MPEG2, 25 = MPEG2.5
+    int layer,
+    int bitrateKbps,
+    int sampleRate,
+    int channels,
+    int samplesPerFrame,
+    int frameLength
+) {
+
+  private static final int[][] BITRATES_V1 = {
+      {0, 32, 64, 96, 128, 160, 192, 224, 256, 288, 320, 352, 384, 416, 448},
+      {0, 32, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320, 384},
+      {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320},
+  };
+  private static final int[][] BITRATES_V2 = {
+      {0, 32, 48, 56, 64, 80, 96, 112, 128, 144, 160, 176, 192, 224, 256},
+      {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160},
+      {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160},
+  };
+  private static final int[] SAMPLE_RATES_V1 = {44100, 48000, 32000};
+
+  /** Parses a header from its big-endian 32-bit value, or returns null if it is not a valid frame header. */
+  public static Mp3FrameHeader parse(int h) {
+    if ((h & 0xFFE00000) != 0xFFE00000) return null;
+
+    int versionBits = (h >>> 19) & 0x3;
+    int layerBits = (h >>> 17) & 0x3;
+    int bitrateIndex = (h >>> 12) & 0xF;
+    int sampleRateIndex = (h >>> 10) & 0x3;
+    int padding = (h >>> 9) & 0x1;
+    int channelMode = (h >>> 6) & 0x3;
+
+    if (versionBits == 1 || layerBits == 0 || bitrateIndex == 0 || bitrateIndex == 15 || sampleRateIndex == 3) {
+      return null;
+    }
+
+    int version = versionBits == 3 ? 1 : versionBits == 2 ? 2 : 25;
+    int layer = 4 - layerBits;
+    int bitrate = (version == 1 ? BITRATES_V1 : BITRATES_V2)[layer - 1][bitrateIndex];
+    int sampleRate = SAMPLE_RATES_V1[sampleRateIndex] / (version == 1 ? 1 : version == 2 ? 2 : 4);
+
+    int samplesPerFrame;
+    if (layer == 1) samplesPerFrame = 384;
+    else if (layer == 2 || version == 1) samplesPerFrame = 1152;
+    else samplesPerFrame = 576;
+
+    int frameLength = layer == 1
+        ? (12 * bitrate * 1000 / sampleRate + padding) * 4
+        : samplesPerFrame / 8 * bitrate * 1000 / sampleRate + padding;
+
+    return new Mp3FrameHeader(version, layer, bitrate, sampleRate, channelMode == 3 ? 1 : 2,
+        samplesPerFrame, frameLength);
+  }
+
+  public double durationSec() {
+    return (double) samplesPerFrame / sampleRate;
+  }
+
+  /** Size of an ID3v2 tag given its 10-byte header, or 0 if the bytes are not an ID3v2 header. */
+  public static int id3v2Size(byte[] header) {
+    if (header.length < 10 || header[0] != 'I' || header[1] != 'D' || header[2] != '3') return 0;
+    int size = ((header[6] & 0x7F) << 21) | ((header[7] & 0x7F) << 14) | ((header[8] & 0x7F) << 7) | (header[9] & 0x7F);
+    boolean footer = (header[5] & 0x10) != 0;
+    return 10 + size + (footer ? 10 : 0);
+  }
+}
@@ -0,0 +1,184 @@
+package com.keydrop.server.audio;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Time -> byte offset index of an MPEG audio stream, built from frame headers only (nothing is decoded).
+ *
+ * One entry is kept every {@code framesPerEntry} frames: the byte offset of that frame and the number
+ * of samples before it. Because sample positions are counted rather than estimated from the bitrate,
+ * lookups are exact for VBR files too. A leading Xing/Info frame (VBR header, no audio) is not
+ * counted, matching what decoders play.
+ *
+ * Seeking to an entry starts at a frame boundary; like any MP3 seek, the first layer III frame may
+ * miss its bit reservoir and decode as a few milliseconds of silence.
+ */
+public final class Mp3SeekTable {
+
+  public record SeekPoint(double timeSec, long offset) {}
+
+  private final int sampleRate;
+  private final int framesPerEntry;
+  private final long audioEnd;
+  private final long totalSamples;
+  private final long[] offsets;
+  private final long[] samples;
+
+  private Mp3SeekTable(int sampleRate, int framesPerEntry, long audioEnd, long totalSamples,
+                       long[] offsets, long[] samples) {
+    this.sampleRate = sampleRate;
+    this.framesPerEntry = framesPerEntry;
+    this.audioEnd = audioEnd;
+    this.totalSamples = totalSamples;
+    this.offsets = offsets;
+    this.samples = samples;
+  }
+
+  /** Scans the stream; returns null when it contains no MPEG audio frames. */
+  public static Mp3SeekTable build(InputStream in, int framesPerEntry) throws IOException {
+    if (framesPerEntry < 1) throw new IllegalArgumentException("framesPerEntry must be positive");
+    ByteSource src = new ByteSource(in);
+
+    byte[] head = new byte[10];
+    if (src.readUpTo(head, 0, 4) < 4) return null;
+    int window = toInt(head);
+    if (head[0] == 'I' && head[1] == 'D' && head[2] == '3') {
+      src.readFully(head, 4, 6);
+      src.skip(Mp3FrameHeader.id3v2Size(head) - 10L);
+      window = (int) src.readUIntBE(4);
+    }
+
+    long[] offsets = new long[256];
+    long[] samples = new long[256];
+    int count = 0;
+    long frames = 0;
+    long total = 0;
+    long audioEnd = 0;
+    Mp3FrameHeader first = null;
+    try {
+      while (true) {
+        Mp3FrameHeader h = Mp3FrameHeader.parse(window);
+        // 첫 프레임과 버전/레이어/샘플레이트가 다르면 데이터 속 가짜 sync 로 보고 건너뜀
+        if (h == null || (first != null && (h.version() != first.version() || h.layer() != first.layer()
+            || h.sampleRate() != first.sampleRate()))) {
+          window = (window << 8) | src.readU8();
+          continue;
+        }
+        long offset = src.position() - 4;
+
+        if (first == null) {
+          first = h;
+          byte[] body = new byte[h.frameLength() - 4];
+          src.readFully(body, 0, body.length);
+          audioEnd = offset + h.frameLength();
+          if (isVbrHeader(h, body)) {
+            window = (int) src.readUIntBE(4);
+            continue;
+          }
+        } else {
+          src.skip(h.frameLength() - 4L);
+          audioEnd = offset + h.frameLength();
+        }
+
+        if (frames % framesPerEntry == 0) {
+          if (count == offsets.length) {
+            offsets = Arrays.copyOf(offsets, count * 2);
+            samples = Arrays.copyOf(samples, count * 2);
+          }
+          offsets[count] = offset;
+          samples[count] = total;
+          count++;
+        }
+        frames++;
+        total += h.samplesPerFrame();
+        window = (int) src.readUIntBE(4);
+      }
+    } catch (EOFException e) {
+      // 끝, 잘린 마지막 프레임은 세지 않음
+    }
+    if (count == 0) return null;
+    return new Mp3SeekTable(first.sampleRate(), framesPerEntry, audioEnd, total,
+        Arrays.copyOf(offsets, count), Arrays.copyOf(samples, count));
+  }
+
+  /**
+   * The last indexed frame that starts at or before the given time (clamped to the stream).
+   * Playback from {@link SeekPoint#offset()} begins at {@link SeekPoint#timeSec()}.
+   */
+  public SeekPoint seek(double seconds) {
+    long target = (long) Math.floor(Math.max(0, seconds) * sampleRate);
+    int i = Arrays.binarySearch(samples, target);
+    if (i < 0) i = -i - 2;
+    i = Math.max(0, i);
+    return new SeekPoint((double) samples[i] / sampleRate, offsets[i]);
+  }
+
+  /** Offset just past the last complete frame (trailing ID3v1/APE tags are excluded). */
+  public long audioEnd() {
+    return audioEnd;
+  }
+
+  public double durationSec() {
+    return (double) totalSamples / sampleRate;
+  }
+
+  public int entries() {
+    return offsets.length;
+  }
+
+  /** Offsets are stored as deltas, so an entry costs 8 bytes regardless of the file size. */
+  public void writeTo(DataOutput out) throws IOException {
+    out.writeInt(sampleRate);
+    out.writeInt(framesPerEntry);
+    out.writeLong(audioEnd);
+    out.writeLong(totalSamples);
+    out.writeInt(offsets.length);
+    long prevOffset = 0;
+    long prevSamples = 0;
+    for (int i = 0; i < offsets.length; i++) {
+      out.writeInt((int) (offsets[i] - prevOffset));
+      out.writeInt((int) (samples[i] - prevSamples));
+      prevOffset = offsets[i];
+      prevSamples = samples[i];
+    }
+  }
+
+  public static Mp3SeekTable readFrom(DataInput in) throws IOException {
+    int sampleRate = in.readInt();
+    int framesPerEntry = in.readInt();
+    long audioEnd = in.readLong();
+    long totalSamples = in.readLong();
+    int count = in.readInt();
+    if (sampleRate <= 0 || framesPerEntry <= 0 || count <= 0) throw new IOException("corrupt seek table");
+    long[] offsets = new long[count];
+    long[] samples = new long[count];
+    long offset = 0;
+    long sample = 0;
+    for (int i = 0; i < count; i++) {
+      offset += Integer.toUnsignedLong(in.readInt());
+      sample += Integer.toUnsignedLong(in.readInt());
+      offsets[i] = offset;
+      samples[i] = sample;
+    }
+    return new Mp3SeekTable(sampleRate, framesPerEntry, audioEnd, totalSamples, offsets, samples);
+  }
+
+  // LAME/Xing VBR 헤더는 side info 바로 뒤에 "Xing" 또는 "Info" 로 시작
+  private static boolean isVbrHeader(Mp3FrameHeader h, byte[] body) {
+    if (h.layer() != 3) return false;
+    int sideInfo = h.version() == 1 ? (h.channels() == 1 ? 17 : 32) : (h.channels() == 1 ? 9 : 17);
+    if (body.length < sideInfo + 4) return false;
+    String tag = new String(body, sideInfo, 4, StandardCharsets.US_ASCII);
+    return tag.equals("Xing") || tag.equals("Info");
+  }
+
+  private static int toInt(byte[] b) {
+    return ((b[0] & 0xFF) << 24) | ((b[1] & 0xFF) << 16) | ((b[2] & 0xFF) << 8) | (b[3] & 0xFF);
+  }
+}
@@ -0,0 +1,94 @@
+package com.keydrop.server.audio;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Collects an amplitude envelope on a fixed time grid while a file is streamed, then turns it
+ * into a multi-resolution peak pyramid (same idea as the client's buildPeaks.ts: max per bar,
+ * normalized to the loudest bar).
+ *
+ * Memory is bounded by duration x {@link #BUCKETS_PER_SECOND}, never by file size.
+ */
+public final class PeakAccumulator {
+
+  public static final int BUCKETS_PER_SECOND = 20;
+  // 6시간 이상은 잘라냄 (녹음 한 개로는 충분)
+  private static final int MAX_BUCKETS = BUCKETS_PER_SECOND * 60 * 60 * 6;
+
+  private float[] buckets = new float[BUCKETS_PER_SECOND * 60];
+  private int size;
+
+  /** Keeps the maximum value seen in the bucket containing {@code timeSec}. */
+  public void max(double timeSec, float value) {
+    int i = index(timeSec);
+    if (i >= 0 && value > buckets[i]) buckets[i] = value;
+  }
+
+  /** Adds to the bucket containing {@code timeSec}; used for encoded-size envelopes. */
+  public void add(double timeSec, float value) {
+    int i = index(timeSec);
+    if (i >= 0) buckets[i] += value;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Builds levels from {@code maxBars} down to at least {@code minBars}, halving each time.
+   * Every level is quantized to 0..255 against the global maximum.
+   */
+  public List<byte[]> toLevels(int maxBars, int minBars) {
+    List<byte[]> levels = new ArrayList<>();
+    if (size == 0) return levels;
+
+    int bars = Math.min(maxBars, size);
+    float[] level = new float[bars];
+    double step = (double) size / bars;
+    float globalMax = 0;
+    for (int i = 0; i < bars; i++) {
+      int start = (int) Math.floor(i * step);
+      int end = Math.max(start + 1, (int) Math.floor((i + 1) * step));
+      float m = 0;
+      for (int j = start; j < end && j < size; j++) {
+        if (buckets[j] > m) m = buckets[j];
+      }
+      level[i] = m;
+      if (m > globalMax) globalMax = m;
+    }
+
+    while (true) {
+      levels.add(quantize(level, globalMax));
+      if (level.length / 2 < minBars) break;
+      float[] next = new float[level.length / 2];
+      for (int i = 0; i < next.length; i++) {
+        next[i] = Math.max(level[2 * i], level[2 * i + 1]);
+      }
+      level = next;
+    }
+    return levels;
+  }
+
+  private static byte[] quantize(float[] level, float globalMax) {
+    byte[] out = new byte[level.length];
+    if (globalMax <= 0) return out;
+    for (int i = 0; i < level.length; i++) {
+      out[i] = (byte) Math.round(level[i] / globalMax * 255f);
+    }
+    return out;
+  }
+
+  private int index(double timeSec) {
+    if (!(timeSec >= 0)) return -1;
+    long i = (long) (timeSec * BUCKETS_PER_SECOND);
+    if (i >= MAX_BUCKETS) return -1;
+    int idx = (int) i;
+    if (idx >= buckets.length) {
+      buckets = Arrays.copyOf(buckets, Math.min(MAX_BUCKETS, Math.max(idx + 1, buckets.length * 2)));
+    }
+    if (idx >= size) size = idx + 1;
+    return idx;
+  }
+}
@@ -0,0 +1,39 @@
+package com.keydrop.server.audio;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary form of a peak pyramid: [levelCount:u8] then per level [bars:u32 BE][bars x u8],
+ * largest level first.
+ */
+public final class PeakLevels {
+
+  private PeakLevels() {
+  }
+
+  public static byte[] encode(List<byte[]> levels) {
+    int size = 1;
+    for (byte[] level : levels) size += 4 + level.length;
+    ByteBuffer buf = ByteBuffer.allocate(size);
+    buf.put((byte) levels.size());
+    for (byte[] level : levels) {
+      buf.putInt(level.length);
+      buf.put(level);
+    }
+    return buf.array();
+  }
+
+  public static List<byte[]> decode(byte[] data) {
+    ByteBuffer buf = ByteBuffer.wrap(data);
+    int count = buf.get() & 0xFF;
+    List<byte[]> levels = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      byte[] level = new byte[buf.getInt()];
+      buf.get(level);
+      levels.add(level);
+    }
+    return levels;
+  }
+}
@@ -0,0 +1,53 @@
+package com.keydrop.server.batch;
+
+import com.keydrop.server.repository.RecordingRepository;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.batch.infrastructure.item.ItemStreamException;
+import org.springframework.batch.infrastructure.item.ItemStreamReader;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Reads ids of recordings that still keep their audio in the bytea column, in id order.
+ *
+ * The last id handed out is saved in the step's ExecutionContext at every chunk commit,
+ * so a restarted job continues right after the last committed chunk.
+ */
+class LegacyRecordingIdReader implements ItemStreamReader<Long> {
+
+  private static final String LAST_ID_KEY = "lastRecordingId";
+
+  private final RecordingRepository repo;
+  private final int pageSize;
+  private final Deque<Long> buffer = new ArrayDeque<>();
+  private long lastId;
+
+  LegacyRecordingIdReader(RecordingRepository repo, int pageSize) {
+    this.repo = repo;
+    this.pageSize = pageSize;
+  }
+
+  @Override
+  public void open(ExecutionContext ctx) throws ItemStreamException {
+    lastId = ctx.containsKey(LAST_ID_KEY) ? ctx.getLong(LAST_ID_KEY) : 0L;
+  }
+
+  @Override
+  public Long read() {
+    if (buffer.isEmpty()) {
+      long after = lastId;
+      buffer.addAll(repo.findLegacyIdsAfter(after, PageRequest.of(0, pageSize)));
+      if (buffer.isEmpty()) return null;
+    }
+    Long id = buffer.poll();
+    lastId = id;
+    return id;
+  }
+
+  @Override
+  public void update(ExecutionContext ctx) throws ItemStreamException {
+    ctx.putLong(LAST_ID_KEY, lastId);
+  }
+}
@@ -0,0 +1,44 @@
+package com.keydrop.server.batch;
+
+/**
+ * Paces a single-threaded loop to at most {@code rowsPerSecond} rows and {@code bytesPerSecond}
+ * bytes on average: work is {@link #record(long) recorded} as it happens, and {@link #pace()}
+ * sleeps whenever the work done so far is ahead of schedule. Recording and pacing are separate so
+ * the caller can wait where it holds no transaction or connection.
+ * A value of 0 disables that limit.
+ */
+class MigrationThrottle {
+
+  private final double rowsPerSecond;
+  private final double bytesPerSecond;
+  private long startNanos = -1;
+  private long rows;
+  private long bytes;
+
+  MigrationThrottle(double rowsPerSecond, double bytesPerSecond) {
+    this.rowsPerSecond = rowsPerSecond;
+    this.bytesPerSecond = bytesPerSecond;
+  }
+
+  /** Counts one row that made the database read {@code rowBytes} bytes. */
+  synchronized void record(long rowBytes) {
+    if (startNanos < 0) startNanos = System.nanoTime();
+    rows++;
+    bytes += rowBytes;
+  }
+
+  /** Sleeps until the recorded work is no longer ahead of the configured rates. */
+  void pace() throws InterruptedException {
+    long aheadNanos;
+    synchronized (this) {
+      if (startNanos < 0) return;
+      double dueSec = 0;
+      if (rowsPerSecond > 0) dueSec = Math.max(dueSec, rows / rowsPerSecond);
+      if (bytesPerSecond > 0) dueSec = Math.max(dueSec, bytes / bytesPerSecond);
+      aheadNanos = (long) (dueSec * 1e9) - (System.nanoTime() - startNanos);
+    }
+    if (aheadNanos > 0) {
+      Thread.sleep(aheadNanos / 1_000_000, (int) (aheadNanos % 1_000_000));
+    }
+  }
+}
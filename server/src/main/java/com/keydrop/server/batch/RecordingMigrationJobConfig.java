@@ -0,0 +1,126 @@
+package com.keydrop.server.batch;
+
+import com.keydrop.server.repository.RecordingMetadata;
+import com.keydrop.server.repository.RecordingRepository;
+import com.keydrop.server.service.RecordingService;
+import com.keydrop.server.storage.RecordingStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.job.Job;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.Step;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.infrastructure.item.ItemProcessor;
+import org.springframework.batch.infrastructure.item.ItemWriter;
+import org.springframework.batch.infrastructure.repeat.RepeatContext;
+import org.springframework.batch.infrastructure.repeat.RepeatListener;
+import org.springframework.batch.infrastructure.repeat.RepeatStatus;
+import org.springframework.batch.infrastructure.repeat.support.RepeatTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.InputStream;
+
+/**
+ * Moves legacy recordings (audio in recordings.audio_data) into {@link RecordingStorage}.
+ *
+ * reader    : ids with storage_key is null, in id order, checkpointed per chunk
+ * processor : streams the bytea out in chunks into storage, verifies size and SHA-256
+ *             against sha256(audio_data) computed by Postgres
+ * writer    : points the row at the blob and nulls audio_data, in the chunk transaction
+ *
+ * Throttling (rows/s, and bytes/s counting both reads of the bytea: the stream and Postgres'
+ * sha256) happens between chunks, after the chunk transaction has finished, so the pause never holds
+ * a pooled connection or an open transaction.
+ *
+ * Rows that fail verification are left untouched (their blob is later reclaimed by the GC).
+ * The freed bytea space is returned to Postgres by regular autovacuum.
+ */
+@Configuration
+public class RecordingMigrationJobConfig {
+
+  public static final String JOB_NAME = "recordingStorageMigrationJob";
+
+  private static final Logger log = LoggerFactory.getLogger(RecordingMigrationJobConfig.class);
+
+  record MigratedRecording(long recordingId, String storageKey) {}
+
+  @Bean
+  public Job recordingStorageMigrationJob(JobRepository jobRepository, Step recordingStorageMigrationStep) {
+    return new JobBuilder(JOB_NAME, jobRepository)
+        .start(recordingStorageMigrationStep)
+        .build();
+  }
+
+  @Bean
+  public Step recordingStorageMigrationStep(
+      JobRepository jobRepository,
+      PlatformTransactionManager transactionManager,
+      RecordingRepository repo,
+      RecordingService recordingService,
+      RecordingStorage storage,
+      @Value("${app.recordings.migration.commit-interval:10}") int commitInterval,
+      @Value("${app.recordings.migration.rows-per-second:5}") double rowsPerSecond,
+      @Value("${app.recordings.migration.bytes-per-second:20MB}") DataSize bytesPerSecond
+  ) {
+    MigrationThrottle throttle = new MigrationThrottle(rowsPerSecond, bytesPerSecond.toBytes());
+
+    ItemProcessor<Long, MigratedRecording> processor = id -> {
+      RecordingMetadata m = repo.findMetadataById(id).orElse(null);
+      if (m == null || m.getStorageKey() != null) return null;
+
+      RecordingStorage.StoredObject stored;
+      try (InputStream in = recordingService.openAudio(m)) {
+        stored = storage.store(in);
+      }
+      // 스트리밍 한 번 + 아래 sha256(audio_data) 한 번, bytea 를 두 번 읽음
+      throttle.record(2 * stored.sizeBytes());
+
+      if (stored.sizeBytes() != m.getSizeBytes()) {
+        log.error("recording {} migration size mismatch: db={} stored={}", id, m.getSizeBytes(), stored.sizeBytes());
+        return null;
+      }
+      String dbSha256 = repo.sha256OfAudioData(id);
+      if (!stored.key().equals(dbSha256)) {
+        log.error("recording {} migration checksum mismatch: db={} stored={}", id, dbSha256, stored.key());
+        return null;
+      }
+      return new MigratedRecording(id, stored.key());
+    };
+
+    ItemWriter<MigratedRecording> writer = chunk -> {
+      for (MigratedRecording r : chunk) {
+        repo.moveAudioToStorage(r.recordingId(), r.storageKey());
+      }
+    };
+
+    return new StepBuilder("recordingStorageMigrationStep", jobRepository)
+        .<Long, MigratedRecording>chunk(commitInterval, transactionManager)
+        .reader(new LegacyRecordingIdReader(repo, commitInterval))
+        .processor(processor)
+        .writer(writer)
+        .stepOperations(chunkPacing(throttle))
+        .build();
+  }
+
+  // 청크 사이에서 대기: RepeatListener.after 는 청크 트랜잭션이 끝나고 커넥션을 반납한 뒤 호출됨
+  private static RepeatTemplate chunkPacing(MigrationThrottle throttle) {
+    RepeatTemplate template = new RepeatTemplate();
+    template.registerListener(new RepeatListener() {
+      @Override
+      public void after(RepeatContext context, RepeatStatus result) {
+        try {
+          throttle.pace();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          context.setTerminateOnly();
+        }
+      }
+    });
+    return template;
+  }
+}
@@ -0,0 +1,92 @@
+package com.keydrop.server.batch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.job.Job;
+import org.springframework.batch.core.job.JobExecution;
+import org.springframework.batch.core.job.parameters.JobParameters;
+import org.springframework.batch.core.job.parameters.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobOperator;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.StepExecution;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Starts the bytea -> storage migration after startup when app.recordings.migration.run-on-startup is set.
+ *
+ * The job instance is identified by app.recordings.migration.attempt, so a crashed or failed run is
+ * restarted from its last committed chunk on the next boot. Executions still marked as running at
+ * startup can only be left over from a crash (single instance), so they are marked FAILED first,
+ * which is what makes them restartable.
+ */
+@Component
+public class RecordingMigrationLauncher {
+
+  private static final Logger log = LoggerFactory.getLogger(RecordingMigrationLauncher.class);
+
+  private final JobOperator jobOperator;
+  private final JobRepository jobRepository;
+  private final Job job;
+
+  @Value("${app.recordings.migration.run-on-startup:false}")
+  private boolean runOnStartup;
+
+  @Value("${app.recordings.migration.attempt:1}")
+  private long attempt;
+
+  public RecordingMigrationLauncher(JobOperator jobOperator, JobRepository jobRepository,
+                                    @Qualifier("recordingStorageMigrationJob") Job job) {
+    this.jobOperator = jobOperator;
+    this.jobRepository = jobRepository;
+    this.job = job;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onReady() {
+    if (!runOnStartup) return;
+    Thread t = new Thread(this::run, "recording-migration");
+    t.setDaemon(true);
+    t.start();
+  }
+
+  void run() {
+    try {
+      failStaleExecutions();
+      JobParameters params = new JobParametersBuilder()
+          .addLong("attempt", attempt)
+          .toJobParameters();
+      JobExecution execution = jobOperator.start(job, params);
+      log.info("recording storage migration finished: {}", execution.getStatus());
+    } catch (Exception e) {
+      // 이미 완료된 attempt 이면 여기로 옴 (다시 돌리려면 attempt 값을 올림)
+      log.warn("recording storage migration not started: {}", e.getMessage());
+    }
+  }
+
+  private void failStaleExecutions() {
+    for (JobExecution stale : jobRepository.findRunningJobExecutions(RecordingMigrationJobConfig.JOB_NAME)) {
+      LocalDateTime now = LocalDateTime.now();
+      for (StepExecution step : stale.getStepExecutions()) {
+        if (step.getStatus().isRunning()) {
+          step.setStatus(BatchStatus.FAILED);
+          step.setExitStatus(ExitStatus.FAILED);
+          step.setEndTime(now);
+          jobRepository.update(step);
+        }
+      }
+      stale.setStatus(BatchStatus.FAILED);
+      stale.setExitStatus(ExitStatus.FAILED);
+      stale.setEndTime(now);
+      jobRepository.update(stale);
+      log.info("marked stale migration execution {} as FAILED for restart", stale.getId());
+    }
+  }
+}
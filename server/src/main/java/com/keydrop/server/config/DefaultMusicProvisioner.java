@@ -1,53 +1,231 @@
 package com.keydrop.server.config;
 
+import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.ClassPathResource;
 
 /**
  * Copies bundled default music files from classpath (/defaultmusic/*)
- * into app.media.dir so they can be served via the existing /media/** file handler.
+ * into app.media.dir so they can be served under /media/** (MediaController).
+ *
+ * The file list comes from META-INF/keydrop/defaultmusic.manifest (sha256, size, name), generated
+ * at build time, so startup neither scans the classpath nor hashes the bundled copies. A file is
+ * copied only when it is missing or its content differs from the manifest; copies run in parallel
+ * and land via temp file + atomic rename, so a crash never leaves a truncated file behind.
+ *
+ * Files already verified are remembered in {media dir}/.defaultmusic.state with their size and
+ * mtime, so a warm start only stats each file. This runs as a CommandLineRunner: Spring Boot
+ * reports readiness (and /health turns 200) only after it has finished.
  *
  * DB seeding is handled by resources/data.sql (inserts rows with mp3_file_path like "Revenger.mp3").
  */
 @Configuration
 public class DefaultMusicProvisioner {
 
+  private static final Logger log = LoggerFactory.getLogger(DefaultMusicProvisioner.class);
+  static final String MANIFEST = "META-INF/keydrop/defaultmusic.manifest";
+  private static final String STATE_FILE = ".defaultmusic.state";
+
   @Value("${app.media.dir}")
   private String mediaDir;
 
+  @Value("${app.media.provisioning.threads:4}")
+  private int threads;
+
+  record ManifestEntry(String sha256, long size, String name) {}
+
+  // 검증이 끝난 파일: 크기/수정 시각이 그대로면 다시 해시하지 않음
+  record StateEntry(String sha256, long size, long lastModified) {}
+
   @Bean
+  @Order(Ordered.HIGHEST_PRECEDENCE) // StartupWarmup 보다 먼저
   CommandLineRunner provisionDefaultMusicFiles() {
     return args -> {
-      Path targetDir = Paths.get(mediaDir);
+      long started = System.nanoTime();
+      Path targetDir = Paths.get(mediaDir).toAbsolutePath().normalize();
       Files.createDirectories(targetDir);
 
-      PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
-      Resource[] resources = resolver.getResources("classpath:/defaultmusic/*");
-
-      for (Resource r : resources) {
-        String filename = r.getFilename();
-        if (filename == null || filename.isBlank()) continue;
-        if (!r.isReadable()) continue;
-
-        Path dest = targetDir.resolve(filename);
-        // 이미 존재하면 덮어쓰지 않음 (운영에서 파일을 교체하지 않도록)
-        if (Files.exists(dest) && Files.size(dest) > 0) continue;
+      List<ManifestEntry> manifest = readManifest();
+      if (manifest == null) {
+        log.warn("{} not found on classpath, skipping default music provisioning", MANIFEST);
+        return;
+      }
+      Map<String, StateEntry> previous = readState(targetDir.resolve(STATE_FILE));
+      Map<String, StateEntry> state = new ConcurrentHashMap<>();
 
-        try (InputStream in = r.getInputStream()) {
-          Files.copy(in, dest, StandardCopyOption.REPLACE_EXISTING);
+      ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+        Thread t = new Thread(r, "default-music-provisioner");
+        t.setDaemon(true);
+        return t;
+      });
+      int copied = 0;
+      try {
+        List<Future<Boolean>> tasks = new ArrayList<>(manifest.size());
+        for (ManifestEntry e : manifest) {
+          tasks.add(pool.submit(() -> provision(targetDir, e, previous.get(e.name()), state)));
         }
+        for (Future<Boolean> f : tasks) {
+          try {
+            if (f.get()) copied++;
+          } catch (ExecutionException ex) {
+            // 한 파일 실패로 기동을 막지 않음 (다음 기동에 다시 시도)
+            log.error("default music provisioning failed", ex.getCause());
+          }
+        }
+      } finally {
+        pool.shutdownNow();
       }
+
+      writeState(targetDir.resolve(STATE_FILE), state);
+      log.info("default music: {} files, {} copied ({} ms)",
+          manifest.size(), copied, (System.nanoTime() - started) / 1_000_000);
     };
   }
-}
 
+  /** @return true when the file was (re)copied */
+  private boolean provision(Path targetDir, ManifestEntry e, StateEntry known, Map<String, StateEntry> state)
+      throws IOException {
+    Path dest = targetDir.resolve(e.name()).normalize();
+    if (!dest.startsWith(targetDir)) throw new IOException("invalid manifest entry: " + e.name());
+
+    BasicFileAttributes attrs = attributes(dest);
+    if (attrs != null && attrs.size() == e.size()) {
+      long mtime = attrs.lastModifiedTime().toMillis();
+      if (known != null && known.sha256().equals(e.sha256()) && known.size() == e.size()
+          && known.lastModified() == mtime) {
+        state.put(e.name(), known);
+        return false;
+      }
+      // 상태 파일에 없거나 바뀐 파일만 해시로 확인
+      if (e.sha256().equals(sha256Of(dest))) {
+        state.put(e.name(), new StateEntry(e.sha256(), e.size(), mtime));
+        return false;
+      }
+    }
+
+    copy(e, dest);
+    state.put(e.name(), new StateEntry(e.sha256(), e.size(), Files.getLastModifiedTime(dest).toMillis()));
+    return true;
+  }
+
+  private void copy(ManifestEntry e, Path dest) throws IOException {
+    Path tmp = Files.createTempFile(dest.getParent(), ".provision-", ".tmp");
+    try {
+      MessageDigest md = sha256();
+      try (InputStream in = new ClassPathResource("defaultmusic/" + e.name()).getInputStream();
+           OutputStream out = new DigestOutputStream(Files.newOutputStream(tmp), md)) {
+        in.transferTo(out);
+      }
+      String actual = HexFormat.of().formatHex(md.digest());
+      if (!actual.equals(e.sha256()) || Files.size(tmp) != e.size()) {
+        throw new IOException("bundled " + e.name() + " does not match the manifest");
+      }
+      Files.move(tmp, dest, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+
+  private static List<ManifestEntry> readManifest() throws IOException {
+    ClassPathResource resource = new ClassPathResource(MANIFEST);
+    if (!resource.exists()) return null;
+    List<ManifestEntry> entries = new ArrayList<>();
+    try (BufferedReader r = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = r.readLine()) != null) {
+        if (line.isBlank()) continue;
+        String[] parts = line.split("\t", 3);
+        if (parts.length != 3) throw new IOException("malformed manifest line: " + line);
+        entries.add(new ManifestEntry(parts[0], Long.parseLong(parts[1]), parts[2]));
+      }
+    }
+    return entries;
+  }
+
+  private static Map<String, StateEntry> readState(Path file) {
+    Map<String, StateEntry> state = new LinkedHashMap<>();
+    try {
+      for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+        String[] parts = line.split("\t", 4);
+        if (parts.length != 4) continue;
+        state.put(parts[3], new StateEntry(parts[0], Long.parseLong(parts[1]), Long.parseLong(parts[2])));
+      }
+    } catch (NoSuchFileException e) {
+      // 첫 기동
+    } catch (IOException | NumberFormatException e) {
+      log.warn("ignoring unreadable {}", file, e);
+      state.clear();
+    }
+    return state;
+  }
+
+  private static void writeState(Path file, Map<String, StateEntry> state) throws IOException {
+    StringBuilder sb = new StringBuilder();
+    state.forEach((name, s) -> sb.append(s.sha256()).append('\t').append(s.size()).append('\t')
+        .append(s.lastModified()).append('\t').append(name).append('\n'));
+    Path tmp = Files.createTempFile(file.getParent(), ".state-", ".tmp");
+    try {
+      Files.writeString(tmp, sb, StandardCharsets.UTF_8);
+      Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+
+  private static BasicFileAttributes attributes(Path file) throws IOException {
+    try {
+      return Files.readAttributes(file, BasicFileAttributes.class);
+    } catch (NoSuchFileException e) {
+      return null;
+    }
+  }
+
+  private static String sha256Of(Path file) throws IOException {
+    MessageDigest md = sha256();
+    try (InputStream in = new DigestInputStream(Files.newInputStream(file), md)) {
+      in.transferTo(OutputStream.nullOutputStream());
+    }
+    return HexFormat.of().formatHex(md.digest());
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -1,14 +1,29 @@
 package com.keydrop.server.config;
 
+import com.keydrop.server.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+
 @Configuration
 public class PasswordConfig {
+
+  // BCrypt 는 요청 스레드가 아니라 코어 수만큼의 전용 풀에서 실행 (대기열이 차면 503)
   @Bean
-  public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+  public PasswordEncoder passwordEncoder(
+      @Value("${app.auth.password.threads:0}") int threads,
+      @Value("${app.auth.password.queue-capacity:0}") int queueCapacity,
+      @Value("${app.auth.password.retry-after:2s}") Duration retryAfter,
+      @Value("${app.auth.password.max-wait:10s}") Duration maxWait,
+      MeterRegistry meterRegistry
+  ) {
+    int n = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    int queue = queueCapacity > 0 ? queueCapacity : n * 8;
+    return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), n, queue, retryAfter, maxWait, meterRegistry);
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,151 @@
+package com.keydrop.server.config;
+
+import com.keydrop.server.dto.MusicDto;
+import com.keydrop.server.dto.MusicSearchQuery;
+import com.keydrop.server.repository.MusicRepository;
+import com.keydrop.server.repository.RecordingRepository;
+import com.keydrop.server.repository.UserRepository;
+import com.keydrop.server.security.JwtProvider;
+import com.keydrop.server.service.MusicCatalog;
+import com.keydrop.server.service.MusicService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Exercises the hot paths once before the app reports ready, so the first real requests after a
+ * deploy do not pay for class loading, JIT, Hibernate query compilation and lazy MVC setup.
+ *
+ * Runs as the last CommandLineRunner (after default music provisioning); Spring Boot switches
+ * readiness to ACCEPTING_TRAFFIC, and /health to 200, only after it returns. Failures are logged
+ * and never block startup.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class StartupWarmup implements CommandLineRunner {
+
+  private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+
+  private final JwtProvider jwtProvider;
+  private final MusicCatalog catalog;
+  private final MusicService musicService;
+  private final ObjectMapper objectMapper;
+  private final MusicRepository musicRepository;
+  private final RecordingRepository recordingRepository;
+  private final UserRepository userRepository;
+  private final WebServerApplicationContext webContext;
+  private final boolean enabled;
+  private final int iterations;
+
+  public StartupWarmup(
+      JwtProvider jwtProvider,
+      MusicCatalog catalog,
+      MusicService musicService,
+      ObjectMapper objectMapper,
+      MusicRepository musicRepository,
+      RecordingRepository recordingRepository,
+      UserRepository userRepository,
+      WebServerApplicationContext webContext,
+      @Value("${app.warmup.enabled:true}") boolean enabled,
+      @Value("${app.warmup.iterations:200}") int iterations
+  ) {
+    this.jwtProvider = jwtProvider;
+    this.catalog = catalog;
+    this.musicService = musicService;
+    this.objectMapper = objectMapper;
+    this.musicRepository = musicRepository;
+    this.recordingRepository = recordingRepository;
+    this.userRepository = userRepository;
+    this.webContext = webContext;
+    this.enabled = enabled;
+    this.iterations = iterations;
+  }
+
+  @Override
+  public void run(String... args) {
+    if (!enabled) return;
+    long started = System.nanoTime();
+    step("jwt", this::warmJwt);
+    step("repositories", this::warmRepositories);
+    step("catalog", this::warmCatalog);
+    step("http", this::warmHttp);
+    log.info("warmup finished ({} ms)", (System.nanoTime() - started) / 1_000_000);
+  }
+
+  private void warmJwt() {
+    // 매번 다른 토큰이어야 캐시를 거치지 않고 서명 검증 경로까지 데워짐
+    for (int i = 0; i < iterations; i++) {
+      String token = jwtProvider.createAccessToken(-1L - i, "warmup@keydrop.invalid");
+      jwtProvider.getUserIdFromAccessToken(token);
+      jwtProvider.getUserIdFromAccessToken(token);
+    }
+  }
+
+  private void warmRepositories() {
+    // 자주 쓰는 쿼리를 한 번씩 실행해 Hibernate 쿼리 해석/플랜 캐시와 커넥션 풀을 데움
+    musicRepository.count();
+    musicRepository.findMaxMusicId();
+    userRepository.findByEmail("warmup@keydrop.invalid");
+    userRepository.existsByEmail("warmup@keydrop.invalid");
+    recordingRepository.findMetadataById(-1L);
+    recordingRepository.findPageByUserId(-1L, PageRequest.of(0, 1));
+  }
+
+  private void warmCatalog() {
+    MusicCatalog.Snapshot snapshot = catalog.snapshot();
+    List<MusicDto> tracks = snapshot.tracks();
+    for (int i = 0; i < Math.max(1, iterations / 20); i++) {
+      objectMapper.writeValueAsBytes(tracks);
+      catalog.changesSince(snapshot.version() - 1);
+      musicService.search(new MusicSearchQuery("a", null, 100, 140, null, null,
+          MusicSearchQuery.Sort.BPM, 0, 20));
+    }
+    if (!tracks.isEmpty()) musicService.compatible(tracks.get(0).musicId(), 10, null);
+  }
+
+  private void warmHttp() throws Exception {
+    if (webContext.getWebServer() == null) return;
+    int port = webContext.getWebServer().getPort();
+    if (port <= 0) return;
+    HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+    for (String path : List.of("/api/music", "/api/music/search?q=a", "/health")) {
+      HttpRequest req = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path))
+          .header("Accept-Encoding", "gzip")
+          .timeout(Duration.ofSeconds(5))
+          .GET()
+          .build();
+      for (int i = 0; i < 5; i++) {
+        client.send(req, HttpResponse.BodyHandlers.discarding());
+      }
+    }
+  }
+
+  private void step(String name, WarmupStep step) {
+    long started = System.nanoTime();
+    try {
+      step.run();
+      log.debug("warmup {} done ({} ms)", name, (System.nanoTime() - started) / 1_000_000);
+    } catch (Exception e) {
+      log.warn("warmup {} failed", name, e);
+    }
+  }
+
+  @FunctionalInterface
+  private interface WarmupStep {
+    void run() throws Exception;
+  }
+}
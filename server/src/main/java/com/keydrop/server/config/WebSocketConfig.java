@@ -1,15 +1,42 @@
 package com.keydrop.server.config;
 
+import com.keydrop.server.security.StompAuthChannelInterceptor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+import java.time.Duration;
 
 @Configuration
 @EnableWebSocketMessageBroker // 1. 웹소켓 기능 활성화
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final Duration sendTimeLimit;
+    private final DataSize sendBufferSize;
+    private final DataSize messageSize;
+    private final int outboundThreads;
+    private final StompAuthChannelInterceptor authInterceptor;
+
+    public WebSocketConfig(
+            StompAuthChannelInterceptor authInterceptor,
+            @Value("${app.live.ws.send-time-limit:5s}") Duration sendTimeLimit,
+            @Value("${app.live.ws.send-buffer-size:256KB}") DataSize sendBufferSize,
+            @Value("${app.live.ws.message-size:64KB}") DataSize messageSize,
+            @Value("${app.live.ws.outbound-threads:0}") int outboundThreads
+    ) {
+        this.authInterceptor = authInterceptor;
+        this.sendTimeLimit = sendTimeLimit;
+        this.sendBufferSize = sendBufferSize;
+        this.messageSize = messageSize;
+        this.outboundThreads = outboundThreads > 0 ? outboundThreads : Runtime.getRuntime().availableProcessors() * 2;
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         // 2. 연결 문(Door) 열기
@@ -17,6 +44,9 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.addEndpoint("/ws")
                 .setAllowedOriginPatterns("*") // 모든 출처 허용 (CORS 문제 방지)
                 .withSockJS(); // 브라우저가 웹소켓을 지원 안 하면 대체 기술 사용
+
+        // DJ 가 보낸 순서대로 덱 상태 반영
+        registry.setPreserveReceiveOrder(true);
     }
 
     @Override
@@ -24,8 +54,33 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         // 3. 메시지 라우팅 설정
         // 클라이언트가 듣는 곳 (구독, Subscribe) -> "/topic/게임방이름"
         registry.enableSimpleBroker("/topic");
-        
+
         // 클라이언트가 말하는 곳 (발행, Publish) -> "/app/메시지"
         registry.setApplicationDestinationPrefixes("/app");
+
+        // 세션별로 틱 순서 유지 (seq 가 거꾸로 도착하지 않도록)
+        registry.setPreservePublishOrder(true);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // 4. 느린 시청자 격리: 전송이 send-time-limit 넘게 걸리거나 대기 버퍼가 차면 그 세션만 끊음
+        //    (브로커/다른 시청자는 기다리지 않음)
+        registration.setSendTimeLimit((int) sendTimeLimit.toMillis())
+                .setSendBufferSizeLimit((int) sendBufferSize.toBytes())
+                .setMessageSizeLimit((int) messageSize.toBytes());
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // CONNECT 의 Authorization 으로 세션 사용자 설정, DJ 전용 목적지 보호
+        registration.interceptors(authInterceptor);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(outboundThreads)
+                .maxPoolSize(outboundThreads);
     }
-}
\ No newline at end of file
+}
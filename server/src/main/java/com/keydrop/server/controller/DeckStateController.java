@@ -0,0 +1,52 @@
+package com.keydrop.server.controller;
+
+import com.keydrop.server.dto.DeckStateMessage;
+import com.keydrop.server.dto.DeckStateUpdate;
+import com.keydrop.server.service.DeckStateService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.stereotype.Controller;
+
+import java.security.Principal;
+
+/**
+ * STOMP deck-state channel of a live room.
+ *
+ * DJ: SEND /app/live/{room}/deck with a {@link DeckStateUpdate}, on a session connected with the
+ * access token; the first user to publish to a room owns it until the room goes idle.
+ * Viewer: SUBSCRIBE /topic/live/{room}/deck for the ticks, and SUBSCRIBE /app/live/{room}/deck once
+ * for the current snapshot.
+ */
+@Controller
+public class DeckStateController {
+
+  private static final Logger log = LoggerFactory.getLogger(DeckStateController.class);
+
+  private final DeckStateService deckState;
+
+  public DeckStateController(DeckStateService deckState) {
+    this.deckState = deckState;
+  }
+
+  @MessageMapping("/live/{room}/deck")
+  public void update(@DestinationVariable String room, @Payload DeckStateUpdate update, Principal user) {
+    // 인증은 StompAuthChannelInterceptor 가 보장 (익명 SEND 는 여기까지 오지 않음)
+    deckState.update(room, Long.valueOf(user.getName()), update);
+  }
+
+  // 늦게 들어온 시청자: 구독 즉시 전체 상태를 그 세션에만 응답
+  @SubscribeMapping("/live/{room}/deck")
+  public DeckStateMessage snapshot(@DestinationVariable String room) {
+    return deckState.snapshot(room);
+  }
+
+  @MessageExceptionHandler(IllegalArgumentException.class)
+  public void rejected(IllegalArgumentException e) {
+    log.debug("deck state message rejected: {}", e.getMessage());
+  }
+}
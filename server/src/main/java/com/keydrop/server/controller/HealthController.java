@@ -1,5 +1,8 @@
 package com.keydrop.server.controller;
 
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -7,8 +10,18 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 public class HealthController {
 
+  private final ApplicationAvailability availability;
+
+  public HealthController(ApplicationAvailability availability) {
+    this.availability = availability;
+  }
+
+  // 기동 작업(기본 음악 복사 등)이 끝나 readiness 가 올라간 뒤에만 200
   @GetMapping("/health")
   public ResponseEntity<String> health() {
+    if (availability.getReadinessState() != ReadinessState.ACCEPTING_TRAFFIC) {
+      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("starting");
+    }
     return ResponseEntity.ok("ok");
   }
-}
\ No newline at end of file
+}
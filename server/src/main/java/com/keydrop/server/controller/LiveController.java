@@ -1,12 +1,18 @@
 package com.keydrop.server.controller;
 
 import com.keydrop.server.service.LiveService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/live")
 public class LiveController {
 
+  private static final String API_KEY_HEADER = "X-Api-Key";
+
   private final LiveService liveService;
 
   public LiveController(LiveService liveService) {
@@ -18,6 +24,24 @@ public class LiveController {
     return liveService.issue(req);
   }
 
+  /**
+   * Viewer tokens in bulk for edge/proxy pre-provisioning (at most livekit.token.max-bulk per call).
+   * Service-to-service only: requires X-Api-Key = livekit.token.bulk-api-key (401 without it, 403 if
+   * wrong or when no key is configured).
+   */
+  @PostMapping("/tokens")
+  public ResponseEntity<BulkTokenResponse> tokens(
+      @RequestHeader(value = API_KEY_HEADER, required = false) String apiKey,
+      @RequestBody BulkTokenRequest req
+  ) {
+    if (apiKey == null || apiKey.isBlank()) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    if (!liveService.isBulkApiKey(apiKey)) return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+    return ResponseEntity.ok(liveService.issueViewers(req));
+  }
+
   public record TokenRequest(String room, String role, String identity) {}
   public record TokenResponse(String token, String url) {}
+  public record BulkTokenRequest(String room, int count) {}
+  public record IssuedToken(String identity, String token) {}
+  public record BulkTokenResponse(String url, List<IssuedToken> tokens) {}
 }
\ No newline at end of file
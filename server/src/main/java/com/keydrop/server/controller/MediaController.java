@@ -0,0 +1,96 @@
+package com.keydrop.server.controller;
+
+import com.keydrop.server.audio.Mp3SeekTable;
+import com.keydrop.server.service.MediaFileService;
+import com.keydrop.server.service.SeekIndexService;
+import com.keydrop.server.web.RangeResponder;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Serves app.media.dir under app.media.urlPrefix (replaces the plain resource handler).
+ *
+ * URLs from the catalog carry ?v=&lt;version&gt;; when it matches the current file the response is
+ * cacheable for a year as immutable. Without (or with a stale) v the client has to revalidate,
+ * which the content-hash ETag turns into a 304.
+ *
+ * For MP3 files ?t=&lt;seconds&gt; answers with a 206 starting at the indexed frame at or before t
+ * (see {@link SeekIndexService}) and reports that frame's time in X-Seek-Time. An explicit Range
+ * header takes precedence over t; t is then ignored (no seek lookup, no X-Seek-Time), as it is for
+ * a 304.
+ */
+@RestController
+public class MediaController {
+
+  private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+  private static final CacheControl REVALIDATE = CacheControl.noCache().cachePublic();
+  private static final String SEEK_TIME_HEADER = "X-Seek-Time";
+
+  private final MediaFileService media;
+  private final SeekIndexService seekIndex;
+  private final String urlPrefix;
+
+  public MediaController(MediaFileService media, SeekIndexService seekIndex,
+                         @Value("${app.media.urlPrefix}") String urlPrefix) {
+    this.media = media;
+    this.seekIndex = seekIndex;
+    this.urlPrefix = urlPrefix;
+  }
+
+  @GetMapping("${app.media.urlPrefix}/**")
+  public void serve(
+      @RequestParam(value = "v", required = false) String version,
+      @RequestParam(value = "t", required = false) Double seekSec,
+      HttpServletRequest request,
+      HttpServletResponse response
+  ) throws IOException {
+    String path = UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+    if (!path.startsWith(urlPrefix + "/")) {
+      response.sendError(HttpStatus.NOT_FOUND.value());
+      return;
+    }
+
+    MediaFileService.MediaFile file = media.find(path.substring(urlPrefix.length() + 1)).orElse(null);
+    if (file == null) {
+      response.sendError(HttpStatus.NOT_FOUND.value());
+      return;
+    }
+
+    RangeResponder.ImpliedRange seekRange = null;
+    if (seekSec != null) {
+      if (!Double.isFinite(seekSec) || seekSec < 0) {
+        throw new IllegalArgumentException("t must be a non-negative number of seconds");
+      }
+      // 시크 테이블은 t 구간을 실제로 응답할 때만 찾음 (Range 헤더가 있거나 304 이면 건너뜀)
+      seekRange = res -> {
+        Mp3SeekTable table = seekIndex.table(file)
+            .orElseThrow(() -> new IllegalArgumentException("t is only supported for MP3 files"));
+        Mp3SeekTable.SeekPoint point = table.seek(seekSec);
+        res.setHeader(SEEK_TIME_HEADER, Double.toString(point.timeSec()));
+        return HttpRange.createByteRange(point.offset(), table.audioEnd() - 1);
+      };
+    }
+
+    RangeResponder.Representation rep = new RangeResponder.Representation(
+        file.size(),
+        file.contentType(),
+        media.etag(file),
+        file.lastModified(),
+        file.version().equals(version) ? IMMUTABLE : REVALIDATE,
+        null
+    );
+    RangeResponder.respond(request, response, rep,
+        (offset, length, out) -> media.write(file, offset, length, out), seekRange);
+  }
+}
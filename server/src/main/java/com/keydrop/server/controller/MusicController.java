@@ -1,28 +1,143 @@
 package com.keydrop.server.controller;
 
+import com.keydrop.server.dto.MixCandidateDto;
+import com.keydrop.server.dto.MusicCatalogDelta;
 import com.keydrop.server.dto.MusicDto;
+import com.keydrop.server.dto.MusicSearchQuery;
+import com.keydrop.server.dto.MusicSearchResult;
+import com.keydrop.server.dto.SeekPointDto;
+import com.keydrop.server.service.MusicBundleService;
+import com.keydrop.server.service.MusicCatalog;
 import com.keydrop.server.service.MusicService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/api/music")
 public class MusicController {
 
+  private static final String VERSION_HEADER = "X-Catalog-Version";
+
   private final MusicService service;
 
   public MusicController(MusicService service) {
     this.service = service;
   }
 
+  /**
+   * Whole catalog, served from the pre-serialized snapshot. Clients revalidate with If-None-Match
+   * and get 304 until the catalog version changes.
+   */
   @GetMapping
-  public List<MusicDto> list() {
-    return service.list();
+  public ResponseEntity<byte[]> list(
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+  ) {
+    MusicCatalog.Snapshot s = service.snapshot();
+    boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    String etag = gzip ? s.gzipEtag() : s.etag();
+
+    if (matches(ifNoneMatch, s)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+          .eTag(etag)
+          .cacheControl(CacheControl.noCache())
+          .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+          .header(VERSION_HEADER, Long.toString(s.version()))
+          .build();
+    }
+
+    ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+        .eTag(etag)
+        .cacheControl(CacheControl.noCache())
+        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+        .header(VERSION_HEADER, Long.toString(s.version()))
+        .contentType(MediaType.APPLICATION_JSON);
+    if (gzip) ok.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+    return ok.body(gzip ? s.gzipJson() : s.json());
+  }
+
+  @GetMapping(params = "since")
+  public MusicCatalogDelta changesSince(@RequestParam("since") long since) {
+    return service.changesSince(since);
+  }
+
+  @GetMapping("/search")
+  public MusicSearchResult search(
+      @RequestParam(value = "q", required = false) String q,
+      @RequestParam(value = "genre", required = false) List<String> genres,
+      @RequestParam(value = "bpmMin", required = false) Integer bpmMin,
+      @RequestParam(value = "bpmMax", required = false) Integer bpmMax,
+      @RequestParam(value = "durationMin", required = false) Double durationMin,
+      @RequestParam(value = "durationMax", required = false) Double durationMax,
+      @RequestParam(value = "sort", defaultValue = "catalog") String sort,
+      @RequestParam(value = "page", defaultValue = "0") int page,
+      @RequestParam(value = "size", defaultValue = "50") int size
+  ) {
+    MusicSearchQuery.Sort order = MusicSearchQuery.Sort.valueOf(sort.trim().toUpperCase(Locale.ROOT));
+    return service.search(new MusicSearchQuery(q, genres, bpmMin, bpmMax, durationMin, durationMax, order, page, size));
   }
 
   @GetMapping("/{id}")
   public MusicDto get(@PathVariable long id) {
     return service.get(id);
   }
-}
\ No newline at end of file
+
+  @GetMapping("/{id}/compatible")
+  public List<MixCandidateDto> compatible(
+      @PathVariable long id,
+      @RequestParam(value = "limit", defaultValue = "20") int limit,
+      @RequestParam(value = "maxPitch", required = false) Double maxPitch
+  ) {
+    return service.compatible(id, limit, maxPitch);
+  }
+
+  /** Deck load bundle (metadata, beat grid, peak pyramid), binary; format in {@link MusicBundleService}. */
+  @GetMapping("/{id}/bundle")
+  public ResponseEntity<byte[]> bundle(
+      @PathVariable long id,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+  ) {
+    MusicBundleService.Bundle b = service.bundle(id);
+    if (ifNoneMatch != null && ifNoneMatch.replace("W/", "").contains(b.etag())) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(b.etag()).cacheControl(CacheControl.noCache()).build();
+    }
+    return ResponseEntity.ok()
+        .eTag(b.etag())
+        .cacheControl(CacheControl.noCache())
+        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+        .body(b.bytes());
+  }
+
+  /** Bundles of several tracks (e.g. a whole crate) in one response: ?ids=1,2,3 */
+  @GetMapping("/bundles")
+  public ResponseEntity<byte[]> bundles(@RequestParam("ids") List<Long> ids) {
+    return ResponseEntity.ok()
+        .cacheControl(CacheControl.noCache())
+        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+        .body(service.bundles(ids));
+  }
+
+  /** Frame-aligned byte range for starting playback at t seconds (VBR-exact, from the seek table). */
+  @GetMapping("/{id}/seek")
+  public SeekPointDto seek(@PathVariable long id, @RequestParam("t") double seconds) {
+    return service.seek(id, seconds);
+  }
+
+  // 같은 버전이면 gzip 여부와 상관없이 304 (W/ 접두사는 무시)
+  private static boolean matches(String ifNoneMatch, MusicCatalog.Snapshot s) {
+    if (ifNoneMatch == null) return false;
+    for (String tag : ifNoneMatch.split(",")) {
+      String t = tag.trim();
+      if (t.startsWith("W/")) t = t.substring(2);
+      if (t.equals("*") || t.equals(s.etag()) || t.equals(s.gzipEtag())) return true;
+    }
+    return false;
+  }
+}
@@ -2,20 +2,33 @@ package com.keydrop.server.controller;
 
 import com.keydrop.server.domain.Recording;
 import com.keydrop.server.dto.RecordingDto;
+import com.keydrop.server.dto.RecordingPage;
+import com.keydrop.server.dto.RecordingPeaksDto;
+import com.keydrop.server.repository.RecordingMetadata;
 import com.keydrop.server.security.JwtProvider;
 import com.keydrop.server.service.RecordingService;
-import org.springframework.http.HttpHeaders;
+import com.keydrop.server.web.RangeResponder;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/recordings")
 public class RecordingController {
 
+  private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+  private static final int DEFAULT_PAGE_SIZE = 50;
+
   private final RecordingService service;
   private final JwtProvider jwtProvider;
 
@@ -25,9 +38,24 @@ public class RecordingController {
   }
 
   @GetMapping
-  public List<RecordingDto> list(@RequestHeader(value = "Authorization", required = false) String authorization) {
+  public ResponseEntity<List<RecordingDto>> list(
+      @RequestHeader(value = "Authorization", required = false) String authorization,
+      @RequestParam(value = "cursor", required = false) String cursor,
+      @RequestParam(value = "limit", required = false) Integer limit
+  ) {
     Long userId = resolveUserIdOrThrow(authorization);
-    return service.listByUserId(userId);
+    // cursor/limit 없이 부르는 기존 클라이언트(MyProfilePage)는 예전처럼 전체 목록
+    if ((cursor == null || cursor.isBlank()) && limit == null) {
+      return ResponseEntity.ok(service.listAllByUserId(userId));
+    }
+    RecordingPage page = service.listByUserId(userId, cursor, limit != null ? limit : DEFAULT_PAGE_SIZE);
+
+    // 응답 본문은 기존처럼 배열 유지, 다음 페이지 커서는 헤더로 전달
+    ResponseEntity.BodyBuilder res = ResponseEntity.ok();
+    if (page.nextCursor() != null) {
+      res.header(NEXT_CURSOR_HEADER, page.nextCursor());
+    }
+    return res.body(page.items());
   }
 
   @GetMapping("/{id}")
@@ -46,13 +74,53 @@ public class RecordingController {
   }
 
   @GetMapping("/{id}/file")
-  public ResponseEntity<byte[]> download(@PathVariable long id) {
-    Recording r = service.getEntity(id);
+  public void download(@PathVariable long id, HttpServletRequest request, HttpServletResponse response)
+      throws IOException {
+    RecordingMetadata m = service.getMetadata(id);
+
+    // storage key 는 내용의 SHA-256 이므로 그대로 strong ETag 로 사용 (legacy 행은 id + size)
+    String etag = m.getStorageKey() != null
+        ? "\"" + m.getStorageKey() + "\""
+        : "\"" + m.getRecordingId() + "-" + m.getSizeBytes() + "\"";
+
+    RangeResponder.Representation rep = new RangeResponder.Representation(
+        m.getSizeBytes(),
+        contentType(m.getContentType()),
+        etag,
+        m.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant(),
+        CacheControl.noCache().cachePrivate(),
+        "attachment; filename=\"" + safeFileName(m.getFileName()) + "\""
+    );
 
-    return ResponseEntity.ok()
-        .header(HttpHeaders.CONTENT_TYPE, r.getContentType())
-        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + safeFileName(r.getFileName()) + "\"")
-        .body(r.getAudioData());
+    RangeResponder.respond(request, response, rep,
+        (offset, length, out) -> service.writeAudio(m, offset, length, out));
+  }
+
+  @GetMapping("/{id}/peaks")
+  public ResponseEntity<?> peaks(@PathVariable long id) {
+    RecordingMetadata m = service.getMetadata(id);
+    if (m.getProcessingStatus() == Recording.ProcessingStatus.FAILED) {
+      // 분석 실패는 최종 상태: 202 로 답하면 클라이언트가 끝없이 폴링함
+      return ResponseEntity.status(422)
+          .body(Map.of("error", "recording analysis failed"));
+    }
+    if (m.getProcessingStatus() != Recording.ProcessingStatus.DONE) {
+      // 아직 백그라운드 분석 중
+      return ResponseEntity.accepted().build();
+    }
+    return service.getPeaks(m)
+        .map(p -> ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).body(p))
+        .orElseGet(() -> ResponseEntity.notFound().build());
+  }
+
+  // 업로드 시 클라이언트가 보낸 값이라 형식이 틀릴 수 있음
+  private static MediaType contentType(String value) {
+    if (value == null || value.isBlank()) return MediaType.APPLICATION_OCTET_STREAM;
+    try {
+      return MediaType.parseMediaType(value);
+    } catch (InvalidMediaTypeException e) {
+      return MediaType.APPLICATION_OCTET_STREAM;
+    }
   }
 
   private String safeFileName(String name) {
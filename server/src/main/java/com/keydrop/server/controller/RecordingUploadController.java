@@ -0,0 +1,87 @@
+package com.keydrop.server.controller;
+
+import com.keydrop.server.dto.RecordingDto;
+import com.keydrop.server.dto.RecordingUploadRequest;
+import com.keydrop.server.dto.RecordingUploadStatus;
+import com.keydrop.server.security.JwtProvider;
+import com.keydrop.server.service.RecordingUploadService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Chunked, resumable upload protocol for long recordings.
+ *
+ * POST   /api/recordings/uploads                      -> open session
+ * PUT    /api/recordings/uploads/{uploadId}/chunks/{n} -> raw chunk body + X-Chunk-Sha256
+ * GET    /api/recordings/uploads/{uploadId}           -> received chunk ranges
+ * POST   /api/recordings/uploads/{uploadId}/complete  -> assemble and create the recording
+ * DELETE /api/recordings/uploads/{uploadId}           -> abort
+ */
+@RestController
+@RequestMapping("/api/recordings/uploads")
+public class RecordingUploadController {
+
+  private final RecordingUploadService service;
+  private final JwtProvider jwtProvider;
+
+  public RecordingUploadController(RecordingUploadService service, JwtProvider jwtProvider) {
+    this.service = service;
+    this.jwtProvider = jwtProvider;
+  }
+
+  @PostMapping
+  public RecordingUploadStatus create(
+      @RequestHeader(value = "Authorization", required = false) String authorization,
+      @RequestBody @Valid RecordingUploadRequest req
+  ) {
+    return service.create(req, resolveUserIdOrThrow(authorization));
+  }
+
+  @PutMapping("/{uploadId}/chunks/{index}")
+  public RecordingUploadStatus putChunk(
+      @RequestHeader(value = "Authorization", required = false) String authorization,
+      @RequestHeader(value = "X-Chunk-Sha256", required = false) String sha256,
+      @PathVariable String uploadId,
+      @PathVariable int index,
+      InputStream body
+  ) throws IOException {
+    return service.putChunk(uploadId, index, sha256, body, resolveUserIdOrThrow(authorization));
+  }
+
+  @GetMapping("/{uploadId}")
+  public RecordingUploadStatus status(
+      @RequestHeader(value = "Authorization", required = false) String authorization,
+      @PathVariable String uploadId
+  ) {
+    return service.status(uploadId, resolveUserIdOrThrow(authorization));
+  }
+
+  @PostMapping("/{uploadId}/complete")
+  public RecordingDto complete(
+      @RequestHeader(value = "Authorization", required = false) String authorization,
+      @PathVariable String uploadId
+  ) {
+    return service.complete(uploadId, resolveUserIdOrThrow(authorization));
+  }
+
+  @DeleteMapping("/{uploadId}")
+  public ResponseEntity<Void> abort(
+      @RequestHeader(value = "Authorization", required = false) String authorization,
+      @PathVariable String uploadId
+  ) {
+    service.abort(uploadId, resolveUserIdOrThrow(authorization));
+    return ResponseEntity.noContent().build();
+  }
+
+  private Long resolveUserIdOrThrow(String authorization) {
+    if (authorization == null || authorization.isBlank()) {
+      throw new IllegalArgumentException("Authorization is required");
+    }
+    String token = authorization.replace("Bearer ", "").trim();
+    return jwtProvider.getUserIdFromAccessToken(token);
+  }
+}
@@ -1,9 +1,12 @@
 package com.keydrop.server.controller;
 
-import com.keydrop.server.domain.User;
 import com.keydrop.server.dto.UserMeDto;
-import com.keydrop.server.repository.UserRepository;
 import com.keydrop.server.security.JwtProvider;
+import com.keydrop.server.service.UserProfileService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -13,22 +16,32 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/users")
 public class UserController {
 
-  private final UserRepository userRepository;
+  private final UserProfileService userProfiles;
   private final JwtProvider jwtProvider;
 
-  public UserController(UserRepository userRepository, JwtProvider jwtProvider) {
-    this.userRepository = userRepository;
+  public UserController(UserProfileService userProfiles, JwtProvider jwtProvider) {
+    this.userProfiles = userProfiles;
     this.jwtProvider = jwtProvider;
   }
 
+  /** Cached profile; clients revalidate with If-None-Match (304 while nickname/e-mail are unchanged). */
   @GetMapping("/me")
-  public UserMeDto me(@RequestHeader(value = "Authorization", required = false) String authorization) {
+  public ResponseEntity<UserMeDto> me(
+      @RequestHeader(value = "Authorization", required = false) String authorization,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+  ) {
     Long userId = resolveUserIdOrThrow(authorization);
+    UserProfileService.Profile p = userProfiles.profile(userId);
 
-    User user = userRepository.findById(userId)
-        .orElseThrow(() -> new IllegalArgumentException("유저를 찾을 수 없습니다."));
-
-    return new UserMeDto(user.getEmail(), user.getNickname());
+    // 유저별 응답이므로 공유 캐시(프록시)에는 저장하지 않음
+    CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+    if (ifNoneMatch != null && ifNoneMatch.replace("W/", "").contains(p.etag())) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(p.etag()).cacheControl(cacheControl).build();
+    }
+    return ResponseEntity.ok()
+        .eTag(p.etag())
+        .cacheControl(cacheControl)
+        .body(p.dto());
   }
 
   private Long resolveUserIdOrThrow(String authorization) {
@@ -39,6 +39,23 @@ public class Music {
   @Column(name = "created_at", insertable = false, updatable = false)
   private LocalDateTime createdAt;
 
+  // 서버 비트 분석 결과 (MusicAnalysisService)
+  @Column(name = "analyzed_bpm")
+  private Double analyzedBpm;
+
+  @Column(name = "bpm_confidence")
+  private Double bpmConfidence;
+
+  @Column(name = "first_downbeat_sec")
+  private Double firstDownbeatSec;
+
+  // 분석기 버전:파일 크기:수정 시각 — 바뀐 파일만 다시 분석
+  @Column(name = "analysis_fingerprint", length = 100)
+  private String analysisFingerprint;
+
+  @Column(name = "analyzed_at")
+  private LocalDateTime analyzedAt;
+
   protected Music() {
     // JPA
   }
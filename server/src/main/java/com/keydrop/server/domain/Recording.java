@@ -8,7 +8,14 @@ import org.hibernate.type.SqlTypes;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "recordings")
+@Table(name = "recordings",
+  indexes = {
+    // 내 녹음 목록 keyset 페이지네이션용
+    @Index(name = "idx_recordings_user_created", columnList = "user_id, created_at DESC, recording_id DESC"),
+    // blob 참조 수 확인 (GC)
+    @Index(name = "idx_recordings_storage_key", columnList = "storage_key")
+  }
+)
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor
@@ -40,10 +47,31 @@ public class Recording {
   @Builder.Default
   private LocalDateTime createdAt = LocalDateTime.now();
 
+  // 업로드 후 백그라운드 분석 결과 (RecordingProcessingService)
+  @Enumerated(EnumType.STRING)
+  @Column(name = "processing_status", length = 20)
+  @Builder.Default
+  private ProcessingStatus processingStatus = ProcessingStatus.PENDING;
+
+  @Column(name = "content_sha256", length = 64)
+  private String contentSha256;
+
+  @Column(name = "codec", length = 50)
+  private String codec;
+
+  @Column(name = "processed_at")
+  private LocalDateTime processedAt;
+
+  // RecordingStorage 에 저장된 실제 오디오 파일의 키 (내용의 SHA-256, 같은 내용이면 여러 행이 공유)
+  @Column(name = "storage_key", length = 255)
+  private String storageKey;
+
+  // Legacy: storage 도입 이전 업로드는 bytea 로 저장되어 있음 (신규 업로드는 null)
   @Basic(fetch = FetchType.LAZY)
   // Postgres: bytea 로 저장 (LOB/oid 매핑으로 bigint가 들어가는 문제 방지)
   @JdbcTypeCode(SqlTypes.VARBINARY)
-  @Column(name = "audio_data", nullable = false, columnDefinition = "bytea")
+  @Column(name = "audio_data", columnDefinition = "bytea")
   private byte[] audioData;
-}
 
+  public enum ProcessingStatus { PENDING, DONE, FAILED }
+}
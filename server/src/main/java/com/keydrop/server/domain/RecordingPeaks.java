@@ -0,0 +1,34 @@
+package com.keydrop.server.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * Multi-resolution amplitude summary of a recording, computed once after upload.
+ * Kept out of {@code recordings} so metadata queries never drag it along.
+ */
+@Entity
+@Table(name = "recording_peaks")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class RecordingPeaks {
+
+  @Id
+  @Column(name = "recording_id")
+  private Long recordingId;
+
+  // [levelCount:u8] { [bars:u32 BE] [bars x u8] } * levelCount, 큰 해상도부터
+  @JdbcTypeCode(SqlTypes.VARBINARY)
+  @Column(name = "levels", nullable = false, columnDefinition = "bytea")
+  private byte[] levels;
+
+  @Column(name = "created_at", nullable = false)
+  @Builder.Default
+  private LocalDateTime createdAt = LocalDateTime.now();
+}
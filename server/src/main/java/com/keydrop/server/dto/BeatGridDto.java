@@ -0,0 +1,10 @@
+package com.keydrop.server.dto;
+
+/**
+ * Server-analyzed beat grid: beats fall at firstDownbeatSec + k * 60 / bpm, bars every four beats.
+ */
+public record BeatGridDto(
+    double bpm,
+    double confidence,
+    double firstDownbeatSec
+) {}
@@ -0,0 +1,18 @@
+package com.keydrop.server.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deck state pushed to viewers. On /topic/live/{room}/deck, one message per tick carries the latest
+ * value of every field changed since the previous tick; {@code removed} lists cleared fields. The
+ * reply to subscribing to /app/live/{room}/deck has {@code snapshot} set and the whole state.
+ * Clients apply a tick only if its {@code seq} is greater than the one they have.
+ */
+public record DeckStateMessage(
+    String room,
+    long seq,
+    boolean snapshot,
+    Map<String, Object> fields,
+    List<String> removed
+) {}
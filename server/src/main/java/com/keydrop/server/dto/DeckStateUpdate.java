@@ -0,0 +1,10 @@
+package com.keydrop.server.dto;
+
+import java.util.Map;
+
+/**
+ * Deck control changes sent by the DJ to /app/live/{room}/deck, e.g.
+ * {@code {"fields": {"deckA.trackId": 12, "deckA.bpm": 127.8, "crossfader": 0.35, "fx.echo.wet": 0.2}}}.
+ * Only the fields that changed need to be sent; a null value removes the field.
+ */
+public record DeckStateUpdate(Map<String, Object> fields) {}
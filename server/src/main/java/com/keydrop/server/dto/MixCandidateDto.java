@@ -0,0 +1,14 @@
+package com.keydrop.server.dto;
+
+/**
+ * A track that can be mixed into the requested one.
+ *
+ * @param relation     "same", "half" (candidate is half time) or "double"
+ * @param pitchPercent pitch fader change on the candidate to match the requested track's tempo
+ */
+public record MixCandidateDto(
+    MusicDto track,
+    String relation,
+    double pitchPercent,
+    boolean sameGenre
+) {}
@@ -0,0 +1,14 @@
+package com.keydrop.server.dto;
+
+import java.util.List;
+
+/**
+ * Changes since a client's last catalog version. When {@code full} is true the client's version
+ * is unknown to this server (e.g. older than the last restart) and {@code changed} is the whole catalog.
+ */
+public record MusicCatalogDelta(
+    long version,
+    boolean full,
+    List<MusicDto> changed,
+    List<Long> removed
+) {}
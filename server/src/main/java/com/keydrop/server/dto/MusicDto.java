@@ -1,5 +1,7 @@
 package com.keydrop.server.dto;
 
+import java.util.Map;
+
 public record MusicDto(
     long musicId,
     String title,
@@ -8,5 +10,8 @@ public record MusicDto(
     String genre,
     double duration,
     String mp3Url,
-    String imageUrl
+    String previewUrl, // 가장 소리가 큰 구간의 미리듣기 클립 (생성 전이면 null)
+    String imageUrl,
+    Map<Integer, String> thumbnails, // 한 변 px -> URL (생성 전이면 비어 있음)
+    BeatGridDto beatGrid // 서버 분석 전이면 null
 ) {}
\ No newline at end of file
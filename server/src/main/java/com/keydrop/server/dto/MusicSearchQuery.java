@@ -0,0 +1,21 @@
+package com.keydrop.server.dto;
+
+import java.util.List;
+
+/**
+ * Search filters; null bounds are open. {@code q} is matched as word prefixes over title and artists,
+ * {@code genres} are OR-ed, everything else is AND-ed.
+ */
+public record MusicSearchQuery(
+    String q,
+    List<String> genres,
+    Integer bpmMin,
+    Integer bpmMax,
+    Double durationMin,
+    Double durationMax,
+    Sort sort,
+    int page,
+    int size
+) {
+  public enum Sort { CATALOG, BPM, DURATION }
+}
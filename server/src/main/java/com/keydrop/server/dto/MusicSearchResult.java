@@ -0,0 +1,21 @@
+package com.keydrop.server.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of search hits plus facet counts. Each facet is counted with every filter applied
+ * except its own, so the UI can show how many tracks selecting another value would give.
+ */
+public record MusicSearchResult(
+    long catalogVersion,
+    int total,
+    int page,
+    int size,
+    List<MusicDto> items,
+    Map<String, Integer> genres,
+    List<BpmBucket> bpm
+) {
+  /** Tracks with bpm in [from, to). */
+  public record BpmBucket(int from, int to, int count) {}
+}
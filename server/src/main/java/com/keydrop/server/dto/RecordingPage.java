@@ -0,0 +1,11 @@
+package com.keydrop.server.dto;
+
+import java.util.List;
+
+/**
+ * One page of a user's recordings; nextCursor is null on the last page.
+ */
+public record RecordingPage(
+    List<RecordingDto> items,
+    String nextCursor
+) {}
@@ -0,0 +1,12 @@
+package com.keydrop.server.dto;
+
+import java.util.List;
+
+public record RecordingPeaksDto(
+    long recordingId,
+    Double durationSec,
+    List<Level> levels
+) {
+  // peaks: 0..255 로 양자화된 막대 높이 (bars 개)
+  public record Level(int bars, int[] peaks) {}
+}
@@ -0,0 +1,15 @@
+package com.keydrop.server.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+/**
+ * Opens a chunked upload session. chunkSize is optional; the server clamps it to its limits.
+ */
+public record RecordingUploadRequest(
+    String fileName,
+    String contentType,
+    @NotNull @Positive Long totalSize,
+    @Positive Long chunkSize,
+    Double durationSec
+) {}
@@ -0,0 +1,15 @@
+package com.keydrop.server.dto;
+
+import java.util.List;
+
+public record RecordingUploadStatus(
+    String uploadId,
+    long totalSize,
+    long chunkSize,
+    int chunkCount,
+    List<ChunkRange> receivedChunks,
+    boolean complete
+) {
+  // 받은 청크 인덱스 구간 [first, last] (양끝 포함)
+  public record ChunkRange(int first, int last) {}
+}
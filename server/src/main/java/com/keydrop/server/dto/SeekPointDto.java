@@ -0,0 +1,15 @@
+package com.keydrop.server.dto;
+
+/**
+ * Frame-aligned start point for playback from a given time: fetching mp3Url with
+ * {@code Range: bytes=byteStart-byteEnd} yields audio that begins exactly at timeSec (at or before
+ * the requested time).
+ */
+public record SeekPointDto(
+    long musicId,
+    double requestedSec,
+    double timeSec,
+    long byteStart,
+    long byteEnd,
+    String mp3Url
+) {}
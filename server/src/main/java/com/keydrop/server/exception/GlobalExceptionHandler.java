@@ -16,6 +16,15 @@ public class GlobalExceptionHandler {
         .body(Map.of("error", e.getMessage() != null ? e.getMessage() : "Invalid Request"));
   }
 
+  @ExceptionHandler(ServerBusyException.class)
+  public ResponseEntity<Map<String, String>> handleServerBusy(ServerBusyException e) {
+    return ResponseEntity
+        .status(org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE)
+        .header(org.springframework.http.HttpHeaders.RETRY_AFTER,
+            Long.toString(Math.max(1, e.getRetryAfter().toSeconds())))
+        .body(Map.of("error", e.getMessage()));
+  }
+
   @ExceptionHandler(org.springframework.dao.DataIntegrityViolationException.class)
   public ResponseEntity<Map<String, String>> handleDataIntegrityViolation(org.springframework.dao.DataIntegrityViolationException e) {
     return ResponseEntity
@@ -0,0 +1,21 @@
+package com.keydrop.server.exception;
+
+import java.time.Duration;
+
+/**
+ * A bounded resource (e.g. the password hashing pool) is saturated; answered with 503 and
+ * Retry-After so clients back off instead of piling up on request threads.
+ */
+public class ServerBusyException extends RuntimeException {
+
+  private final Duration retryAfter;
+
+  public ServerBusyException(String message, Duration retryAfter) {
+    super(message);
+    this.retryAfter = retryAfter;
+  }
+
+  public Duration getRetryAfter() {
+    return retryAfter;
+  }
+}
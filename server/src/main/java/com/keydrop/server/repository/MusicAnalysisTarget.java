@@ -0,0 +1,10 @@
+package com.keydrop.server.repository;
+
+/**
+ * What the beat analysis needs to decide whether a track's file changed since it was last analyzed.
+ */
+public interface MusicAnalysisTarget {
+  Long getMusicId();
+  String getMp3FilePath();
+  String getAnalysisFingerprint();
+}
@@ -0,0 +1,7 @@
+package com.keydrop.server.repository;
+
+import com.keydrop.server.domain.MusicPeaks;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface MusicPeaksRepository extends JpaRepository<MusicPeaks, Long> {
+}
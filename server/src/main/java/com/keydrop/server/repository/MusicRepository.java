@@ -2,6 +2,49 @@ package com.keydrop.server.repository;
 
 import com.keydrop.server.domain.Music;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
 public interface MusicRepository extends JpaRepository<Music, Long> {
-}
\ No newline at end of file
+
+  // 카탈로그 변경 감지용 (전체 조회 없이 행 추가/삭제 확인)
+  @Query("select coalesce(max(m.musicId), 0) from Music m")
+  long findMaxMusicId();
+
+  @Query("""
+      select m.musicId as musicId, m.mp3FilePath as mp3FilePath, m.analysisFingerprint as analysisFingerprint
+      from Music m
+      order by m.musicId
+      """)
+  List<MusicAnalysisTarget> findAnalysisTargets();
+
+  @Query("select m.mp3FilePath from Music m where m.musicId = :id")
+  Optional<String> findMp3FilePathById(@Param("id") Long id);
+
+  @Query("select m.mp3FilePath from Music m")
+  List<String> findAllMp3FilePaths();
+
+  @Query("select distinct m.imageFilePath from Music m")
+  List<String> findDistinctImageFilePaths();
+
+  @Modifying
+  @Transactional
+  @Query("""
+      update Music m
+      set m.analyzedBpm = :bpm, m.bpmConfidence = :confidence, m.firstDownbeatSec = :firstDownbeatSec,
+          m.analysisFingerprint = :fingerprint, m.analyzedAt = :analyzedAt
+      where m.musicId = :id
+      """)
+  int applyAnalysis(@Param("id") Long id,
+                    @Param("bpm") Double bpm,
+                    @Param("confidence") Double confidence,
+                    @Param("firstDownbeatSec") Double firstDownbeatSec,
+                    @Param("fingerprint") String fingerprint,
+                    @Param("analyzedAt") LocalDateTime analyzedAt);
+}
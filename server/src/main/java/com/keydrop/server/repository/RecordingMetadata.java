@@ -0,0 +1,20 @@
+package com.keydrop.server.repository;
+
+import com.keydrop.server.domain.Recording;
+
+import java.time.LocalDateTime;
+
+/**
+ * Column-level projection of {@code recordings} that never selects {@code audio_data}.
+ */
+public interface RecordingMetadata {
+  Long getRecordingId();
+  Long getUserId();
+  String getFileName();
+  String getContentType();
+  Long getSizeBytes();
+  Double getDurationSec();
+  LocalDateTime getCreatedAt();
+  String getStorageKey();
+  Recording.ProcessingStatus getProcessingStatus();
+}
@@ -0,0 +1,7 @@
+package com.keydrop.server.repository;
+
+import com.keydrop.server.domain.RecordingPeaks;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface RecordingPeaksRepository extends JpaRepository<RecordingPeaks, Long> {
+}
@@ -1,11 +1,103 @@
 package com.keydrop.server.repository;
 
 import com.keydrop.server.domain.Recording;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 public interface RecordingRepository extends JpaRepository<Recording, Long> {
-  List<Recording> findAllByUserIdOrderByCreatedAtDesc(Long userId);
-}
+  String METADATA_COLUMNS = """
+      r.recordingId as recordingId, r.userId as userId, r.fileName as fileName,
+      r.contentType as contentType, r.sizeBytes as sizeBytes, r.durationSec as durationSec,
+      r.createdAt as createdAt, r.storageKey as storageKey, r.processingStatus as processingStatus
+      """;
+
+  @Query("select " + METADATA_COLUMNS + " from Recording r where r.recordingId = :id")
+  Optional<RecordingMetadata> findMetadataById(@Param("id") Long id);
+
+  // 목록 첫 페이지 (idx_recordings_user_created 를 그대로 탐색)
+  @Query("select " + METADATA_COLUMNS + """
+      from Recording r
+      where r.userId = :userId
+      order by r.createdAt desc, r.recordingId desc
+      """)
+  List<RecordingMetadata> findPageByUserId(@Param("userId") Long userId, Pageable pageable);
+
+  // keyset: (created_at, recording_id) 가 커서보다 작은 행부터
+  @Query("select " + METADATA_COLUMNS + """
+      from Recording r
+      where r.userId = :userId
+        and (r.createdAt < :createdAt or (r.createdAt = :createdAt and r.recordingId < :recordingId))
+      order by r.createdAt desc, r.recordingId desc
+      """)
+  List<RecordingMetadata> findPageByUserIdAfter(@Param("userId") Long userId,
+                                                @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("recordingId") Long recordingId,
+                                                Pageable pageable);
+
+  // Legacy bytea 행을 잘라서 읽기 (from 은 1-based)
+  @Query(value = "select substring(audio_data from :from for :len) from recordings where recording_id = :id",
+      nativeQuery = true)
+  byte[] readAudioChunk(@Param("id") Long id, @Param("from") int from, @Param("len") int len);
+
+  // 분석 대기 중인 녹음 (컬럼 추가 이전 행은 null)
+  @Query("""
+      select r.recordingId from Recording r
+      where r.processingStatus is null or r.processingStatus = :status
+      order by r.recordingId
+      """)
+  List<Long> findIdsByProcessingStatus(@Param("status") Recording.ProcessingStatus status, Pageable pageable);
 
+  // 엔티티를 로딩하지 않고 갱신 (legacy audio_data 가 힙에 올라오지 않도록)
+  @Modifying
+  @Transactional
+  @Query("""
+      update Recording r
+      set r.processingStatus = :status, r.contentSha256 = :sha256, r.codec = :codec,
+          r.durationSec = :durationSec, r.processedAt = :processedAt
+      where r.recordingId = :id
+      """)
+  int applyProcessingResult(@Param("id") Long id,
+                            @Param("status") Recording.ProcessingStatus status,
+                            @Param("sha256") String sha256,
+                            @Param("codec") String codec,
+                            @Param("durationSec") Double durationSec,
+                            @Param("processedAt") LocalDateTime processedAt);
+
+  @Modifying
+  @Transactional
+  @Query("update Recording r set r.processingStatus = :status, r.processedAt = :processedAt where r.recordingId = :id")
+  int updateProcessingStatus(@Param("id") Long id,
+                             @Param("status") Recording.ProcessingStatus status,
+                             @Param("processedAt") LocalDateTime processedAt);
+
+  // blob GC: 주어진 키 중 아직 어떤 녹음이 참조하고 있는 것
+  @Query("select distinct r.storageKey from Recording r where r.storageKey in :keys")
+  Set<String> findReferencedStorageKeys(@Param("keys") Collection<String> keys);
+
+  // bytea -> storage 이관 대상 (Spring Batch reader 가 id 순으로 페이지 조회)
+  @Query("select r.recordingId from Recording r where r.storageKey is null and r.recordingId > :afterId order by r.recordingId")
+  List<Long> findLegacyIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+  // DB 쪽에서 계산한 원본 체크섬 (이관 검증용)
+  @Query(value = "select encode(sha256(audio_data), 'hex') from recordings where recording_id = :id", nativeQuery = true)
+  String sha256OfAudioData(@Param("id") Long id);
+
+  @Modifying
+  @Transactional
+  @Query("""
+      update Recording r
+      set r.storageKey = :storageKey, r.contentSha256 = :storageKey, r.audioData = null
+      where r.recordingId = :id and r.storageKey is null
+      """)
+  int moveAudioToStorage(@Param("id") Long id, @Param("storageKey") String storageKey);
+}
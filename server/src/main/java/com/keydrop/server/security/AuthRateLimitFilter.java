@@ -0,0 +1,238 @@
+package com.keydrop.server.security;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles the credential endpoints (POST /auth/login, /auth/signup, /auth/login/google) before the
+ * request reaches the controller, so a throttled attempt costs neither a BCrypt hash, a Google token
+ * verification nor a database lookup.
+ *
+ * Two independent {@link TokenBucketLimiter}s apply: one per client IP (every endpoint) and one per
+ * target e-mail (login and signup; the address is read from the JSON body, which is then replayed
+ * to the controller). A throttled request gets 429 with Retry-After.
+ */
+@Component
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+
+  private static final Set<String> PATHS = Set.of("/auth/login", "/auth/signup", "/auth/login/google");
+  private static final Set<String> EMAIL_PATHS = Set.of("/auth/login", "/auth/signup");
+  // 인증 요청 본문은 작음. 더 크면 이메일을 읽지 않고 거절
+  private static final int MAX_BODY = 16 * 1024;
+
+  @JsonIgnoreProperties(ignoreUnknown = true)
+  record EmailOnly(String email) {}
+
+  private final TokenBucketLimiter byIp;
+  private final TokenBucketLimiter byEmail;
+  private final boolean trustForwardedFor;
+  private final ObjectMapper objectMapper;
+  private final Counter rejectedByIp;
+  private final Counter rejectedByEmail;
+  private final ScheduledExecutorService evictor;
+
+  public AuthRateLimitFilter(
+      @Value("${app.auth.rate-limit.ip.capacity:20}") int ipCapacity,
+      @Value("${app.auth.rate-limit.ip.refill:3s}") Duration ipRefill,
+      @Value("${app.auth.rate-limit.email.capacity:5}") int emailCapacity,
+      @Value("${app.auth.rate-limit.email.refill:1m}") Duration emailRefill,
+      @Value("${app.auth.rate-limit.max-keys:100000}") int maxKeys,
+      @Value("${app.auth.rate-limit.trust-forwarded-for:false}") boolean trustForwardedFor,
+      ObjectMapper objectMapper,
+      MeterRegistry registry
+  ) {
+    this.byIp = new TokenBucketLimiter(ipCapacity, ipRefill, maxKeys);
+    this.byEmail = new TokenBucketLimiter(emailCapacity, emailRefill, maxKeys);
+    this.trustForwardedFor = trustForwardedFor;
+    this.objectMapper = objectMapper;
+
+    Gauge.builder("auth.ratelimit.buckets", byIp, TokenBucketLimiter::size).tag("key", "ip").register(registry);
+    Gauge.builder("auth.ratelimit.buckets", byEmail, TokenBucketLimiter::size).tag("key", "email").register(registry);
+    this.rejectedByIp = Counter.builder("auth.ratelimit.rejected").tag("key", "ip").register(registry);
+    this.rejectedByEmail = Counter.builder("auth.ratelimit.rejected").tag("key", "email").register(registry);
+
+    this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "auth-ratelimit-evict");
+      t.setDaemon(true);
+      return t;
+    });
+    evictor.scheduleWithFixedDelay(() -> {
+      byIp.evictIdle();
+      byEmail.evictIdle();
+    }, 1, 1, TimeUnit.MINUTES);
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !"POST".equals(request.getMethod()) || !PATHS.contains(path(request));
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    long waitMs = byIp.tryAcquire(clientIp(request));
+    if (waitMs > 0) {
+      rejectedByIp.increment();
+      reject(response, HttpStatus.TOO_MANY_REQUESTS, waitMs, "요청이 너무 많습니다. 잠시 후 다시 시도해 주세요.");
+      return;
+    }
+    if (!EMAIL_PATHS.contains(path(request))) {
+      chain.doFilter(request, response);
+      return;
+    }
+
+    byte[] body = request.getInputStream().readNBytes(MAX_BODY + 1);
+    if (body.length > MAX_BODY) {
+      reject(response, HttpStatus.PAYLOAD_TOO_LARGE, 0, "요청 본문이 너무 큽니다.");
+      return;
+    }
+    String email = email(body);
+    if (email != null) {
+      waitMs = byEmail.tryAcquire(email);
+      if (waitMs > 0) {
+        rejectedByEmail.increment();
+        reject(response, HttpStatus.TOO_MANY_REQUESTS, waitMs, "이 계정에 대한 시도가 너무 많습니다. 잠시 후 다시 시도해 주세요.");
+        return;
+      }
+    }
+    chain.doFilter(new ReplayedBodyRequest(request, body), response);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    evictor.shutdownNow();
+  }
+
+  private String email(byte[] body) {
+    try {
+      EmailOnly parsed = objectMapper.readValue(body, EmailOnly.class);
+      if (parsed == null || parsed.email() == null || parsed.email().isBlank()) return null;
+      return parsed.email().trim().toLowerCase(Locale.ROOT);
+    } catch (RuntimeException e) {
+      // 잘못된 JSON 은 컨트롤러가 400 으로 응답 (IP 제한은 이미 적용됨)
+      return null;
+    }
+  }
+
+  private String clientIp(HttpServletRequest request) {
+    if (trustForwardedFor) {
+      String forwarded = request.getHeader("X-Forwarded-For");
+      if (forwarded != null && !forwarded.isBlank()) {
+        // 마지막 값은 우리 프록시가 붙인 것 (앞쪽은 클라이언트가 위조 가능)
+        String last = forwarded.substring(forwarded.lastIndexOf(',') + 1).trim();
+        if (!last.isEmpty()) return last;
+      }
+    }
+    return request.getRemoteAddr();
+  }
+
+  private static String path(HttpServletRequest request) {
+    return request.getRequestURI().substring(request.getContextPath().length());
+  }
+
+  private void reject(HttpServletResponse response, HttpStatus status, long waitMs, String message) throws IOException {
+    response.setStatus(status.value());
+    if (waitMs > 0) {
+      response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, (waitMs + 999) / 1000)));
+    }
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    response.getOutputStream().write(objectMapper.writeValueAsBytes(Map.of("error", message)));
+  }
+
+  /** Hands the already-read body to the rest of the chain. */
+  private static class ReplayedBodyRequest extends HttpServletRequestWrapper {
+
+    private final byte[] body;
+
+    ReplayedBodyRequest(HttpServletRequest request, byte[] body) {
+      super(request);
+      this.body = body;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+      ByteArrayInputStream in = new ByteArrayInputStream(body);
+      return new ServletInputStream() {
+        @Override
+        public int read() {
+          return in.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+          return in.read(b, off, len);
+        }
+
+        @Override
+        public boolean isFinished() {
+          return in.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+          return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+          // 본문이 이미 메모리에 있으므로 바로 전부 읽을 수 있고, 끝까지 읽었음을 알림
+          try {
+            if (!isFinished()) listener.onDataAvailable();
+            listener.onAllDataRead();
+          } catch (IOException | RuntimeException e) {
+            listener.onError(e);
+          }
+        }
+      };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+      String enc = getCharacterEncoding();
+      return new BufferedReader(new InputStreamReader(getInputStream(),
+          enc != null ? Charset.forName(enc) : StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public int getContentLength() {
+      return body.length;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+      return body.length;
+    }
+  }
+}
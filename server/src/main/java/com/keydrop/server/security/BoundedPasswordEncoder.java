@@ -0,0 +1,118 @@
+package com.keydrop.server.security;
+
+import com.keydrop.server.exception.ServerBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a (deliberately slow) {@link PasswordEncoder} on a dedicated CPU-sized pool with a bounded
+ * queue.
+ *
+ * Callers still wait for the result, but at most threads + queue-capacity request threads can be
+ * inside password hashing at once; everyone else gets a {@link ServerBusyException} (503 with
+ * Retry-After) immediately. A login storm therefore cannot occupy every servlet thread, and the
+ * hashing never competes with more threads than there are cores.
+ *
+ * Metrics: auth.password.queue / auth.password.active (gauges), auth.password.hash (time spent
+ * hashing, op=encode|matches), auth.password.wait (time spent queued), auth.password.rejected.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+  private final PasswordEncoder delegate;
+  private final ThreadPoolExecutor pool;
+  private final Duration retryAfter;
+  private final Duration maxWait;
+  private final Timer encodeTimer;
+  private final Timer matchesTimer;
+  private final Timer waitTimer;
+  private final Counter rejected;
+
+  public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity,
+                                Duration retryAfter, Duration maxWait, MeterRegistry registry) {
+    this.delegate = delegate;
+    this.retryAfter = retryAfter;
+    this.maxWait = maxWait;
+    AtomicInteger seq = new AtomicInteger();
+    this.pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        r -> {
+          Thread t = new Thread(r, "password-hash-" + seq.incrementAndGet());
+          t.setDaemon(true);
+          return t;
+        },
+        new ThreadPoolExecutor.AbortPolicy());
+
+    Gauge.builder("auth.password.queue", pool, p -> p.getQueue().size()).register(registry);
+    Gauge.builder("auth.password.active", pool, ThreadPoolExecutor::getActiveCount).register(registry);
+    this.encodeTimer = Timer.builder("auth.password.hash").tag("op", "encode")
+        .publishPercentileHistogram().register(registry);
+    this.matchesTimer = Timer.builder("auth.password.hash").tag("op", "matches")
+        .publishPercentileHistogram().register(registry);
+    this.waitTimer = Timer.builder("auth.password.wait").publishPercentileHistogram().register(registry);
+    this.rejected = Counter.builder("auth.password.rejected").register(registry);
+  }
+
+  @Override
+  public String encode(CharSequence rawPassword) {
+    return run(encodeTimer, () -> delegate.encode(rawPassword));
+  }
+
+  @Override
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return run(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+  }
+
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    return delegate.upgradeEncoding(encodedPassword);
+  }
+
+  private <T> T run(Timer timer, Callable<T> work) {
+    long submitted = System.nanoTime();
+    Future<T> f;
+    try {
+      f = pool.submit(() -> {
+        waitTimer.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+        return timer.recordCallable(work);
+      });
+    } catch (RejectedExecutionException e) {
+      rejected.increment();
+      throw new ServerBusyException("로그인 요청이 많습니다. 잠시 후 다시 시도해 주세요.", retryAfter);
+    }
+
+    try {
+      return f.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      f.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new ServerBusyException("요청이 중단되었습니다.", retryAfter);
+    } catch (TimeoutException e) {
+      f.cancel(true);
+      rejected.increment();
+      throw new ServerBusyException("로그인 요청이 많습니다. 잠시 후 다시 시도해 주세요.", retryAfter);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException re) throw re;
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  @Override
+  public void destroy() {
+    pool.shutdownNow();
+  }
+}
@@ -0,0 +1,241 @@
+package com.keydrop.server.security;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.jackson2.JacksonFactory;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Verifies Google ID tokens (Sign in with Google credentials) against cached signing keys.
+ *
+ * Keys come from google.jwks-uri (Google's JWKS by default; a file: URI or a local server works as
+ * a stand-in). They are fetched at startup and refreshed in the background at 80% of the
+ * Cache-Control max-age, so a login normally does only local RSA verification. Concurrent refreshes
+ * (background, first login, unknown kid after a key rotation) share one in-flight fetch; if a
+ * refresh fails, the previous keys stay in use and the refresh is retried a minute later. A login
+ * with an unknown kid triggers a fetch on its own thread at most once per 30 s, counted from the last
+ * attempt, so an unreachable key server or forged kids cannot make every login wait on the network.
+ */
+@Component
+public class GoogleTokenVerifier {
+
+  private static final Logger log = LoggerFactory.getLogger(GoogleTokenVerifier.class);
+  private static final List<String> ISSUERS = List.of("accounts.google.com", "https://accounts.google.com");
+  private static final long CLOCK_SKEW_SEC = 300;
+  private static final Duration DEFAULT_MAX_AGE = Duration.ofHours(1);
+  private static final Duration RETRY_DELAY = Duration.ofMinutes(1);
+  // kid 가 없을 때 강제 갱신 최소 간격 (위조 토큰으로 키 서버를 두드리지 못하게)
+  private static final Duration MIN_FORCED_REFRESH_INTERVAL = Duration.ofSeconds(30);
+  private static final Duration FETCH_TIMEOUT = Duration.ofSeconds(5);
+  private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+
+  @JsonIgnoreProperties(ignoreUnknown = true)
+  record Jwks(List<Jwk> keys) {}
+
+  @JsonIgnoreProperties(ignoreUnknown = true)
+  record Jwk(String kty, String kid, String use, String n, String e) {}
+
+  private record KeySet(Map<String, PublicKey> keys) {}
+
+  private final URI jwksUri;
+  private final List<String> audience;
+  private final ObjectMapper objectMapper;
+  private final JsonFactory jsonFactory = JacksonFactory.getDefaultInstance();
+  private final HttpClient http = HttpClient.newBuilder().connectTimeout(FETCH_TIMEOUT).build();
+  private final Clock clock;
+  private final ScheduledExecutorService refresher;
+  private final AtomicReference<CompletableFuture<KeySet>> inFlight = new AtomicReference<>();
+  private final AtomicReference<ScheduledFuture<?>> nextRefresh = new AtomicReference<>();
+  private volatile KeySet keySet;
+  // 마지막 갱신 시도 시각 (성공 여부와 무관). 키 서버 장애 중에도 강제 갱신 간격을 지키기 위함
+  private volatile Instant lastAttempt = Instant.EPOCH;
+
+  @Autowired
+  public GoogleTokenVerifier(
+      @Value("${google.jwks-uri:https://www.googleapis.com/oauth2/v3/certs}") URI jwksUri,
+      @Value("${google.client-id}") String clientId,
+      ObjectMapper objectMapper
+  ) {
+    this(jwksUri, clientId, objectMapper, Clock.systemUTC());
+  }
+
+  // 테스트에서 강제 갱신 간격을 기다리지 않고 시각을 옮기기 위한 생성자
+  GoogleTokenVerifier(URI jwksUri, String clientId, ObjectMapper objectMapper, Clock clock) {
+    this.jwksUri = jwksUri;
+    this.audience = List.of(clientId);
+    this.objectMapper = objectMapper;
+    this.clock = clock;
+    this.refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "google-jwks-refresh");
+      t.setDaemon(true);
+      return t;
+    });
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onReady() {
+    refresher.execute(() -> refresh().exceptionally(e -> null));
+  }
+
+  /**
+   * @return the verified payload
+   * @throws IllegalArgumentException if the token is malformed, not signed by Google, expired or
+   *                                  issued for another client
+   */
+  public GoogleIdToken.Payload verify(String credential) {
+    GoogleIdToken idToken;
+    try {
+      idToken = GoogleIdToken.parse(jsonFactory, credential);
+    } catch (IOException | IllegalArgumentException e) {
+      throw new IllegalArgumentException("구글 토큰 검증 실패");
+    }
+
+    PublicKey key = keyFor(idToken.getHeader().getKeyId());
+    boolean valid;
+    try {
+      valid = key != null
+          && idToken.verifySignature(key)
+          && idToken.verifyIssuer(ISSUERS)
+          && idToken.verifyAudience(audience)
+          && idToken.verifyTime(clock.millis(), CLOCK_SKEW_SEC);
+    } catch (GeneralSecurityException e) {
+      valid = false;
+    }
+    if (!valid) throw new IllegalArgumentException("구글 토큰이 유효하지 않습니다.");
+    return idToken.getPayload();
+  }
+
+  private PublicKey keyFor(String kid) {
+    if (kid == null) return null;
+    KeySet current = keySet;
+    if (current != null && current.keys().containsKey(kid)) return current.keys().get(kid);
+
+    // 첫 로그인이 사전 로딩보다 빠르거나, 구글이 키를 교체한 경우. 진행 중인 갱신이 있으면 그 결과를
+    // 기다리고, 없는데 최근에 시도했으면 (실패했더라도) 요청 스레드에서 다시 가져오지 않음
+    CompletableFuture<KeySet> fetch = inFlight.get();
+    if (fetch == null) {
+      if (lastAttempt.plus(MIN_FORCED_REFRESH_INTERVAL).isAfter(clock.instant())) {
+        // 방금 끝난 갱신이 이 kid 를 가져왔을 수 있음
+        current = keySet;
+        return current != null ? current.keys().get(kid) : null;
+      }
+      fetch = refresh();
+    }
+    try {
+      return fetch.get(FETCH_TIMEOUT.toMillis() * 2, TimeUnit.MILLISECONDS).keys().get(kid);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    } catch (ExecutionException | TimeoutException e) {
+      log.warn("google signing keys unavailable", e);
+      return null;
+    }
+  }
+
+  /** Starts a fetch unless one is already running; every caller gets the same future. */
+  private CompletableFuture<KeySet> refresh() {
+    CompletableFuture<KeySet> mine = new CompletableFuture<>();
+    CompletableFuture<KeySet> running = inFlight.compareAndExchange(null, mine);
+    if (running != null) return running;
+
+    lastAttempt = clock.instant();
+    try {
+      Duration maxAge = fetch();
+      mine.complete(keySet);
+      schedule(Duration.ofMillis(Math.max(RETRY_DELAY.toMillis(), maxAge.toMillis() * 8 / 10)));
+    } catch (Exception e) {
+      log.warn("failed to refresh google signing keys from {}", jwksUri, e);
+      mine.completeExceptionally(e);
+      schedule(RETRY_DELAY);
+    } finally {
+      inFlight.set(null);
+    }
+    return mine;
+  }
+
+  private Duration fetch() throws IOException, InterruptedException, GeneralSecurityException {
+    byte[] body;
+    Duration maxAge = DEFAULT_MAX_AGE;
+    if ("file".equals(jwksUri.getScheme())) {
+      body = Files.readAllBytes(Path.of(jwksUri));
+    } else {
+      HttpRequest req = HttpRequest.newBuilder(jwksUri).timeout(FETCH_TIMEOUT).GET().build();
+      HttpResponse<byte[]> res = http.send(req, HttpResponse.BodyHandlers.ofByteArray());
+      if (res.statusCode() != 200) throw new IOException("HTTP " + res.statusCode());
+      body = res.body();
+      Matcher m = MAX_AGE.matcher(res.headers().firstValue("Cache-Control").orElse(""));
+      if (m.find()) maxAge = Duration.ofSeconds(Long.parseLong(m.group(1)));
+    }
+
+    Jwks jwks = objectMapper.readValue(body, Jwks.class);
+    Map<String, PublicKey> keys = new HashMap<>();
+    KeyFactory rsa = KeyFactory.getInstance("RSA");
+    Base64.Decoder b64 = Base64.getUrlDecoder();
+    for (Jwk k : jwks.keys() != null ? jwks.keys() : List.<Jwk>of()) {
+      if (!"RSA".equals(k.kty()) || k.kid() == null || (k.use() != null && !"sig".equals(k.use()))) continue;
+      keys.put(k.kid(), rsa.generatePublic(new RSAPublicKeySpec(
+          new BigInteger(1, b64.decode(k.n())), new BigInteger(1, b64.decode(k.e())))));
+    }
+    if (keys.isEmpty()) throw new IOException("no RSA signing keys in " + jwksUri);
+    keySet = new KeySet(Map.copyOf(keys));
+    log.debug("loaded {} google signing keys, max-age {}", keys.size(), maxAge);
+    return maxAge;
+  }
+
+  // 예약된 갱신은 항상 하나만 유지 (강제 갱신 후 이전 예약은 취소)
+  private void schedule(Duration delay) {
+    try {
+      ScheduledFuture<?> next = refresher.schedule(() -> refresh().exceptionally(e -> null),
+          delay.toMillis(), TimeUnit.MILLISECONDS);
+      ScheduledFuture<?> previous = nextRefresh.getAndSet(next);
+      if (previous != null) previous.cancel(false);
+    } catch (RejectedExecutionException e) {
+      // 종료 중
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    refresher.shutdownNow();
+  }
+}
@@ -1,22 +1,72 @@
 package com.keydrop.server.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.util.Date;
-
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Issues and verifies the app's HS256 tokens.
+ *
+ * Verification goes through one immutable {@link JwtParser}. Access and signup tokens that passed
+ * verification are remembered (keyed by a 128-bit SHA-256 prefix of the token, so raw bearer tokens
+ * are not kept on the heap) until their exp, so the same token sent with every request is checked
+ * once instead of on every call. Hit rate is exported as cache.* metrics with cache=jwt.verified.
+ */
 @Component
 public class JwtProvider {
 
   private final Key key;
+  private final JwtParser parser;
+  private final Cache<TokenKey, Verified> verified;
+
+  private record TokenKey(long hi, long lo) {}
 
-  public JwtProvider(@Value("${jwt.secret}") String secret) {
+  private record Verified(TokenType type, Long userId, long expiresAtMillis) {}
+
+  public JwtProvider(
+      @Value("${jwt.secret}") String secret,
+      @Value("${jwt.cache.max-size:10000}") long cacheSize,
+      MeterRegistry meterRegistry
+  ) {
     this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+    this.verified = Caffeine.newBuilder()
+        .maximumSize(cacheSize)
+        .expireAfter(new Expiry<TokenKey, Verified>() {
+          @Override
+          public long expireAfterCreate(TokenKey k, Verified v, long currentTime) {
+            // 토큰의 exp 에 맞춰 만료
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, v.expiresAtMillis() - System.currentTimeMillis()));
+          }
+
+          @Override
+          public long expireAfterUpdate(TokenKey k, Verified v, long currentTime, long currentDuration) {
+            return expireAfterCreate(k, v, currentTime);
+          }
+
+          @Override
+          public long expireAfterRead(TokenKey k, Verified v, long currentTime, long currentDuration) {
+            return currentDuration;
+          }
+        })
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, verified, "jwt.verified");
   }
 
   private enum TokenType { ACCESS, SIGNUP, PRE_SIGNUP }
@@ -67,12 +117,9 @@ public class JwtProvider {
     return parseAndValidateType(token, TokenType.SIGNUP);
   }
   
+  // 가입 전 토큰은 한 번만 쓰이므로 캐시하지 않음
   public Claims getClaimsFromPreSignupToken(String token) {
-      Claims claims = Jwts.parserBuilder()
-        .setSigningKey(key)
-        .build()
-        .parseClaimsJws(token)
-        .getBody();
+    Claims claims = parser.parseClaimsJws(token).getBody();
 
     String tokenType = claims.get("token_type", String.class);
     if (tokenType == null || !TokenType.PRE_SIGNUP.name().equals(tokenType)) {
@@ -82,21 +129,50 @@ public class JwtProvider {
   }
 
   private Long parseAndValidateType(String token, TokenType expected) {
-    Claims claims = Jwts.parserBuilder()
-        .setSigningKey(key)
-        .build()
-        .parseClaimsJws(token)
-        .getBody();
+    TokenKey cacheKey = keyOf(token);
+    Verified v = verified.getIfPresent(cacheKey);
+    if (v == null) {
+      v = verify(token);
+      verified.put(cacheKey, v);
+    }
+    if (v.type() != expected) {
+      throw new IllegalArgumentException("Invalid token type");
+    }
+    return v.userId();
+  }
+
+  private Verified verify(String token) {
+    Claims claims = parser.parseClaimsJws(token).getBody();
 
     String tokenType = claims.get("token_type", String.class);
-    if (tokenType == null || !expected.name().equals(tokenType)) {
+    TokenType type;
+    try {
+      type = TokenType.valueOf(tokenType);
+    } catch (IllegalArgumentException | NullPointerException e) {
+      throw new IllegalArgumentException("Invalid token type");
+    }
+    if (type == TokenType.PRE_SIGNUP) {
       throw new IllegalArgumentException("Invalid token type");
     }
 
+    Long userId;
     try {
-      return Long.parseLong(claims.getSubject());
+      userId = Long.parseLong(claims.getSubject());
     } catch (NumberFormatException e) {
       throw new IllegalArgumentException("Invalid user ID in token");
     }
+    // exp 없는 토큰은 캐시에 남지 않도록 즉시 만료
+    long exp = claims.getExpiration() != null ? claims.getExpiration().getTime() : 0L;
+    return new Verified(type, userId, exp);
+  }
+
+  private static TokenKey keyOf(String token) {
+    try {
+      byte[] d = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+      ByteBuffer buf = ByteBuffer.wrap(d);
+      return new TokenKey(buf.getLong(), buf.getLong());
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
   }
 }
\ No newline at end of file
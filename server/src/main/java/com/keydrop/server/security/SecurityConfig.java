@@ -49,7 +49,9 @@ public class SecurityConfig {
 
     config.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
     config.setAllowedHeaders(List.of("*"));
-    config.setExposedHeaders(List.of("*"));
+    // credentials 요청에서는 브라우저가 "*" 를 와일드카드로 취급하지 않으므로 필요한 헤더는 명시
+    config.setExposedHeaders(List.of("*", "ETag", "Content-Range", "Accept-Ranges", "X-Next-Cursor", "X-Catalog-Version",
+        "X-Seek-Time"));
 
     config.setAllowCredentials(true);
 
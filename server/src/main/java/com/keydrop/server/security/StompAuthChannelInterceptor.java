@@ -0,0 +1,59 @@
+package com.keydrop.server.security;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.regex.Pattern;
+
+/**
+ * Authenticates STOMP sessions with the app's access token and guards the DJ-only destinations.
+ *
+ * CONNECT may carry {@code Authorization: Bearer <access token>}; the session's user is then the
+ * userId (Principal name). Connecting without a token is allowed (viewers only subscribe), a bad
+ * token is refused. SEND to /app/live/{room}/deck requires an authenticated session; which user
+ * may publish to which room is decided by DeckStateService.
+ */
+@Component
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+  private static final Pattern DJ_DESTINATION = Pattern.compile("^/app/live/[^/]+/deck$");
+
+  private final JwtProvider jwtProvider;
+
+  public StompAuthChannelInterceptor(JwtProvider jwtProvider) {
+    this.jwtProvider = jwtProvider;
+  }
+
+  @Override
+  public Message<?> preSend(Message<?> message, MessageChannel channel) {
+    StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+    if (accessor == null || accessor.getCommand() == null) return message;
+
+    if (accessor.getCommand() == StompCommand.CONNECT) {
+      String authorization = accessor.getFirstNativeHeader("Authorization");
+      if (authorization != null && !authorization.isBlank()) {
+        Long userId;
+        try {
+          userId = jwtProvider.getUserIdFromAccessToken(authorization.replace("Bearer ", "").trim());
+        } catch (RuntimeException e) {
+          throw new MessageDeliveryException(message, "invalid access token");
+        }
+        String name = userId.toString();
+        accessor.setUser((Principal) () -> name);
+      }
+    } else if (accessor.getCommand() == StompCommand.SEND) {
+      String destination = accessor.getDestination();
+      if (destination != null && DJ_DESTINATION.matcher(destination).matches() && accessor.getUser() == null) {
+        throw new MessageDeliveryException(message, "login required to publish deck state");
+      }
+    }
+    return message;
+  }
+}
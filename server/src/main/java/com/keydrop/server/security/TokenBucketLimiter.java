@@ -0,0 +1,152 @@
+package com.keydrop.server.security;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Token buckets per key (client IP, e-mail, ...) without locks.
+ *
+ * Each bucket is one {@link AtomicLong} holding the token count (in thousandths of a token, upper
+ * 22 bits) and the time of the last take (milliseconds since the limiter was created, lower 42
+ * bits). Taking a token is a read, a refill computation and one CAS; a denied request does not write
+ * at all, so a key that is being hammered costs no contention beyond the read.
+ *
+ * A bucket that has been idle long enough to refill completely is indistinguishable from a new one,
+ * so {@link #evictIdle()} simply drops those. At most {@code maxKeys} buckets are kept: when the map
+ * is full, a new key replaces the fullest of a few buckets sampled from a random part of the map (the
+ * one whose loss forgives the least throttling), so flooding the map with fresh keys never locks out
+ * new clients.
+ */
+public class TokenBucketLimiter {
+
+  private static final int TIME_BITS = 42;
+  private static final long TIME_MASK = (1L << TIME_BITS) - 1;
+  private static final long MILLI = 1000;
+  static final long MAX_CAPACITY = ((1L << (64 - TIME_BITS)) - 1) / MILLI;
+  private static final int EVICTION_SAMPLES = 16;
+
+  private final long capacity;      // 천분의 1 토큰 단위
+  private final double refillPerMs; // 천분의 1 토큰 / ms (= 초당 토큰 수)
+  private final int maxKeys;
+  private final long originNanos = System.nanoTime();
+  private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+  /**
+   * @param capacity burst size in tokens
+   * @param refill   one token is added every {@code refill}
+   * @param maxKeys  upper bound on the number of buckets kept
+   */
+  public TokenBucketLimiter(int capacity, Duration refill, int maxKeys) {
+    if (capacity < 1 || capacity > MAX_CAPACITY) {
+      throw new IllegalArgumentException("capacity must be between 1 and " + MAX_CAPACITY);
+    }
+    if (refill.isZero() || refill.isNegative()) throw new IllegalArgumentException("refill must be positive");
+    this.capacity = capacity * MILLI;
+    this.refillPerMs = MILLI * 1e6 / refill.toNanos();
+    this.maxKeys = maxKeys;
+  }
+
+  /**
+   * Takes one token from the bucket of {@code key}.
+   *
+   * @return 0 if the request may proceed, otherwise the milliseconds until a token is available
+   */
+  public long tryAcquire(String key) {
+    long now = nowMs();
+    AtomicLong bucket = buckets.get(key);
+    if (bucket == null) {
+      if (buckets.size() >= maxKeys) evictOne(now);
+      // 새 버킷은 가득 찬 상태에서 하나를 꺼낸 상태로 시작
+      bucket = buckets.putIfAbsent(key, new AtomicLong(pack(capacity - MILLI, now)));
+      if (bucket == null) return 0;
+    }
+
+    while (true) {
+      long state = bucket.get();
+      long tokens = refilled(state, now);
+      if (tokens < MILLI) {
+        return (long) Math.ceil((MILLI - tokens) / refillPerMs);
+      }
+      if (bucket.compareAndSet(state, pack(tokens - MILLI, now))) return 0;
+    }
+  }
+
+  /** Removes buckets that have refilled completely; returns how many were removed. */
+  public int evictIdle() {
+    long now = nowMs();
+    int before = buckets.size();
+    buckets.values().removeIf(b -> refilled(b.get(), now) >= capacity);
+    return before - buckets.size();
+  }
+
+  // 몇 개만 표본으로 보고 토큰이 가장 많이 남은 버킷을 버림 (전체 스캔은 요청 스레드에서 하지 않음)
+  private void evictOne(long now) {
+    // 매번 같은 해시 구간만 비우지 않도록, spliterator 를 무작위로 반씩 나눠 임의의 구간에서 표본 추출 (O(log n))
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    Spliterator<Map.Entry<String, AtomicLong>> part = buckets.entrySet().spliterator();
+    while (part.estimateSize() > EVICTION_SAMPLES) {
+      Spliterator<Map.Entry<String, AtomicLong>> prefix = part.trySplit();
+      if (prefix == null) break;
+      if (random.nextBoolean()) part = prefix;
+    }
+    Sample sample = new Sample(now);
+    sample.drain(part);
+    // 고른 구간이 비어 있으면 처음부터
+    if (sample.victim == null) sample.drain(buckets.entrySet().spliterator());
+    if (sample.victim != null) buckets.remove(sample.victim);
+  }
+
+  private final class Sample implements Consumer<Map.Entry<String, AtomicLong>> {
+    private final long now;
+    private String victim;
+    private long most = -1;
+    private int seen;
+    private boolean full;
+
+    Sample(long now) {
+      this.now = now;
+    }
+
+    void drain(Spliterator<Map.Entry<String, AtomicLong>> part) {
+      boolean more = true;
+      while (more && seen < EVICTION_SAMPLES && !full) more = part.tryAdvance(this);
+    }
+
+    @Override
+    public void accept(Map.Entry<String, AtomicLong> e) {
+      seen++;
+      long tokens = refilled(e.getValue().get(), now);
+      if (tokens > most) {
+        most = tokens;
+        victim = e.getKey();
+      }
+      // 가득 찬 버킷은 새 버킷과 같으므로 더 볼 필요 없음
+      full = tokens >= capacity;
+    }
+  }
+
+  public int size() {
+    return buckets.size();
+  }
+
+  private long refilled(long state, long now) {
+    long tokens = state >>> TIME_BITS;
+    long elapsed = now - (state & TIME_MASK);
+    if (elapsed <= 0) return tokens;
+    // 거부된 요청은 시각을 갱신하지 않으므로 소수점 이하 보충분이 버려지지 않음
+    return (long) Math.min(capacity, tokens + elapsed * refillPerMs);
+  }
+
+  private static long pack(long tokens, long nowMs) {
+    return (tokens << TIME_BITS) | (nowMs & TIME_MASK);
+  }
+
+  private long nowMs() {
+    return (System.nanoTime() - originNanos) / 1_000_000;
+  }
+}
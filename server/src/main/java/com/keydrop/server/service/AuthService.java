@@ -5,22 +5,18 @@ import com.keydrop.server.dto.auth.LocalLoginRequest;
 import com.keydrop.server.dto.auth.LocalSignupRequest;
 import com.keydrop.server.dto.auth.GoogleLoginRequest;
 import com.keydrop.server.dto.auth.CompleteMyProfileRequest;
+import com.keydrop.server.security.GoogleTokenVerifier;
 import com.keydrop.server.security.JwtProvider;
 import com.keydrop.server.domain.User;
 import com.keydrop.server.repository.UserRepository;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.beans.factory.annotation.Value;
 
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
-import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
-import com.google.api.client.http.javanet.NetHttpTransport;
-import com.google.api.client.json.jackson2.JacksonFactory;
-
-import java.util.Collections;
 
 @Service
 @RequiredArgsConstructor
@@ -29,11 +25,10 @@ public class AuthService {
   private final UserRepository userRepository;
   private final PasswordEncoder passwordEncoder;
   private final JwtProvider jwtProvider;
+  private final GoogleTokenVerifier googleTokenVerifier;
+  private final ApplicationEventPublisher events;
 
-  @Value("${google.client-id}")
-  private String googleClientId;
-
-  @Transactional
+  // 트랜잭션 없이: 해시 계산(대기 포함) 동안 DB 커넥션을 잡고 있지 않도록 (이메일 중복은 unique 제약으로도 막힘)
   public AuthTokenResponse localSignup(LocalSignupRequest req) {
     if (!req.getPassword().equals(req.getPasswordConfirm())) {
       throw new IllegalArgumentException("비밀번호가 일치하지 않습니다.");
@@ -62,7 +57,7 @@ public class AuthService {
   }
 
   
-  @Transactional(readOnly = true)
+  // 조회 후 비밀번호 확인은 커넥션 반납 뒤에 (localSignup 과 같은 이유)
   public AuthTokenResponse localLogin(LocalLoginRequest req) {
     User user = userRepository.findByEmail(req.getEmail())
       .orElseThrow(() -> new IllegalArgumentException("아이디/비밀번호가 일치하지 않습니다."));
@@ -85,24 +80,8 @@ public class AuthService {
 
   @Transactional
   public AuthTokenResponse googleLogin(GoogleLoginRequest req) {
-
-    GoogleIdTokenVerifier verifier = new GoogleIdTokenVerifier.Builder(
-        new NetHttpTransport(),
-        JacksonFactory.getDefaultInstance()
-    ).setAudience(Collections.singletonList(googleClientId)).build();
-
-    GoogleIdToken idToken;
-    try {
-      idToken = verifier.verify(req.getCredential());
-    } catch (Exception e) {
-      throw new IllegalArgumentException("구글 토큰 검증 실패");
-    }
-
-    if (idToken == null) {
-      throw new IllegalArgumentException("구글 토큰이 유효하지 않습니다.");
-    }
-
-    GoogleIdToken.Payload payload = idToken.getPayload();
+    // 서명 키는 캐시되어 있으므로 외부 호출 없이 로컬 검증만
+    GoogleIdToken.Payload payload = googleTokenVerifier.verify(req.getCredential());
     String providerId = payload.getSubject();
     String email = payload.getEmail();
 
@@ -173,6 +152,7 @@ public class AuthService {
           .build();
           
       userRepository.save(user); // <--- 진짜 저장은 이때만!
+      events.publishEvent(new UserProfileChangedEvent(user.getUserId()));
 
       String accessToken = jwtProvider.createAccessToken(user.getUserId(), user.getEmail());
       return AuthTokenResponse.builder()
@@ -207,6 +187,7 @@ public class AuthService {
     );
     // ...
     userRepository.save(user);
+    events.publishEvent(new UserProfileChangedEvent(user.getUserId()));
 
     String accessToken = jwtProvider.createAccessToken(user.getUserId(), user.getEmail());
     return AuthTokenResponse.builder()
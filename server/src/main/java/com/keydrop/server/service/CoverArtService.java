@@ -0,0 +1,268 @@
+package com.keydrop.server.service;
+
+import com.keydrop.server.repository.MusicRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Downscaled JPEG derivatives of cover art, so the library can show thumbnails without loading
+ * the full-size PNGs.
+ *
+ * Derivatives live in {media dir}/thumbs/{sha256 of source}/{size}.jpg, i.e. they are keyed by
+ * content: identical covers share files, a replaced cover gets new ones, and existing files never
+ * need to be regenerated. Missing derivatives are generated whenever the catalog changes (which
+ * covers provisioning at startup and new tracks) on a small bounded pool; when anything was
+ * generated the catalog is rebuilt so MusicDto.thumbnails picks up the new URLs. Covers that cannot
+ * be read (missing file, unsupported format) are remembered by their versioned URL and do not
+ * trigger another scan until the file changes.
+ */
+@Service
+public class CoverArtService {
+
+  private static final Logger log = LoggerFactory.getLogger(CoverArtService.class);
+  static final String THUMBS_DIR = "thumbs";
+  private static final float JPEG_QUALITY = 0.85f;
+
+  private final MediaFileService media;
+  private final MusicRepository repo;
+  private final ApplicationEventPublisher events;
+  private final List<Integer> sizes;
+  private final ThreadPoolExecutor coordinator;
+  private final ThreadPoolExecutor workers;
+  private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+  // 썸네일을 만들 수 없는 원본의 URL (?v= 버전 포함이라 파일이 바뀌면 다시 시도)
+  private final Set<String> failed = ConcurrentHashMap.newKeySet();
+
+  public CoverArtService(
+      MediaFileService media,
+      MusicRepository repo,
+      ApplicationEventPublisher events,
+      @Value("${app.media.thumbnails.sizes:64,128,512}") List<Integer> sizes,
+      @Value("${app.media.thumbnails.threads:2}") int threads
+  ) {
+    this.media = media;
+    this.repo = repo;
+    this.events = events;
+    this.sizes = sizes.stream().filter(s -> s > 0).distinct().sorted().toList();
+
+    AtomicInteger seq = new AtomicInteger();
+    // 카탈로그 이벤트가 몰려도 대기 작업은 최신 1개만 유지
+    this.coordinator = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(1),
+        r -> daemon(r, "cover-art-scan"),
+        new ThreadPoolExecutor.DiscardOldestPolicy());
+    // 큐가 차면 스캔 스레드가 직접 처리 (자연스러운 backpressure)
+    this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(threads * 4),
+        r -> daemon(r, "cover-art-" + seq.incrementAndGet()),
+        new ThreadPoolExecutor.CallerRunsPolicy());
+  }
+
+  /** Thumbnail URLs by size for the derivatives that exist; empty until they are generated. */
+  public Map<Integer, String> thumbnailUrls(String imagePath) {
+    String hash = sourceHash(imagePath);
+    if (hash == null) return Map.of();
+    Map<Integer, String> urls = new LinkedHashMap<>();
+    for (int size : sizes) {
+      String rel = derivativePath(hash, size);
+      if (Files.isRegularFile(media.mediaDir().resolve(rel))) urls.put(size, media.url(rel));
+    }
+    return urls;
+  }
+
+  @EventListener
+  public void onCatalogUpdated(MusicCatalogUpdatedEvent event) {
+    boolean incomplete = event.snapshot().tracks().stream()
+        .anyMatch(t -> t.thumbnails().size() < sizes.size() && !failed.contains(t.imageUrl()));
+    if (incomplete) coordinator.execute(() -> generateMissing(repo.findDistinctImageFilePaths()));
+  }
+
+  private void generateMissing(List<String> imagePaths) {
+    List<Future<Boolean>> tasks = new ArrayList<>();
+    for (String imagePath : imagePaths) {
+      tasks.add(workers.submit(() -> generate(imagePath)));
+    }
+    int generated = 0;
+    for (Future<Boolean> f : tasks) {
+      try {
+        if (f.get()) generated++;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (ExecutionException e) {
+        log.warn("cover art task failed", e.getCause());
+      }
+    }
+    if (generated > 0) {
+      log.info("generated thumbnails for {} cover images", generated);
+      events.publishEvent(new MusicCatalogChangedEvent("cover thumbnails"));
+    }
+  }
+
+  /** @return true when at least one derivative was written */
+  private boolean generate(String imagePath) throws IOException {
+    // MusicCatalog.toDto 의 imageUrl 과 같은 값
+    String sourceUrl = media.url(imagePath);
+    MediaFileService.MediaFile source = media.find(imagePath).orElse(null);
+    if (source == null) {
+      failed.add(sourceUrl);
+      return false;
+    }
+    if (failed.contains(sourceUrl)) return false;
+    String hash = media.contentHash(source);
+    if (!inFlight.add(hash)) return false;
+    try {
+      List<Integer> missing = sizes.stream()
+          .filter(s -> !Files.isRegularFile(media.mediaDir().resolve(derivativePath(hash, s))))
+          .toList();
+      if (missing.isEmpty()) return false;
+
+      BufferedImage image;
+      try (InputStream in = Files.newInputStream(source.path())) {
+        image = ImageIO.read(in);
+      } catch (IOException e) {
+        log.warn("cannot decode cover image {}", imagePath, e);
+        failed.add(sourceUrl);
+        return false;
+      }
+      if (image == null) {
+        log.warn("unsupported cover image format: {}", imagePath);
+        failed.add(sourceUrl);
+        return false;
+      }
+      BufferedImage rgb = flatten(image);
+      for (int size : missing) {
+        write(downscale(rgb, size), media.mediaDir().resolve(derivativePath(hash, size)));
+      }
+      return true;
+    } finally {
+      inFlight.remove(hash);
+    }
+  }
+
+  private String sourceHash(String imagePath) {
+    try {
+      MediaFileService.MediaFile source = media.find(imagePath).orElse(null);
+      return source == null ? null : media.contentHash(source);
+    } catch (IOException e) {
+      log.warn("cannot hash cover image {}", imagePath, e);
+      return null;
+    }
+  }
+
+  private static String derivativePath(String hash, int size) {
+    return THUMBS_DIR + "/" + hash + "/" + size + ".jpg";
+  }
+
+  // JPEG 는 알파가 없으므로 투명 영역은 검정 배경으로
+  private static BufferedImage flatten(BufferedImage src) {
+    BufferedImage out = new BufferedImage(src.getWidth(), src.getHeight(), BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = out.createGraphics();
+    try {
+      g.setColor(Color.BLACK);
+      g.fillRect(0, 0, out.getWidth(), out.getHeight());
+      g.drawImage(src, 0, 0, null);
+    } finally {
+      g.dispose();
+    }
+    return out;
+  }
+
+  /**
+   * Fits the image into size x size keeping the aspect ratio. Halves repeatedly with bilinear
+   * filtering before the last step, which avoids the aliasing of a single large bilinear step.
+   * Never upscales.
+   */
+  private static BufferedImage downscale(BufferedImage src, int size) {
+    double scale = Math.min(1.0, (double) size / Math.max(src.getWidth(), src.getHeight()));
+    int targetW = Math.max(1, (int) Math.round(src.getWidth() * scale));
+    int targetH = Math.max(1, (int) Math.round(src.getHeight() * scale));
+
+    BufferedImage current = src;
+    int w = src.getWidth();
+    int h = src.getHeight();
+    do {
+      w = Math.max(targetW, w / 2);
+      h = Math.max(targetH, h / 2);
+      BufferedImage next = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+      Graphics2D g = next.createGraphics();
+      try {
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(current, 0, 0, w, h, null);
+      } finally {
+        g.dispose();
+      }
+      current = next;
+    } while (w != targetW || h != targetH);
+    return current;
+  }
+
+  private static void write(BufferedImage image, Path target) throws IOException {
+    Files.createDirectories(target.getParent());
+    Path tmp = Files.createTempFile(target.getParent(), ".thumb-", ".tmp");
+    try {
+      ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+      try (OutputStream out = Files.newOutputStream(tmp);
+           ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(JPEG_QUALITY);
+        param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+        writer.setOutput(ios);
+        writer.write(null, new IIOImage(image, null, null), param);
+      } finally {
+        writer.dispose();
+      }
+      Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+
+  private static Thread daemon(Runnable r, String name) {
+    Thread t = new Thread(r, name);
+    t.setDaemon(true);
+    t.setPriority(Thread.NORM_PRIORITY - 1);
+    return t;
+  }
+
+  @PreDestroy
+  void shutdown() {
+    coordinator.shutdownNow();
+    workers.shutdownNow();
+  }
+}
@@ -0,0 +1,188 @@
+package com.keydrop.server.service;
+
+import com.keydrop.server.dto.DeckStateMessage;
+import com.keydrop.server.dto.DeckStateUpdate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Live deck state per room (track, BPM, crossfader, effects, ...), as a flat map of fields.
+ *
+ * The DJ may send updates at any rate; each update only overwrites the latest value of its fields.
+ * A single ticker publishes, at app.live.deck.tick, one message per room with the fields changed
+ * since the previous tick, so outbound traffic is tick rate x viewers regardless of how fast the
+ * knobs move. Viewers that subscribe later get {@link #snapshot(String)} and then follow the ticks.
+ * Rooms without updates for app.live.deck.idle-ttl are dropped.
+ */
+@Service
+public class DeckStateService {
+
+  private static final Logger log = LoggerFactory.getLogger(DeckStateService.class);
+  private static final Pattern ROOM = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+  private static final int MAX_FIELD_NAME = 64;
+  // pending 에서 "필드 삭제" 표시 (ConcurrentHashMap 은 null 값을 허용하지 않음)
+  private static final Object REMOVED = new Object();
+
+  private static final class Room {
+    // 방에 처음 덱 상태를 보낸 사용자 (방이 유휴로 정리될 때까지 이 사용자만 발행 가능)
+    final long ownerId;
+    final Map<String, Object> latest = new ConcurrentHashMap<>();
+    final Map<String, Object> pending = new ConcurrentHashMap<>();
+    volatile long seq;
+    volatile long lastUpdateMillis = System.currentTimeMillis();
+
+    Room(long ownerId) {
+      this.ownerId = ownerId;
+    }
+  }
+
+  private final SimpMessageSendingOperations messaging;
+  private final int maxRooms;
+  private final int maxFields;
+  private final long idleTtlMillis;
+  private final Map<String, Room> rooms = new ConcurrentHashMap<>();
+  private final Counter updates;
+  private final Counter ticks;
+  private final ScheduledExecutorService ticker;
+
+  public DeckStateService(
+      SimpMessageSendingOperations messaging,
+      @Value("${app.live.deck.tick:50ms}") Duration tick,
+      @Value("${app.live.deck.max-rooms:1000}") int maxRooms,
+      @Value("${app.live.deck.max-fields:128}") int maxFields,
+      @Value("${app.live.deck.idle-ttl:30m}") Duration idleTtl,
+      MeterRegistry registry
+  ) {
+    this.messaging = messaging;
+    this.maxRooms = maxRooms;
+    this.maxFields = maxFields;
+    this.idleTtlMillis = idleTtl.toMillis();
+
+    Gauge.builder("live.deck.rooms", rooms, Map::size).register(registry);
+    this.updates = Counter.builder("live.deck.updates").register(registry);
+    this.ticks = Counter.builder("live.deck.broadcasts").register(registry);
+
+    this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "deck-state-tick");
+      t.setDaemon(true);
+      return t;
+    });
+    ticker.scheduleAtFixedRate(this::tick, tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Applies a DJ update; it reaches viewers with the next tick.
+   *
+   * @throws IllegalArgumentException if the room is owned by another user
+   */
+  public void update(String room, long userId, DeckStateUpdate update) {
+    checkRoom(room);
+    if (update == null || update.fields() == null || update.fields().isEmpty()) return;
+
+    for (String field : update.fields().keySet()) {
+      if (field == null || field.isEmpty() || field.length() > MAX_FIELD_NAME) {
+        throw new IllegalArgumentException("invalid field name");
+      }
+    }
+
+    // 쓰기와 유휴 방 정리(tick)를 같은 키의 compute 안에서 하므로, 정리된 방에 쓰고 잃어버리는 일이 없음
+    rooms.compute(room, (k, r) -> {
+      if (r == null) {
+        if (rooms.size() >= maxRooms) throw new IllegalArgumentException("too many live rooms");
+        r = new Room(userId);
+      }
+      if (r.ownerId != userId) throw new IllegalArgumentException("only the room's DJ can publish deck state");
+      for (Map.Entry<String, Object> e : update.fields().entrySet()) {
+        String field = e.getKey();
+        if (e.getValue() == null) {
+          r.latest.remove(field);
+          r.pending.put(field, REMOVED);
+        } else {
+          if (!r.latest.containsKey(field) && r.latest.size() >= maxFields) {
+            throw new IllegalArgumentException("too many deck fields (max " + maxFields + ")");
+          }
+          r.latest.put(field, e.getValue());
+          r.pending.put(field, e.getValue());
+        }
+      }
+      r.lastUpdateMillis = System.currentTimeMillis();
+      return r;
+    });
+    updates.increment();
+  }
+
+  /** Whole current state of a room (empty if the DJ has not sent anything yet). */
+  public DeckStateMessage snapshot(String room) {
+    checkRoom(room);
+    Room r = rooms.get(room);
+    if (r == null) return new DeckStateMessage(room, 0, true, Map.of(), List.of());
+    // seq 를 먼저 읽음: 스냅샷에 이미 반영된 변경이 다음 틱에 다시 와도 같은 값이라 무해
+    long seq = r.seq;
+    return new DeckStateMessage(room, seq, true, new HashMap<>(r.latest), List.of());
+  }
+
+  private void tick() {
+    long now = System.currentTimeMillis();
+    try {
+      for (Map.Entry<String, Room> entry : rooms.entrySet()) {
+        Room r = entry.getValue();
+        if (r.pending.isEmpty()) {
+          if (now - r.lastUpdateMillis > idleTtlMillis) {
+            rooms.computeIfPresent(entry.getKey(),
+                (k, cur) -> cur.pending.isEmpty() && now - cur.lastUpdateMillis > idleTtlMillis ? null : cur);
+          }
+          continue;
+        }
+
+        Map<String, Object> changed = new HashMap<>();
+        List<String> removed = new ArrayList<>();
+        for (String field : r.pending.keySet()) {
+          // 꺼내는 사이에 들어온 값은 남아서 다음 틱에 나감
+          Object v = r.pending.remove(field);
+          if (v == REMOVED) removed.add(field);
+          else if (v != null) changed.put(field, v);
+        }
+        if (changed.isEmpty() && removed.isEmpty()) continue;
+
+        r.seq++;
+        messaging.convertAndSend(destination(entry.getKey()),
+            new DeckStateMessage(entry.getKey(), r.seq, false, changed, removed));
+        ticks.increment();
+      }
+    } catch (RuntimeException e) {
+      // 예외가 나가면 scheduleAtFixedRate 가 멈춤
+      log.warn("deck state tick failed", e);
+    }
+  }
+
+  public static String destination(String room) {
+    return "/topic/live/" + room + "/deck";
+  }
+
+  private static void checkRoom(String room) {
+    if (room == null || !ROOM.matcher(room).matches()) throw new IllegalArgumentException("invalid room");
+  }
+
+  @PreDestroy
+  void shutdown() {
+    ticker.shutdownNow();
+  }
+}
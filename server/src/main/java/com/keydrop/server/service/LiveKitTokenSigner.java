@@ -0,0 +1,94 @@
+package com.keydrop.server.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Mints LiveKit access tokens (HS256 JWTs, same claims as io.livekit.server.AccessToken: iss = API
+ * key, sub/name/jti = identity, exp, video grant) without rebuilding the signer per token.
+ *
+ * The HMAC key is initialized once per thread and only reset between tokens; the encoded header and
+ * the JSON around the identity (issuer, per-room grant) are built once per (room, publish) pair and
+ * kept in a bounded cache, so a token costs one small string concatenation, one base64 pass and one
+ * HMAC over ~300 bytes.
+ */
+public final class LiveKitTokenSigner {
+
+  private static final String HEADER = Base64.getUrlEncoder().withoutPadding()
+      .encodeToString("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8)) + ".";
+
+  /** Pre-rendered JSON around the per-token claims. */
+  private record Template(String prefix, String suffix) {}
+
+  private record TemplateKey(String room, boolean canPublish) {}
+
+  private final String apiKey;
+  private final byte[] secret;
+  private final long ttlSeconds;
+  private final ThreadLocal<Mac> mac;
+  private final Cache<TemplateKey, Template> templates;
+  private final Base64.Encoder b64 = Base64.getUrlEncoder().withoutPadding();
+
+  public LiveKitTokenSigner(String apiKey, String apiSecret, Duration ttl, long maxRooms) {
+    this.apiKey = apiKey;
+    this.secret = apiSecret.getBytes(StandardCharsets.UTF_8);
+    this.ttlSeconds = ttl.toSeconds();
+    this.mac = ThreadLocal.withInitial(this::newMac);
+    this.templates = Caffeine.newBuilder().maximumSize(maxRooms).build();
+    newMac(); // 키 문제는 기동 시점에 드러나도록
+  }
+
+  /** Token for {@code identity} in {@code room}; subscribe is always granted, publish only for DJs. */
+  public String sign(String room, String identity, boolean canPublish) {
+    Template t = templates.get(new TemplateKey(room, canPublish), this::template);
+    long exp = System.currentTimeMillis() / 1000 + ttlSeconds;
+    String id = jsonString(identity);
+    String payload = t.prefix() + "\"sub\":" + id + ",\"name\":" + id + ",\"jti\":" + id
+        + ",\"exp\":" + exp + t.suffix();
+
+    String signingInput = HEADER + b64.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+    Mac m = mac.get();
+    byte[] sig = m.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+    return signingInput + "." + b64.encodeToString(sig);
+  }
+
+  private Template template(TemplateKey key) {
+    return new Template(
+        "{\"iss\":" + jsonString(apiKey) + ",",
+        ",\"video\":{\"roomJoin\":true,\"room\":" + jsonString(key.room())
+            + ",\"canSubscribe\":true,\"canPublish\":" + key.canPublish() + "}}");
+  }
+
+  private Mac newMac() {
+    try {
+      Mac m = Mac.getInstance("HmacSHA256");
+      m.init(new SecretKeySpec(secret, "HmacSHA256"));
+      return m;
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("cannot initialize HmacSHA256", e);
+    }
+  }
+
+  static String jsonString(String s) {
+    StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      switch (c) {
+        case '"' -> sb.append("\\\"");
+        case '\\' -> sb.append("\\\\");
+        default -> {
+          if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+          else sb.append(c);
+        }
+      }
+    }
+    return sb.append('"').toString();
+  }
+}
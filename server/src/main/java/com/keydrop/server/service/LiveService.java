@@ -1,69 +1,126 @@
 package com.keydrop.server.service;
 
 import com.keydrop.server.controller.LiveController;
-import io.livekit.server.AccessToken;
-import io.livekit.server.RoomJoin;
-import io.livekit.server.RoomName;
-import io.livekit.server.CanPublish;
-import io.livekit.server.CanSubscribe;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class LiveService {
 
-  @Value("${livekit.url}")
-  private String livekitUrl;
+  private static final Logger log = LoggerFactory.getLogger(LiveService.class);
 
-  @Value("${livekit.apiKey}")
-  private String apiKey;
+  private final String livekitUrl;
+  private final int maxBulk;
+  // 일괄 발급(/api/live/tokens) 서비스 키, 비어 있으면 일괄 발급 비활성
+  private final byte[] bulkApiKey;
+  // 설정이 없으면 null (기동은 되고, 토큰 요청 시 오류)
+  private final LiveKitTokenSigner signer;
+  private final Timer singleTimer;
+  private final Timer bulkTimer;
+  private final Counter issued;
 
-  @Value("${livekit.apiSecret}")
-  private String apiSecret;
+  public LiveService(
+      @Value("${livekit.url}") String livekitUrl,
+      @Value("${livekit.apiKey}") String apiKey,
+      @Value("${livekit.apiSecret}") String apiSecret,
+      @Value("${livekit.token.ttl:6h}") Duration ttl,
+      @Value("${livekit.token.max-rooms:10000}") long maxRooms,
+      @Value("${livekit.token.max-bulk:500}") int maxBulk,
+      @Value("${livekit.token.bulk-api-key:}") String bulkApiKey,
+      MeterRegistry registry
+  ) {
+    this.livekitUrl = livekitUrl;
+    this.maxBulk = maxBulk;
+    this.bulkApiKey = bulkApiKey == null ? new byte[0] : bulkApiKey.getBytes(StandardCharsets.UTF_8);
+    boolean configured = livekitUrl != null && !livekitUrl.isBlank()
+        && apiKey != null && !apiKey.isBlank()
+        && apiSecret != null && !apiSecret.isBlank();
+    this.signer = configured ? new LiveKitTokenSigner(apiKey, apiSecret, ttl, maxRooms) : null;
 
-  public LiveController.TokenResponse issue(LiveController.TokenRequest req) {
+    this.singleTimer = Timer.builder("live.token.issue").tag("mode", "single")
+        .publishPercentileHistogram().register(registry);
+    this.bulkTimer = Timer.builder("live.token.issue").tag("mode", "bulk")
+        .publishPercentileHistogram().register(registry);
+    this.issued = Counter.builder("live.token.issued").register(registry);
+  }
 
-    // Validate configuration
-    if (livekitUrl == null || livekitUrl.isBlank() ||
-        apiKey == null || apiKey.isBlank() ||
-        apiSecret == null || apiSecret.isBlank()) {
-      throw new RuntimeException("LiveKit configuration missing: Check LIVEKIT_URL, LIVEKIT_API_KEY, and LIVEKIT_API_SECRET");
-    }
+  public LiveController.TokenResponse issue(LiveController.TokenRequest req) {
+    LiveKitTokenSigner s = signer();
+    String room = room(req.room());
+    String role = (req.role() == null)
+        ? "VIEWER"
+        : req.role().toUpperCase();
+    String identity = (req.identity() == null || req.identity().isBlank())
+        ? role.toLowerCase() + "-" + UUID.randomUUID()
+        : req.identity();
+    boolean isDj = "DJ".equals(role);
 
+    long start = System.nanoTime();
     try {
-      String room = (req.room() == null || req.room().isBlank())
-          ? "default"
-          : req.room();
-
-      String role = (req.role() == null)
-          ? "VIEWER"
-          : req.role().toUpperCase();
-
-      String identity = (req.identity() == null || req.identity().isBlank())
-          ? role.toLowerCase() + "-" + UUID.randomUUID()
-          : req.identity();
+      String token = s.sign(room, identity, isDj);
+      issued.increment();
+      return new LiveController.TokenResponse(token, livekitUrl);
+    } catch (RuntimeException e) {
+      log.error("failed to generate LiveKit token (room={}, role={})", room, role, e);
+      throw new RuntimeException("Failed to generate LiveKit token: " + e.getMessage(), e);
+    } finally {
+      singleTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
 
-      boolean isDj = "DJ".equals(role);
+  /** Whether {@code apiKey} is the configured bulk service key; always false when none is configured. */
+  public boolean isBulkApiKey(String apiKey) {
+    if (bulkApiKey.length == 0 || apiKey == null) return false;
+    // 상수 시간 비교
+    return MessageDigest.isEqual(bulkApiKey, apiKey.getBytes(StandardCharsets.UTF_8));
+  }
 
-      AccessToken token = new AccessToken(apiKey, apiSecret);
-      token.setIdentity(identity);
-      token.setName(identity);
-      
-      // Add grants using individual grant classes
-      token.addGrants(
-          new RoomJoin(true),
-          new RoomName(room),
-          new CanSubscribe(true),
-          new CanPublish(isDj)
-      );
+  /** {@code count} viewer tokens for one room (edge/proxy pre-provisioning), random identities. */
+  public LiveController.BulkTokenResponse issueViewers(LiveController.BulkTokenRequest req) {
+    LiveKitTokenSigner s = signer();
+    if (req.count() < 1 || req.count() > maxBulk) {
+      throw new IllegalArgumentException("count must be between 1 and " + maxBulk);
+    }
+    String room = room(req.room());
 
-      return new LiveController.TokenResponse(token.toJwt(), livekitUrl);
-    } catch (Exception e) {
-      // Log the full stack trace
-      e.printStackTrace();
+    long start = System.nanoTime();
+    try {
+      List<LiveController.IssuedToken> tokens = new ArrayList<>(req.count());
+      for (int i = 0; i < req.count(); i++) {
+        String identity = "viewer-" + UUID.randomUUID();
+        tokens.add(new LiveController.IssuedToken(identity, s.sign(room, identity, false)));
+      }
+      issued.increment(tokens.size());
+      return new LiveController.BulkTokenResponse(livekitUrl, tokens);
+    } catch (RuntimeException e) {
+      log.error("failed to generate LiveKit tokens (room={}, count={})", room, req.count(), e);
       throw new RuntimeException("Failed to generate LiveKit token: " + e.getMessage(), e);
+    } finally {
+      bulkTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
     }
   }
-}
\ No newline at end of file
+
+  private LiveKitTokenSigner signer() {
+    if (signer == null) {
+      throw new RuntimeException("LiveKit configuration missing: Check LIVEKIT_URL, LIVEKIT_API_KEY, and LIVEKIT_API_SECRET");
+    }
+    return signer;
+  }
+
+  private static String room(String room) {
+    return (room == null || room.isBlank()) ? "default" : room;
+  }
+}
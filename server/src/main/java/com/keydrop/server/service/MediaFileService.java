@@ -0,0 +1,243 @@
+package com.keydrop.server.service;
+
+import com.keydrop.server.web.MappedFileCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Files under app.media.dir (tracks, cover art) as served by /media/**.
+ *
+ * Each file has two identifiers:
+ *  - version: size + mtime, cheap to compute; catalog URLs carry it as ?v= so a changed file gets a
+ *    new URL and the old one can be cached as immutable
+ *  - etag: SHA-256 of the content, computed once per (size, mtime) and remembered. Hashing never
+ *    runs on a request: until the hash is known the ETag is a weak one built from the version, and
+ *    the hash is computed on a small background pool (one computation per file version, shared by
+ *    all callers)
+ *
+ * Bodies of files up to app.media.cache.max-file-size come from a {@link MappedFileCache};
+ * larger ones are streamed with FileChannel.transferTo.
+ */
+@Service
+public class MediaFileService {
+
+  private static final int TRANSFER_CHUNK = 8 * 1024 * 1024;
+
+  public record MediaFile(Path path, long size, Instant lastModified, MediaType contentType, String version) {}
+
+  private record Digest(long size, long lastModified, String sha256) {}
+
+  private record DigestKey(Path path, long size, long lastModified) {}
+
+  private final Path mediaDir;
+  private final String urlPrefix;
+  private final MappedFileCache cache;
+  private final Map<Path, Digest> digests = new ConcurrentHashMap<>();
+  // 계산 중인 해시 (같은 파일 버전에 대한 동시 요청은 하나의 계산을 공유)
+  private final Map<DigestKey, CompletableFuture<String>> hashing = new ConcurrentHashMap<>();
+  private final ThreadPoolExecutor hasher;
+
+  public MediaFileService(
+      @Value("${app.media.dir}") String mediaDir,
+      @Value("${app.media.urlPrefix}") String urlPrefix,
+      @Value("${app.media.cache.max-size:256MB}") DataSize cacheSize,
+      @Value("${app.media.cache.max-file-size:32MB}") DataSize cacheMaxFileSize,
+      @Value("${app.media.hash-threads:1}") int hashThreads,
+      MeterRegistry meterRegistry
+  ) {
+    this.mediaDir = Paths.get(mediaDir).toAbsolutePath().normalize();
+    this.urlPrefix = urlPrefix;
+    this.cache = new MappedFileCache("media.cache", cacheSize.toBytes(), cacheMaxFileSize.toBytes(), meterRegistry);
+    // 큐가 차면 버림: 그 파일은 다음 요청 때 다시 예약됨 (그동안은 weak ETag)
+    this.hasher = new ThreadPoolExecutor(hashThreads, hashThreads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(1024),
+        r -> {
+          Thread t = new Thread(r, "media-hash");
+          t.setDaemon(true);
+          t.setPriority(Thread.NORM_PRIORITY - 1);
+          return t;
+        },
+        new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  /** Looks up a file by its path relative to the media dir; empty for anything outside it. */
+  public Optional<MediaFile> find(String relativePath) {
+    if (relativePath == null || relativePath.isBlank()) return Optional.empty();
+    Path file = mediaDir.resolve(relativePath).normalize();
+    if (!file.startsWith(mediaDir) || file.equals(mediaDir)) return Optional.empty();
+    // 숨김 파일(.part, 임시 파일 등)은 노출하지 않음
+    if (file.getFileName().toString().startsWith(".")) return Optional.empty();
+    try {
+      BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+      if (!attrs.isRegularFile()) return Optional.empty();
+      long mtime = attrs.lastModifiedTime().toMillis();
+      MediaType type = MediaTypeFactory.getMediaType(file.getFileName().toString())
+          .orElse(MediaType.APPLICATION_OCTET_STREAM);
+      return Optional.of(new MediaFile(file, attrs.size(), Instant.ofEpochMilli(mtime), type,
+          version(attrs.size(), mtime)));
+    } catch (NoSuchFileException e) {
+      return Optional.empty();
+    } catch (IOException e) {
+      throw new IllegalStateException("cannot read media file " + relativePath, e);
+    }
+  }
+
+  public Path mediaDir() {
+    return mediaDir;
+  }
+
+  /** Public URL of a media file, with ?v= when the file exists. */
+  public String url(String relativePath) {
+    String base = urlPrefix + "/" + relativePath;
+    return find(relativePath).map(f -> base + "?v=" + f.version()).orElse(base);
+  }
+
+  /**
+   * Strong ETag (the content hash) when it is known, otherwise a weak ETag from the version while the
+   * hash is computed in the background. Never reads the file.
+   */
+  public String etag(MediaFile file) {
+    String hash = knownHash(file);
+    if (hash != null) return "\"" + hash + "\"";
+    hashInBackground(file);
+    return "W/\"" + file.version() + "\"";
+  }
+
+  /**
+   * Hex SHA-256 of the file content. Blocks until it is known; a computation already running for
+   * the same file version is joined instead of starting another one. Not for request threads.
+   */
+  public String contentHash(MediaFile file) throws IOException {
+    String hash = knownHash(file);
+    if (hash != null) return hash;
+    DigestKey key = key(file);
+    CompletableFuture<String> mine = new CompletableFuture<>();
+    CompletableFuture<String> running = hashing.putIfAbsent(key, mine);
+    if (running == null) {
+      computeHash(file, key, mine);
+      running = mine;
+    }
+    try {
+      return running.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("interrupted while hashing " + file.path());
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException io) throw io;
+      if (e.getCause() instanceof RuntimeException re) throw re;
+      throw new IOException(e.getCause());
+    }
+  }
+
+  private String knownHash(MediaFile file) {
+    Digest d = digests.get(file.path());
+    if (d != null && d.size() == file.size() && d.lastModified() == file.lastModified().toEpochMilli()) {
+      return d.sha256();
+    }
+    return null;
+  }
+
+  private void hashInBackground(MediaFile file) {
+    DigestKey key = key(file);
+    CompletableFuture<String> mine = new CompletableFuture<>();
+    if (hashing.putIfAbsent(key, mine) != null) return;
+    try {
+      hasher.execute(() -> computeHash(file, key, mine));
+    } catch (RejectedExecutionException e) {
+      hashing.remove(key, mine);
+      mine.completeExceptionally(e);
+    }
+  }
+
+  private void computeHash(MediaFile file, DigestKey key, CompletableFuture<String> result) {
+    try {
+      // 해시는 파일당 한 번뿐이므로 핫 캐시를 거치지 않고 직접 읽음
+      MessageDigest sha256 = sha256();
+      try (DigestInputStream in = new DigestInputStream(Files.newInputStream(file.path()), sha256)) {
+        in.transferTo(OutputStream.nullOutputStream());
+      }
+      String hash = HexFormat.of().formatHex(sha256.digest());
+      digests.put(file.path(), new Digest(key.size(), key.lastModified(), hash));
+      result.complete(hash);
+    } catch (IOException | RuntimeException e) {
+      result.completeExceptionally(e);
+    } finally {
+      // digests 에 넣은 뒤에 제거하므로 그 사이에 온 호출도 결과를 봄
+      hashing.remove(key, result);
+    }
+  }
+
+  private static DigestKey key(MediaFile file) {
+    return new DigestKey(file.path(), file.size(), file.lastModified().toEpochMilli());
+  }
+
+  public void write(MediaFile file, long offset, long length, OutputStream out) throws IOException {
+    WritableByteChannel target = Channels.newChannel(out);
+    MappedByteBuffer mapped = cache.get(file.path(), file.size(), file.lastModified().toEpochMilli());
+    if (mapped != null) {
+      ByteBuffer slice = mapped.position((int) offset).limit((int) (offset + length));
+      while (slice.hasRemaining()) target.write(slice);
+      return;
+    }
+    try (FileChannel ch = FileChannel.open(file.path(), StandardOpenOption.READ)) {
+      long pos = offset;
+      long end = offset + length;
+      while (pos < end) {
+        long n = ch.transferTo(pos, Math.min(TRANSFER_CHUNK, end - pos), target);
+        if (n <= 0) throw new IOException("unexpected end of " + file.path());
+        pos += n;
+      }
+    }
+  }
+
+  private static String version(long size, long mtime) {
+    return Long.toString(mtime, 36) + "-" + Long.toString(size, 36);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    hasher.shutdownNow();
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
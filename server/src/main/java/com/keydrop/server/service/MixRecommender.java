@@ -0,0 +1,289 @@
+package com.keydrop.server.service;
+
+import com.keydrop.server.dto.MixCandidateDto;
+import com.keydrop.server.dto.MusicDto;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Precomputed "what can I mix into next" lists.
+ *
+ * Two tracks are compatible when one can be pitched onto the other's tempo within the pitch fader
+ * range, counting half-time and double-time as matches (same idea as the client's
+ * BpmEstimator.foldToRange). To find candidates without comparing every pair, each BPM is folded into
+ * one octave in log2 space and sorted; compatible tracks are then the ones at most log2(1 + range)
+ * below (pitched up onto the track) or -log2(1 - range) above (pitched down) on that circle.
+ *
+ * Ranking: smaller pitch change first (in 0.1% steps), then same tempo over half/double, then same
+ * genre, then id. The top {@code app.mix.neighbors} per track are kept so a lookup is O(k).
+ * Lists are rebuilt in parallel on a dedicated fork-join pool whenever the catalog changes.
+ */
+@Service
+public class MixRecommender {
+
+  private static final Logger log = LoggerFactory.getLogger(MixRecommender.class);
+  private static final int SPLIT_THRESHOLD = 256;
+  private static final double PITCH_STEP = log2(1.001);
+  // 정렬 키: 옥타브 안의 위치(36비트 고정소수점) << 24 | doc
+  private static final int DOC_BITS = 24;
+  private static final long DOC_MASK = (1L << DOC_BITS) - 1;
+  private static final double POSITION_SCALE = 1L << 36;
+
+  private final MusicCatalog catalog;
+  private final double pitchRangePercent;
+  private final int neighborCount;
+  private final ForkJoinPool pool;
+
+  private volatile Lists lists;
+  private volatile long latestRequested;
+
+  public MixRecommender(
+      MusicCatalog catalog,
+      @Value("${app.mix.pitch-range-percent:8}") double pitchRangePercent,
+      @Value("${app.mix.neighbors:50}") int neighborCount,
+      @Value("${app.mix.parallelism:0}") int parallelism
+  ) {
+    if (pitchRangePercent <= 0 || pitchRangePercent >= 50) {
+      throw new IllegalArgumentException("app.mix.pitch-range-percent must be between 0 and 50");
+    }
+    this.catalog = catalog;
+    this.pitchRangePercent = pitchRangePercent;
+    this.neighborCount = neighborCount;
+    int threads = parallelism > 0 ? parallelism : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    this.pool = new ForkJoinPool(threads, p -> {
+      var t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+      t.setName("mix-neighbors-" + t.getPoolIndex());
+      t.setDaemon(true);
+      return t;
+    }, null, false);
+  }
+
+  /** relation: 0 = same tempo, 1 = candidate is double time, -1 = candidate is half time. */
+  private record Neighbors(int[] docs, float[] pitchPercent, byte[] relation) {}
+
+  private record Lists(long version, MusicDto[] docs, Map<Long, Integer> docById, Neighbors[] neighbors) {}
+
+  @EventListener
+  public void onCatalogUpdated(MusicCatalogUpdatedEvent event) {
+    MusicCatalog.Snapshot snapshot = event.snapshot();
+    latestRequested = Math.max(latestRequested, snapshot.version());
+    // 카탈로그 재빌드 스레드를 막지 않도록 풀에서 비동기로
+    pool.execute(() -> {
+      if (snapshot.version() < latestRequested) return;
+      try {
+        rebuild(snapshot);
+      } catch (RuntimeException e) {
+        log.error("failed to rebuild mix neighbors for catalog v{}", snapshot.version(), e);
+      }
+    });
+  }
+
+  /**
+   * @param maxPitchPercent optional narrower fader range than the configured one
+   */
+  public List<MixCandidateDto> compatible(long musicId, int limit, Double maxPitchPercent) {
+    if (limit < 1 || limit > neighborCount) {
+      throw new IllegalArgumentException("limit must be between 1 and " + neighborCount);
+    }
+    Lists current = lists;
+    Lists l = current != null ? current : rebuild(catalog.snapshot());
+    Integer doc = l.docById().get(musicId);
+    if (doc == null) {
+      if (!catalog.snapshot().byId().containsKey(musicId)) throw new NoSuchElementException("music not found: " + musicId);
+      return List.of(); // 아직 목록에 반영되지 않은 새 곡 또는 bpm 없음
+    }
+
+    Neighbors n = l.neighbors()[doc];
+    double maxPitch = maxPitchPercent != null ? Math.abs(maxPitchPercent) : Double.MAX_VALUE;
+    List<MixCandidateDto> result = new ArrayList<>(Math.min(limit, n.docs().length));
+    String genre = genreKey(l.docs()[doc]);
+    for (int i = 0; i < n.docs().length && result.size() < limit; i++) {
+      if (Math.abs(n.pitchPercent()[i]) > maxPitch) continue;
+      MusicDto t = l.docs()[n.docs()[i]];
+      result.add(new MixCandidateDto(t, relationName(n.relation()[i]), n.pitchPercent()[i],
+          genre != null && genre.equals(genreKey(t))));
+    }
+    return result;
+  }
+
+  synchronized Lists rebuild(MusicCatalog.Snapshot snapshot) {
+    Lists prev = lists;
+    if (prev != null && prev.version() >= snapshot.version()) return prev;
+
+    long started = System.nanoTime();
+    MusicDto[] docs = snapshot.tracks().stream().filter(t -> t.bpm() > 0).toArray(MusicDto[]::new);
+    int n = docs.length;
+    if (n > DOC_MASK) throw new IllegalStateException("catalog too large for mix neighbors: " + n);
+
+    double[] position = new double[n];
+    String[] genres = new String[n];
+    long[] keys = new long[n];
+    Map<Long, Integer> docById = new HashMap<>(n * 2);
+    for (int d = 0; d < n; d++) {
+      double l2 = log2(docs[d].bpm());
+      position[d] = l2 - Math.floor(l2);
+      genres[d] = genreKey(docs[d]);
+      keys[d] = ((long) (position[d] * POSITION_SCALE) << DOC_BITS) | d;
+      docById.put(docs[d].musicId(), d);
+    }
+    Arrays.sort(keys);
+    int[] rank = new int[n];
+    for (int r = 0; r < n; r++) rank[(int) (keys[r] & DOC_MASK)] = r;
+
+    Neighbors[] neighbors = new Neighbors[n];
+    double range = pitchRangePercent / 100;
+    Context ctx = new Context(docs, position, genres, keys, rank, log2(1 + range), -log2(1 - range), neighbors);
+    pool.invoke(new NeighborTask(ctx, 0, n));
+
+    Lists next = new Lists(snapshot.version(), docs, docById, neighbors);
+    lists = next;
+    log.info("mix neighbors v{} built for {} tracks ({} ms)",
+        snapshot.version(), n, (System.nanoTime() - started) / 1_000_000);
+    return next;
+  }
+
+  private record Context(
+      MusicDto[] docs, double[] position, String[] genres, long[] sortedKeys, int[] rank,
+      // 느린 후보는 피치를 올려(+range), 빠른 후보는 내려(-range) 맞추므로 위아래 허용 폭이 다름
+      double slowerTolerance, double fasterTolerance, Neighbors[] out
+  ) {}
+
+  private record Candidate(int doc, int step, int relation, boolean sameGenre, float pitchPercent) {}
+
+  private final class NeighborTask extends RecursiveAction {
+    private final Context ctx;
+    private final int from;
+    private final int to;
+
+    NeighborTask(Context ctx, int from, int to) {
+      this.ctx = ctx;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= SPLIT_THRESHOLD) {
+        for (int d = from; d < to; d++) ctx.out()[d] = neighborsOf(ctx, d);
+        return;
+      }
+      int mid = (from + to) >>> 1;
+      invokeAll(new NeighborTask(ctx, from, mid), new NeighborTask(ctx, mid, to));
+    }
+  }
+
+  /**
+   * Walks outward from the track on the folded-tempo circle, always taking the nearer side next, so
+   * candidates arrive in (roughly) increasing pitch change and the walk can stop once the kept top-k
+   * can no longer be beaten. Each side stops at its own bound (slower / faster tolerance).
+   */
+  private Neighbors neighborsOf(Context ctx, int d) {
+    int n = ctx.docs().length;
+    // 최대 힙: 가장 나쁜 후보가 맨 위
+    PriorityQueue<Candidate> top = new PriorityQueue<>(neighborCount + 1, (a, b) -> compare(b, a, ctx));
+    int r = ctx.rank()[d];
+    int left = 1;
+    int right = 1;
+    while (left + right - 2 < n - 1) {
+      int lr = Math.floorMod(r - left, n);
+      int rr = Math.floorMod(r + right, n);
+      double dl = forwardDistance(ctx, docAt(ctx, lr), d);
+      double dr = forwardDistance(ctx, d, docAt(ctx, rr));
+      boolean leftOpen = dl <= ctx.slowerTolerance();
+      boolean rightOpen = dr <= ctx.fasterTolerance();
+      if (!leftOpen && !rightOpen) break;
+      boolean takeLeft = leftOpen && (!rightOpen || dl <= dr);
+      double dist = takeLeft ? dl : dr;
+      if (top.size() == neighborCount && (int) (dist / PITCH_STEP) > top.peek().step()) break;
+
+      int other = docAt(ctx, takeLeft ? lr : rr);
+      if (takeLeft) left++;
+      else right++;
+
+      Candidate c = candidate(ctx, d, other);
+      if (c == null) continue;
+      top.add(c);
+      if (top.size() > neighborCount) top.poll();
+    }
+
+    Candidate[] sorted = top.toArray(new Candidate[0]);
+    Arrays.sort(sorted, (a, b) -> compare(a, b, ctx));
+    int[] docs = new int[sorted.length];
+    float[] pitch = new float[sorted.length];
+    byte[] relation = new byte[sorted.length];
+    for (int i = 0; i < sorted.length; i++) {
+      docs[i] = sorted[i].doc();
+      pitch[i] = sorted[i].pitchPercent();
+      relation[i] = (byte) sorted[i].relation();
+    }
+    return new Neighbors(docs, pitch, relation);
+  }
+
+  private Candidate candidate(Context ctx, int d, int other) {
+    if (other == d) return null;
+    double a = ctx.docs()[d].bpm();
+    double b = ctx.docs()[other].bpm();
+    int relation = (int) Math.round(log2(b / a));
+    if (Math.abs(relation) > 1) return null;
+    // 후보 곡을 현재 곡 템포에 맞추는 데 필요한 피치 (%)
+    double target = a * Math.pow(2, relation);
+    double pitch = (target / b - 1) * 100;
+    if (Math.abs(pitch) > pitchRangePercent) return null;
+    int step = (int) (Math.abs(log2(target / b)) / PITCH_STEP);
+    boolean sameGenre = ctx.genres()[d] != null && ctx.genres()[d].equals(ctx.genres()[other]);
+    return new Candidate(other, step, relation, sameGenre, (float) pitch);
+  }
+
+  private static int compare(Candidate a, Candidate b, Context ctx) {
+    if (a.step() != b.step()) return Integer.compare(a.step(), b.step());
+    if ((a.relation() == 0) != (b.relation() == 0)) return a.relation() == 0 ? -1 : 1;
+    if (a.sameGenre() != b.sameGenre()) return a.sameGenre() ? -1 : 1;
+    return Long.compare(ctx.docs()[a.doc()].musicId(), ctx.docs()[b.doc()].musicId());
+  }
+
+  private static int docAt(Context ctx, int rank) {
+    return (int) (ctx.sortedKeys()[rank] & DOC_MASK);
+  }
+
+  // from 에서 위쪽(빠른 템포)으로 to 까지의 거리, 원 위에서 [0, 1)
+  private static double forwardDistance(Context ctx, int from, int to) {
+    double diff = ctx.position()[to] - ctx.position()[from];
+    return diff < 0 ? diff + 1 : diff;
+  }
+
+  private static String genreKey(MusicDto t) {
+    return t.genre() == null || t.genre().isBlank() ? null : t.genre().trim().toLowerCase(Locale.ROOT);
+  }
+
+  private static String relationName(byte relation) {
+    return switch (relation) {
+      case 1 -> "double";
+      case -1 -> "half";
+      default -> "same";
+    };
+  }
+
+  private static double log2(double v) {
+    return Math.log(v) / Math.log(2);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    pool.shutdownNow();
+  }
+}
@@ -0,0 +1,160 @@
+package com.keydrop.server.service;
+
+import com.keydrop.server.audio.BeatAnalyzer;
+import com.keydrop.server.audio.PeakAccumulator;
+import com.keydrop.server.audio.PeakLevels;
+import com.keydrop.server.domain.MusicPeaks;
+import com.keydrop.server.repository.MusicAnalysisTarget;
+import com.keydrop.server.repository.MusicPeaksRepository;
+import com.keydrop.server.repository.MusicRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs {@link BeatAnalyzer} over every track in app.media.dir and stores BPM, confidence and the
+ * first downbeat on the music row, and the amplitude peak pyramid (from the same decode) in music_peaks.
+ *
+ * Each row remembers a fingerprint of (analyzer version, file size, mtime); a run only decodes files
+ * whose fingerprint changed, so rescans are cheap and bumping {@link #ANALYZER_VERSION} re-analyzes
+ * everything. Undecodable files get a fingerprint without results and are retried only when they
+ * change. Decoding is CPU bound and runs one task per track on a dedicated fork-join pool.
+ */
+@Service
+public class MusicAnalysisService {
+
+  private static final Logger log = LoggerFactory.getLogger(MusicAnalysisService.class);
+  // 2: 피크 피라미드 추가
+  static final String ANALYZER_VERSION = "2";
+  private static final int MAX_BARS = 4096;
+  private static final int MIN_BARS = 128;
+
+  private final MusicRepository repo;
+  private final MusicPeaksRepository peaksRepo;
+  private final ApplicationEventPublisher events;
+  private final Path mediaDir;
+  private final boolean enabled;
+  private final ForkJoinPool pool;
+  private final AtomicBoolean running = new AtomicBoolean();
+
+  public MusicAnalysisService(
+      MusicRepository repo,
+      MusicPeaksRepository peaksRepo,
+      ApplicationEventPublisher events,
+      @Value("${app.media.dir}") String mediaDir,
+      @Value("${app.analysis.enabled:true}") boolean enabled,
+      @Value("${app.analysis.parallelism:0}") int parallelism
+  ) {
+    this.repo = repo;
+    this.peaksRepo = peaksRepo;
+    this.events = events;
+    this.mediaDir = Paths.get(mediaDir).toAbsolutePath().normalize();
+    this.enabled = enabled;
+    int threads = parallelism > 0 ? parallelism : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    this.pool = new ForkJoinPool(threads, p -> {
+      var t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+      t.setName("music-analysis-" + t.getPoolIndex());
+      t.setPriority(Thread.NORM_PRIORITY - 1);
+      return t;
+    }, null, false);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onReady() {
+    if (enabled) analyzeLibraryAsync();
+  }
+
+  @Scheduled(initialDelayString = "${app.analysis.rescan-interval:PT1H}", fixedDelayString = "${app.analysis.rescan-interval:PT1H}")
+  void rescan() {
+    if (enabled) analyzeLibraryAsync();
+  }
+
+  /** Starts a run unless one is already in progress. */
+  public void analyzeLibraryAsync() {
+    if (!running.compareAndSet(false, true)) return;
+    pool.execute(() -> {
+      try {
+        analyzeLibrary();
+      } catch (RuntimeException e) {
+        log.error("music analysis run failed", e);
+      } finally {
+        running.set(false);
+      }
+    });
+  }
+
+  // 풀 스레드 안에서 호출되어야 invokeAll 이 이 풀에서 실행됨
+  private void analyzeLibrary() {
+    long started = System.nanoTime();
+    List<MusicAnalysisTarget> targets = repo.findAnalysisTargets();
+    List<ForkJoinTask<Boolean>> tasks = targets.stream()
+        .map(t -> ForkJoinTask.adapt(() -> analyze(t)))
+        .toList();
+    ForkJoinTask.invokeAll(tasks);
+
+    long analyzed = tasks.stream().filter(ForkJoinTask::join).count();
+    if (analyzed > 0) {
+      log.info("analyzed {} of {} tracks ({} ms)", analyzed, targets.size(), (System.nanoTime() - started) / 1_000_000);
+      events.publishEvent(new MusicCatalogChangedEvent("beat analysis"));
+    }
+  }
+
+  /** @return true when the row was updated */
+  private boolean analyze(MusicAnalysisTarget target) {
+    Path file = mediaDir.resolve(target.getMp3FilePath()).normalize();
+    if (!file.startsWith(mediaDir) || !Files.isRegularFile(file)) return false;
+
+    String fingerprint;
+    try {
+      BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+      fingerprint = ANALYZER_VERSION + ":" + attrs.size() + ":" + attrs.lastModifiedTime().toMillis();
+    } catch (IOException e) {
+      log.warn("cannot stat {}", file, e);
+      return false;
+    }
+    if (fingerprint.equals(target.getAnalysisFingerprint())) return false;
+
+    try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 64 * 1024)) {
+      PeakAccumulator peaks = new PeakAccumulator();
+      BeatAnalyzer.Result r = BeatAnalyzer.analyze(in, peaks);
+      if (!peaks.isEmpty()) {
+        peaksRepo.save(MusicPeaks.builder()
+            .musicId(target.getMusicId())
+            .levels(PeakLevels.encode(peaks.toLevels(MAX_BARS, MIN_BARS)))
+            .build());
+      }
+      repo.applyAnalysis(target.getMusicId(), r.bpm(), r.confidence(), r.firstDownbeatSec(),
+          fingerprint, LocalDateTime.now());
+      log.debug("music {}: {} bpm (confidence {}), downbeat {}s",
+          target.getMusicId(), r.bpm(), r.confidence(), r.firstDownbeatSec());
+    } catch (IOException | RuntimeException e) {
+      log.warn("failed to analyze music {} ({})", target.getMusicId(), file, e);
+      repo.applyAnalysis(target.getMusicId(), null, null, null, fingerprint, LocalDateTime.now());
+    }
+    return true;
+  }
+
+  @PreDestroy
+  void shutdown() {
+    pool.shutdownNow();
+  }
+}
@@ -0,0 +1,194 @@
+package com.keydrop.server.service;
+
+import com.keydrop.server.domain.MusicPeaks;
+import com.keydrop.server.dto.BeatGridDto;
+import com.keydrop.server.dto.MusicDto;
+import com.keydrop.server.repository.MusicPeaksRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Everything a deck needs to show a track before its audio has arrived, in one compact binary
+ * payload ("deck load bundle"). Big-endian:
+ *
+ * <pre>
+ * magic "KDMB" u32, format u8 (= 1)
+ * musicId i64, duration f64 (sec), bpm u16
+ * title, artists, genre, mp3Url, previewUrl, imageUrl: [length u16][UTF-8] each, length 0xFFFF = null
+ * beat grid: present u8; if 1: bpm f64, confidence f32, firstDownbeatSec f64
+ *            (beats at firstDownbeatSec + k * 60 / bpm, bars every four beats)
+ * peaks: [levelCount u8] { [bars u32][bars x u8] } * levelCount, largest first, 0..255 against the
+ *        loudest bar (same layout as recording peaks; levelCount 0 until the track is analyzed)
+ * </pre>
+ *
+ * A batch is [count u16] followed by [length u32][bundle] per requested id, in request order;
+ * length 0 marks an unknown id.
+ *
+ * Bundles are assembled from the catalog snapshot and music_peaks on first request and kept per
+ * track until the track changes in the catalog or the analysis writes new data.
+ */
+@Service
+public class MusicBundleService {
+
+  public static final int MAX_BATCH = 100;
+  private static final int MAGIC = 0x4B444D42; // "KDMB"
+  private static final int FORMAT_VERSION = 1;
+  private static final int NULL_STRING = 0xFFFF;
+
+  public record Bundle(byte[] bytes, String etag) {}
+
+  private record Cached(long changedIn, long generation, Bundle bundle) {}
+
+  private final MusicCatalog catalog;
+  private final MusicPeaksRepository peaksRepo;
+  private final Map<Long, Cached> cache = new ConcurrentHashMap<>();
+  // 분석 결과(피크)는 카탈로그 버전과 별개로 바뀔 수 있으므로 변경 이벤트마다 세대를 올림
+  private final AtomicLong generation = new AtomicLong();
+
+  public MusicBundleService(MusicCatalog catalog, MusicPeaksRepository peaksRepo) {
+    this.catalog = catalog;
+    this.peaksRepo = peaksRepo;
+  }
+
+  @EventListener
+  public void onCatalogChanged(MusicCatalogChangedEvent event) {
+    generation.incrementAndGet();
+  }
+
+  @EventListener
+  public void onCatalogUpdated(MusicCatalogUpdatedEvent event) {
+    cache.keySet().retainAll(event.snapshot().byId().keySet());
+  }
+
+  public Bundle bundle(long id) {
+    MusicCatalog.Snapshot s = catalog.snapshot();
+    MusicDto track = s.byId().get(id);
+    if (track == null) throw new NoSuchElementException("music not found: " + id);
+    Bundle cached = cached(s, id);
+    if (cached != null) return cached;
+    long gen = generation.get();
+    byte[] peaks = peaksRepo.findById(id).map(MusicPeaks::getLevels).orElse(null);
+    return store(s, track, gen, peaks);
+  }
+
+  /** Batch payload for the given ids (at most {@link #MAX_BATCH}). */
+  public byte[] bundles(List<Long> ids) {
+    if (ids == null || ids.isEmpty()) throw new IllegalArgumentException("ids is required");
+    if (ids.size() > MAX_BATCH) throw new IllegalArgumentException("at most " + MAX_BATCH + " ids per request");
+
+    MusicCatalog.Snapshot s = catalog.snapshot();
+    long gen = generation.get();
+    List<Long> missing = new ArrayList<>();
+    for (Long id : ids) {
+      if (s.byId().containsKey(id) && cached(s, id) == null) missing.add(id);
+    }
+    // 캐시에 없는 곡의 피크는 한 번의 쿼리로
+    Map<Long, byte[]> peaks = new HashMap<>();
+    if (!missing.isEmpty()) {
+      for (MusicPeaks p : peaksRepo.findAllById(missing)) peaks.put(p.getMusicId(), p.getLevels());
+    }
+
+    ByteArrayOutputStream buf = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(buf)) {
+      out.writeShort(ids.size());
+      for (Long id : ids) {
+        MusicDto track = s.byId().get(id);
+        if (track == null) {
+          out.writeInt(0);
+          continue;
+        }
+        Bundle b = cached(s, id);
+        if (b == null) b = store(s, track, gen, peaks.get(id));
+        out.writeInt(b.bytes().length);
+        out.write(b.bytes());
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return buf.toByteArray();
+  }
+
+  private Bundle cached(MusicCatalog.Snapshot s, long id) {
+    Cached c = cache.get(id);
+    Long changedIn = s.changedIn().get(id);
+    if (c == null || changedIn == null || c.changedIn() != changedIn || c.generation() != generation.get()) return null;
+    return c.bundle();
+  }
+
+  private Bundle store(MusicCatalog.Snapshot s, MusicDto track, long gen, byte[] peaks) {
+    byte[] bytes = encode(track, peaks);
+    Bundle bundle = new Bundle(bytes, etag(bytes));
+    cache.put(track.musicId(), new Cached(s.changedIn().getOrDefault(track.musicId(), s.version()), gen, bundle));
+    return bundle;
+  }
+
+  private static byte[] encode(MusicDto track, byte[] peaks) {
+    ByteArrayOutputStream buf = new ByteArrayOutputStream(64 + (peaks != null ? peaks.length : 1));
+    try (DataOutputStream out = new DataOutputStream(buf)) {
+      out.writeInt(MAGIC);
+      out.writeByte(FORMAT_VERSION);
+      out.writeLong(track.musicId());
+      out.writeDouble(track.duration());
+      out.writeShort((int) Math.max(0, Math.min(0xFFFF, track.bpm())));
+      writeString(out, track.title());
+      writeString(out, track.artists());
+      writeString(out, track.genre());
+      writeString(out, track.mp3Url());
+      writeString(out, track.previewUrl());
+      writeString(out, track.imageUrl());
+
+      BeatGridDto grid = track.beatGrid();
+      out.writeByte(grid != null ? 1 : 0);
+      if (grid != null) {
+        out.writeDouble(grid.bpm());
+        out.writeFloat((float) grid.confidence());
+        out.writeDouble(grid.firstDownbeatSec());
+      }
+
+      if (peaks != null && peaks.length > 0) {
+        out.write(peaks);
+      } else {
+        out.writeByte(0);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return buf.toByteArray();
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    if (value == null) {
+      out.writeShort(NULL_STRING);
+      return;
+    }
+    byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+    if (utf8.length >= NULL_STRING) throw new IllegalStateException("string too long for bundle");
+    out.writeShort(utf8.length);
+    out.write(utf8);
+  }
+
+  private static String etag(byte[] bytes) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+      return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
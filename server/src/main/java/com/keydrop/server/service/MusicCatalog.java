@@ -0,0 +1,216 @@
+package com.keydrop.server.service;
+
+import com.keydrop.server.domain.Music;
+import com.keydrop.server.dto.BeatGridDto;
+import com.keydrop.server.dto.MusicCatalogDelta;
+import com.keydrop.server.dto.MusicDto;
+import com.keydrop.server.repository.MusicRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * In-memory, immutable view of the music catalog.
+ *
+ * Every rebuild produces a new {@link Snapshot} with the list already serialized to JSON (plain and
+ * gzipped) and swaps it in with a single volatile write, so readers never see a partial catalog and
+ * GET /api/music is a byte copy. Versions only increase; each track remembers the version in which it
+ * last changed, which is what the ?since= delta feed is built from.
+ *
+ * Versions start from the boot time in millis, so a client's version from before a restart is always
+ * older than {@link Snapshot#baseVersion()} and gets a full resync.
+ */
+@Component
+public class MusicCatalog {
+
+  private static final Logger log = LoggerFactory.getLogger(MusicCatalog.class);
+
+  private final MusicRepository repo;
+  private final ObjectMapper objectMapper;
+  private final ApplicationEventPublisher events;
+  private final MediaFileService media;
+  private final CoverArtService coverArt;
+  private final PreviewClipService previews;
+
+  private volatile Snapshot snapshot;
+  private long lastFingerprintCount = -1;
+  private long lastFingerprintMaxId = -1;
+
+  public MusicCatalog(MusicRepository repo, ObjectMapper objectMapper, ApplicationEventPublisher events,
+                      MediaFileService media, CoverArtService coverArt, PreviewClipService previews) {
+    this.repo = repo;
+    this.objectMapper = objectMapper;
+    this.events = events;
+    this.media = media;
+    this.coverArt = coverArt;
+    this.previews = previews;
+  }
+
+  /**
+   * @param changedIn version in which each track was last added or changed
+   * @param removedIn tombstones: version in which a track disappeared
+   */
+  public record Snapshot(
+      long version,
+      long baseVersion,
+      List<MusicDto> tracks,
+      Map<Long, MusicDto> byId,
+      Map<Long, Long> changedIn,
+      Map<Long, Long> removedIn,
+      byte[] json,
+      byte[] gzipJson,
+      String etag,
+      String gzipEtag
+  ) {}
+
+  public Snapshot snapshot() {
+    Snapshot s = snapshot;
+    return s != null ? s : rebuild("first access");
+  }
+
+  public MusicCatalogDelta changesSince(long since) {
+    Snapshot s = snapshot();
+    if (since < s.baseVersion()) {
+      return new MusicCatalogDelta(s.version(), true, s.tracks(), List.of());
+    }
+    List<MusicDto> changed = new ArrayList<>();
+    for (MusicDto dto : s.tracks()) {
+      if (s.changedIn().get(dto.musicId()) > since) changed.add(dto);
+    }
+    List<Long> removed = new ArrayList<>();
+    s.removedIn().forEach((id, v) -> {
+      if (v > since) removed.add(id);
+    });
+    return new MusicCatalogDelta(s.version(), false, changed, removed);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onReady() {
+    rebuild("startup");
+  }
+
+  @EventListener
+  public void onCatalogChanged(MusicCatalogChangedEvent event) {
+    rebuild(event.reason());
+  }
+
+  // 외부(SQL 등)에서 추가/삭제된 행 감지: count/max id 만 조회하고 바뀌었을 때만 재빌드
+  @Scheduled(initialDelayString = "PT1M", fixedDelayString = "${app.catalog.poll-interval:PT1M}")
+  void pollForChanges() {
+    long count = repo.count();
+    long maxId = repo.findMaxMusicId();
+    boolean changed;
+    synchronized (this) {
+      changed = count != lastFingerprintCount || maxId != lastFingerprintMaxId;
+    }
+    if (changed) rebuild("catalog poll");
+  }
+
+  public synchronized Snapshot rebuild(String reason) {
+    Snapshot prev = snapshot;
+    List<Music> rows = repo.findAll();
+
+    long version = prev == null ? System.currentTimeMillis() : prev.version() + 1;
+    long baseVersion = prev == null ? version : prev.baseVersion();
+
+    List<MusicDto> tracks = new ArrayList<>(rows.size());
+    Map<Long, MusicDto> byId = new LinkedHashMap<>();
+    Map<Long, Long> changedIn = new HashMap<>();
+    long maxId = 0;
+    for (Music m : rows) {
+      MusicDto dto = toDto(m);
+      tracks.add(dto);
+      byId.put(dto.musicId(), dto);
+      MusicDto old = prev != null ? prev.byId().get(dto.musicId()) : null;
+      changedIn.put(dto.musicId(), old != null && old.equals(dto) ? prev.changedIn().get(dto.musicId()) : version);
+      maxId = Math.max(maxId, dto.musicId());
+    }
+
+    Map<Long, Long> removedIn = new HashMap<>(prev != null ? prev.removedIn() : Map.of());
+    if (prev != null) {
+      for (Long id : prev.byId().keySet()) {
+        if (!byId.containsKey(id)) removedIn.put(id, version);
+      }
+    }
+    removedIn.keySet().removeAll(byId.keySet());
+
+    if (prev != null && changedIn.values().stream().noneMatch(v -> v == version)
+        && Objects.equals(prev.removedIn(), removedIn)) {
+      // 내용이 같으면 버전을 올리지 않음 (클라이언트 ETag 유지)
+      rememberFingerprint(rows.size(), maxId);
+      return prev;
+    }
+
+    byte[] json = objectMapper.writeValueAsBytes(tracks);
+    Snapshot next = new Snapshot(
+        version,
+        baseVersion,
+        Collections.unmodifiableList(tracks),
+        Collections.unmodifiableMap(byId),
+        Collections.unmodifiableMap(changedIn),
+        Collections.unmodifiableMap(removedIn),
+        json,
+        gzip(json),
+        "\"catalog-" + version + "\"",
+        "\"catalog-" + version + "-gzip\""
+    );
+    snapshot = next;
+    rememberFingerprint(rows.size(), maxId);
+    log.info("music catalog v{} built ({} tracks, {})", version, tracks.size(), reason);
+    events.publishEvent(new MusicCatalogUpdatedEvent(next));
+    return next;
+  }
+
+  private void rememberFingerprint(long count, long maxId) {
+    lastFingerprintCount = count;
+    lastFingerprintMaxId = maxId;
+  }
+
+  MusicDto toDto(Music m) {
+    // 프론트가 바로 사용할 URL (?v= 파일 버전 포함, 파일이 바뀌면 URL 도 바뀜)
+    String mp3Url = media.url(m.getMp3FilePath());
+    String imageUrl = media.url(m.getImageFilePath());
+    BeatGridDto beatGrid = m.getAnalyzedBpm() == null ? null
+        : new BeatGridDto(m.getAnalyzedBpm(), m.getBpmConfidence(), m.getFirstDownbeatSec());
+    return new MusicDto(
+        m.getMusicId(),
+        m.getTitle(),
+        m.getBpm(),
+        m.getArtists(),
+        m.getGenre(),
+        m.getDuration(),
+        mp3Url,
+        previews.previewUrl(m.getMp3FilePath()),
+        imageUrl,
+        coverArt.thumbnailUrls(m.getImageFilePath()),
+        beatGrid
+    );
+  }
+
+  private static byte[] gzip(byte[] data) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+    try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+      gz.write(data);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,7 @@
+package com.keydrop.server.service;
+
+/**
+ * Published by anything that changes music rows (or data derived into MusicDto) so that
+ * {@link MusicCatalog} rebuilds its snapshot right away instead of on the next poll.
+ */
+public record MusicCatalogChangedEvent(String reason) {}
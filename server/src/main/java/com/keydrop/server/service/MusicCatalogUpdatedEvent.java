@@ -0,0 +1,6 @@
+package com.keydrop.server.service;
+
+/**
+ * Published after {@link MusicCatalog} swaps in a new snapshot; derived indexes rebuild from it.
+ */
+public record MusicCatalogUpdatedEvent(MusicCatalog.Snapshot snapshot) {}
@@ -0,0 +1,296 @@
+package com.keydrop.server.service;
+
+import com.keydrop.server.dto.MusicDto;
+import com.keydrop.server.dto.MusicSearchQuery;
+import com.keydrop.server.dto.MusicSearchResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Read-only search index over the current {@link MusicCatalog} snapshot.
+ *
+ * Documents are the snapshot's tracks, numbered 0..n-1 in catalog order. Every filter turns into a
+ * BitSet over those numbers and filters are combined with and():
+ *
+ *   bpm / duration : one sorted long[] each, (value << shift | doc), range = two binary searches
+ *   genre          : one BitSet per genre (lowercased)
+ *   text           : sorted term dictionary over title + artists with int[] postings;
+ *                    each query word is a prefix, words are AND-ed
+ *
+ * The index is rebuilt off the request path whenever the catalog publishes a new snapshot. Tokens of
+ * tracks that did not change are reused from the previous index, so only new or edited tracks are
+ * re-tokenized.
+ */
+@Component
+public class MusicSearchIndex {
+
+  private static final Logger log = LoggerFactory.getLogger(MusicSearchIndex.class);
+  private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+  private static final int BPM_BUCKET = 10;
+  private static final int MAX_PAGE_SIZE = 200;
+  // duration 키: 밀리초 << 24 | doc (문서 1,600만 개, 약 500년 길이까지)
+  private static final int DURATION_DOC_BITS = 24;
+  private static final long DURATION_DOC_MASK = (1L << DURATION_DOC_BITS) - 1;
+
+  private final MusicCatalog catalog;
+  private volatile Index index;
+
+  public MusicSearchIndex(MusicCatalog catalog) {
+    this.catalog = catalog;
+  }
+
+  private record Tokenized(MusicDto track, String[] terms) {}
+
+  private record Index(
+      long version,
+      MusicDto[] docs,
+      int[] bpmByDoc,
+      long[] bpmKeys,
+      long[] durationKeys,
+      Map<String, BitSet> genres,
+      Map<String, String> genreNames,
+      String[] terms,
+      int[][] postings,
+      Map<Long, Tokenized> tokens
+  ) {}
+
+  @EventListener
+  public void onCatalogUpdated(MusicCatalogUpdatedEvent event) {
+    refresh(event.snapshot());
+  }
+
+  public MusicSearchResult search(MusicSearchQuery q) {
+    if (q.page() < 0) throw new IllegalArgumentException("page must be >= 0");
+    if (q.size() < 1 || q.size() > MAX_PAGE_SIZE) {
+      throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+    }
+
+    Index current = index;
+    Index idx = current != null ? current : refresh(catalog.snapshot());
+    int n = idx.docs().length;
+
+    BitSet text = textFilter(idx, q.q());
+    BitSet genre = genreFilter(idx, q.genres());
+    BitSet bpm = (q.bpmMin() == null && q.bpmMax() == null) ? null
+        : range(idx.bpmKeys(), 32, 0xffffffffL,
+            q.bpmMin() == null ? 0 : Math.max(0, q.bpmMin()),
+            q.bpmMax() == null ? Integer.MAX_VALUE : q.bpmMax(), n);
+    BitSet duration = (q.durationMin() == null && q.durationMax() == null) ? null
+        : range(idx.durationKeys(), DURATION_DOC_BITS, DURATION_DOC_MASK,
+            q.durationMin() == null ? 0 : Math.max(0, Math.round(q.durationMin() * 1000)),
+            q.durationMax() == null ? (Long.MAX_VALUE >>> DURATION_DOC_BITS) : Math.round(q.durationMax() * 1000), n);
+
+    // 패싯은 자기 자신의 필터만 빼고 계산
+    BitSet withoutGenre = intersect(n, text, bpm, duration);
+    BitSet withoutBpm = intersect(n, text, genre, duration);
+    BitSet hits = intersect(n, withoutBpm, bpm);
+
+    Map<String, Integer> genreCounts = new LinkedHashMap<>();
+    idx.genres().forEach((key, docs) -> {
+      BitSet b = (BitSet) docs.clone();
+      b.and(withoutGenre);
+      genreCounts.put(idx.genreNames().get(key), b.cardinality());
+    });
+
+    TreeMap<Integer, Integer> bpmCounts = new TreeMap<>();
+    for (int d = withoutBpm.nextSetBit(0); d >= 0; d = withoutBpm.nextSetBit(d + 1)) {
+      bpmCounts.merge(idx.bpmByDoc()[d] / BPM_BUCKET * BPM_BUCKET, 1, Integer::sum);
+    }
+    List<MusicSearchResult.BpmBucket> bpmBuckets = new ArrayList<>(bpmCounts.size());
+    bpmCounts.forEach((from, count) -> bpmBuckets.add(new MusicSearchResult.BpmBucket(from, from + BPM_BUCKET, count)));
+
+    return new MusicSearchResult(idx.version(), hits.cardinality(), q.page(), q.size(),
+        page(idx, hits, q), genreCounts, bpmBuckets);
+  }
+
+  private static List<MusicDto> page(Index idx, BitSet hits, MusicSearchQuery q) {
+    long skip = (long) q.page() * q.size();
+    List<MusicDto> items = new ArrayList<>(q.size());
+    if (q.sort() == null || q.sort() == MusicSearchQuery.Sort.CATALOG) {
+      for (int d = hits.nextSetBit(0); d >= 0 && items.size() < q.size(); d = hits.nextSetBit(d + 1)) {
+        if (skip > 0) skip--;
+        else items.add(idx.docs()[d]);
+      }
+      return items;
+    }
+    boolean byBpm = q.sort() == MusicSearchQuery.Sort.BPM;
+    long[] keys = byBpm ? idx.bpmKeys() : idx.durationKeys();
+    long mask = byBpm ? 0xffffffffL : DURATION_DOC_MASK;
+    for (int i = 0; i < keys.length && items.size() < q.size(); i++) {
+      int d = (int) (keys[i] & mask);
+      if (!hits.get(d)) continue;
+      if (skip > 0) skip--;
+      else items.add(idx.docs()[d]);
+    }
+    return items;
+  }
+
+  private static BitSet textFilter(Index idx, String q) {
+    if (q == null || q.isBlank()) return null;
+    BitSet result = null;
+    for (String word : tokenize(q)) {
+      BitSet matches = new BitSet(idx.docs().length);
+      int i = Arrays.binarySearch(idx.terms(), word);
+      if (i < 0) i = -i - 1;
+      for (; i < idx.terms().length && idx.terms()[i].startsWith(word); i++) {
+        for (int d : idx.postings()[i]) matches.set(d);
+      }
+      if (result == null) result = matches;
+      else result.and(matches);
+      if (result.isEmpty()) break;
+    }
+    return result;
+  }
+
+  private static BitSet genreFilter(Index idx, List<String> genres) {
+    if (genres == null || genres.isEmpty()) return null;
+    BitSet result = new BitSet(idx.docs().length);
+    for (String g : genres) {
+      BitSet docs = idx.genres().get(g.trim().toLowerCase(Locale.ROOT));
+      if (docs != null) result.or(docs);
+    }
+    return result;
+  }
+
+  /** Docs whose value is in [min, max]; keys are (value << shift | doc), sorted. */
+  private static BitSet range(long[] keys, int shift, long docMask, long min, long max, int n) {
+    BitSet result = new BitSet(n);
+    long largest = Long.MAX_VALUE >>> shift;
+    // 키로 표현할 수 없을 만큼 큰 min 은 어떤 문서와도 맞지 않음 (그대로 shift 하면 넘쳐서 음수가 됨)
+    if (min > max || min > largest) return result;
+    int from = lowerBound(keys, min << shift);
+    int to = max >= largest ? keys.length : lowerBound(keys, (max + 1) << shift);
+    for (int i = from; i < to; i++) {
+      result.set((int) (keys[i] & docMask));
+    }
+    return result;
+  }
+
+  private static int lowerBound(long[] keys, long key) {
+    int lo = 0;
+    int hi = keys.length;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (keys[mid] < key) lo = mid + 1;
+      else hi = mid;
+    }
+    return lo;
+  }
+
+  private static BitSet intersect(int n, BitSet... filters) {
+    BitSet result = new BitSet(n);
+    result.set(0, n);
+    for (BitSet f : filters) {
+      if (f != null) result.and(f);
+    }
+    return result;
+  }
+
+  synchronized Index refresh(MusicCatalog.Snapshot snapshot) {
+    Index prev = index;
+    if (prev != null && prev.version() >= snapshot.version()) return prev;
+
+    long started = System.nanoTime();
+    List<MusicDto> tracks = snapshot.tracks();
+    int n = tracks.size();
+    if (n > DURATION_DOC_MASK) throw new IllegalStateException("catalog too large for search index: " + n);
+
+    MusicDto[] docs = tracks.toArray(new MusicDto[0]);
+    int[] bpmByDoc = new int[n];
+    long[] bpmKeys = new long[n];
+    long[] durationKeys = new long[n];
+    Map<String, BitSet> genres = new TreeMap<>();
+    Map<String, String> genreNames = new HashMap<>();
+    Map<String, IntList> postings = new HashMap<>();
+    Map<Long, Tokenized> tokens = new HashMap<>(n * 2);
+    int reused = 0;
+
+    for (int d = 0; d < n; d++) {
+      MusicDto t = docs[d];
+      int bpm = (int) Math.max(0, Math.min(Integer.MAX_VALUE, t.bpm()));
+      bpmByDoc[d] = bpm;
+      bpmKeys[d] = ((long) bpm << 32) | d;
+      durationKeys[d] = (Math.max(0, Math.round(t.duration() * 1000)) << DURATION_DOC_BITS) | d;
+
+      if (t.genre() != null && !t.genre().isBlank()) {
+        String key = t.genre().trim().toLowerCase(Locale.ROOT);
+        genres.computeIfAbsent(key, k -> new BitSet(n)).set(d);
+        genreNames.putIfAbsent(key, t.genre().trim());
+      }
+
+      Tokenized old = prev != null ? prev.tokens().get(t.musicId()) : null;
+      Tokenized tok;
+      if (old != null && old.track().equals(t)) {
+        tok = old;
+        reused++;
+      } else {
+        tok = new Tokenized(t, termsOf(t));
+      }
+      tokens.put(t.musicId(), tok);
+      for (String term : tok.terms()) {
+        postings.computeIfAbsent(term, k -> new IntList()).add(d);
+      }
+    }
+    Arrays.sort(bpmKeys);
+    Arrays.sort(durationKeys);
+
+    String[] terms = postings.keySet().toArray(new String[0]);
+    Arrays.sort(terms);
+    int[][] termPostings = new int[terms.length][];
+    for (int i = 0; i < terms.length; i++) {
+      termPostings[i] = postings.get(terms[i]).toArray();
+    }
+
+    Index next = new Index(snapshot.version(), docs, bpmByDoc, bpmKeys, durationKeys,
+        genres, genreNames, terms, termPostings, tokens);
+    index = next;
+    log.info("music search index v{} built: {} tracks, {} terms, {} reused ({} ms)",
+        snapshot.version(), n, terms.length, reused, (System.nanoTime() - started) / 1_000_000);
+    return next;
+  }
+
+  /** Distinct terms of title and artists, in document order. */
+  private static String[] termsOf(MusicDto t) {
+    List<String> words = new ArrayList<>(tokenize(t.title()));
+    words.addAll(tokenize(t.artists()));
+    return words.stream().distinct().toArray(String[]::new);
+  }
+
+  static List<String> tokenize(String text) {
+    if (text == null) return List.of();
+    String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+    List<String> words = new ArrayList<>();
+    for (String w : NON_WORD.split(normalized)) {
+      if (!w.isEmpty()) words.add(w);
+    }
+    return words;
+  }
+
+  private static final class IntList {
+    private int[] values = new int[4];
+    private int size;
+
+    void add(int v) {
+      if (size == values.length) values = Arrays.copyOf(values, size * 2);
+      values[size++] = v;
+    }
+
+    int[] toArray() {
+      return Arrays.copyOf(values, size);
+    }
+  }
+}
@@ -1,47 +1,93 @@
 package com.keydrop.server.service;
 
+import com.keydrop.server.audio.Mp3SeekTable;
+import com.keydrop.server.dto.MixCandidateDto;
+import com.keydrop.server.dto.MusicCatalogDelta;
 import com.keydrop.server.dto.MusicDto;
-import com.keydrop.server.domain.Music;
+import com.keydrop.server.dto.MusicSearchQuery;
+import com.keydrop.server.dto.MusicSearchResult;
+import com.keydrop.server.dto.SeekPointDto;
 import com.keydrop.server.repository.MusicRepository;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 @Service
 public class MusicService {
 
+  private final MusicCatalog catalog;
+  private final MusicSearchIndex searchIndex;
+  private final MixRecommender mixRecommender;
   private final MusicRepository repo;
+  private final MediaFileService media;
+  private final SeekIndexService seekIndex;
+  private final MusicBundleService bundles;
 
-  @Value("${app.media.urlPrefix}")
-  private String urlPrefix;
-
-  public MusicService(MusicRepository repo) {
+  public MusicService(MusicCatalog catalog, MusicSearchIndex searchIndex, MixRecommender mixRecommender,
+                      MusicRepository repo, MediaFileService media, SeekIndexService seekIndex,
+                      MusicBundleService bundles) {
+    this.catalog = catalog;
+    this.searchIndex = searchIndex;
+    this.mixRecommender = mixRecommender;
     this.repo = repo;
+    this.media = media;
+    this.seekIndex = seekIndex;
+    this.bundles = bundles;
+  }
+
+  public MusicCatalog.Snapshot snapshot() {
+    return catalog.snapshot();
   }
 
   public List<MusicDto> list() {
-    return repo.findAll().stream().map(this::toDto).toList();
+    return catalog.snapshot().tracks();
   }
 
   public MusicDto get(long id) {
-    Music m = repo.findById(id).orElseThrow();
-    return toDto(m);
-  }
-
-  private MusicDto toDto(Music m) {
-    // 프론트가 바로 사용할 URL
-    String mp3Url = urlPrefix + "/" + m.getMp3FilePath();
-    String imageUrl = urlPrefix + "/" + m.getImageFilePath();
-    return new MusicDto(
-        m.getMusicId(),
-        m.getTitle(),
-        m.getBpm(),
-        m.getArtists(),
-        m.getGenre(),
-        m.getDuration(),
-        mp3Url,
-        imageUrl
-    );
-  }
-}
\ No newline at end of file
+    MusicDto dto = catalog.snapshot().byId().get(id);
+    if (dto == null) throw new NoSuchElementException("music not found: " + id);
+    return dto;
+  }
+
+  public MusicCatalogDelta changesSince(long version) {
+    return catalog.changesSince(version);
+  }
+
+  public MusicSearchResult search(MusicSearchQuery query) {
+    return searchIndex.search(query);
+  }
+
+  public List<MixCandidateDto> compatible(long id, int limit, Double maxPitchPercent) {
+    return mixRecommender.compatible(id, limit, maxPitchPercent);
+  }
+
+  public MusicBundleService.Bundle bundle(long id) {
+    return bundles.bundle(id);
+  }
+
+  public byte[] bundles(List<Long> ids) {
+    return bundles.bundles(ids);
+  }
+
+  public SeekPointDto seek(long id, double seconds) {
+    if (!Double.isFinite(seconds) || seconds < 0) {
+      throw new IllegalArgumentException("t must be a non-negative number of seconds");
+    }
+    MusicDto track = get(id);
+    MediaFileService.MediaFile file = repo.findMp3FilePathById(id)
+        .flatMap(media::find)
+        .orElseThrow(() -> new NoSuchElementException("audio file not found: " + id));
+    Mp3SeekTable table;
+    try {
+      table = seekIndex.table(file)
+          .orElseThrow(() -> new IllegalArgumentException("track has no seekable MP3 stream: " + id));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    Mp3SeekTable.SeekPoint point = table.seek(seconds);
+    return new SeekPointDto(id, seconds, point.timeSec(), point.offset(), table.audioEnd() - 1, track.mp3Url());
+  }
+}
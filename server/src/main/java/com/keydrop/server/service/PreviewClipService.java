@@ -0,0 +1,221 @@
+package com.keydrop.server.service;
+
+import com.keydrop.server.audio.LoudestWindow;
+import com.keydrop.server.audio.Mp3SeekTable;
+import com.keydrop.server.repository.MusicRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Short preview clips of the catalog tracks for browsing the library without downloading whole files.
+ *
+ * A clip is the loudest window of app.media.previews.length ({@link LoudestWindow}), cut out of the
+ * original on frame boundaries found through the seek table, i.e. the MPEG frames are copied as is
+ * and nothing is re-encoded. Clips live in {media dir}/previews/{track path}.{source version}.{length}s.mp3,
+ * so a replaced track or a new length yields a new file (older clips of the track are removed).
+ *
+ * Missing clips are generated whenever the catalog changes (startup provisioning, new tracks) on a
+ * small bounded pool, in the same way as cover thumbnails; the catalog is then rebuilt so
+ * MusicDto.previewUrl picks them up. Tracks whose clip cannot be cut (missing or undecodable file)
+ * are remembered by their versioned URL and do not trigger another scan until the file changes.
+ */
+@Service
+public class PreviewClipService {
+
+  private static final Logger log = LoggerFactory.getLogger(PreviewClipService.class);
+  static final String PREVIEWS_DIR = "previews";
+
+  private final MediaFileService media;
+  private final SeekIndexService seekIndex;
+  private final MusicRepository repo;
+  private final ApplicationEventPublisher events;
+  private final long lengthSec;
+  private final ThreadPoolExecutor coordinator;
+  private final ThreadPoolExecutor workers;
+  private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+  // 잘라낼 수 없는 원본의 URL (?v= 버전 포함이라 파일이 바뀌면 다시 시도)
+  private final Set<String> failed = ConcurrentHashMap.newKeySet();
+
+  public PreviewClipService(
+      MediaFileService media,
+      SeekIndexService seekIndex,
+      MusicRepository repo,
+      ApplicationEventPublisher events,
+      @Value("${app.media.previews.length:30s}") Duration length,
+      @Value("${app.media.previews.threads:2}") int threads
+  ) {
+    this.media = media;
+    this.seekIndex = seekIndex;
+    this.repo = repo;
+    this.events = events;
+    this.lengthSec = Math.max(1, length.toSeconds());
+
+    AtomicInteger seq = new AtomicInteger();
+    // 카탈로그 이벤트가 몰려도 대기 작업은 최신 1개만 유지
+    this.coordinator = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(1),
+        r -> daemon(r, "preview-clip-scan"),
+        new ThreadPoolExecutor.DiscardOldestPolicy());
+    // 큐가 차면 스캔 스레드가 직접 처리 (자연스러운 backpressure)
+    this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(threads * 4),
+        r -> daemon(r, "preview-clip-" + seq.incrementAndGet()),
+        new ThreadPoolExecutor.CallerRunsPolicy());
+  }
+
+  /** URL of the track's preview clip, or null until it has been generated. */
+  public String previewUrl(String mp3Path) {
+    MediaFileService.MediaFile source = media.find(mp3Path).orElse(null);
+    if (source == null) return null;
+    String rel = clipPath(mp3Path, source);
+    return media.find(rel).isPresent() ? media.url(rel) : null;
+  }
+
+  @EventListener
+  public void onCatalogUpdated(MusicCatalogUpdatedEvent event) {
+    boolean incomplete = event.snapshot().tracks().stream()
+        .anyMatch(t -> t.previewUrl() == null && !failed.contains(t.mp3Url()));
+    if (incomplete) coordinator.execute(() -> generateMissing(repo.findAllMp3FilePaths()));
+  }
+
+  private void generateMissing(List<String> mp3Paths) {
+    long started = System.nanoTime();
+    List<Future<Boolean>> tasks = new ArrayList<>();
+    for (String mp3Path : mp3Paths) {
+      tasks.add(workers.submit(() -> generate(mp3Path)));
+    }
+    int generated = 0;
+    for (Future<Boolean> f : tasks) {
+      try {
+        if (f.get()) generated++;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (ExecutionException e) {
+        log.warn("preview clip task failed", e.getCause());
+      }
+    }
+    if (generated > 0) {
+      log.info("generated {} preview clips ({} ms)", generated, (System.nanoTime() - started) / 1_000_000);
+      events.publishEvent(new MusicCatalogChangedEvent("preview clips"));
+    }
+  }
+
+  /** @return true when a clip was written */
+  private boolean generate(String mp3Path) throws IOException {
+    // MusicCatalog.toDto 의 mp3Url 과 같은 값
+    String sourceUrl = media.url(mp3Path);
+    MediaFileService.MediaFile source = media.find(mp3Path).orElse(null);
+    if (source == null) {
+      failed.add(sourceUrl);
+      return false;
+    }
+    String rel = clipPath(mp3Path, source);
+    Path target = media.mediaDir().resolve(rel);
+    if (Files.isRegularFile(target) || failed.contains(sourceUrl) || !inFlight.add(rel)) return false;
+    try {
+      Mp3SeekTable table = seekIndex.table(source).orElse(null);
+      if (table == null) {
+        failed.add(sourceUrl);
+        return false;
+      }
+      LoudestWindow.Result loudest;
+      try (InputStream in = new BufferedInputStream(Files.newInputStream(source.path()), 64 * 1024)) {
+        loudest = LoudestWindow.find(in, lengthSec);
+      } catch (IOException e) {
+        log.warn("cannot decode {} for a preview clip", mp3Path, e);
+        failed.add(sourceUrl);
+        return false;
+      }
+
+      Mp3SeekTable.SeekPoint start = table.seek(loudest.startSec());
+      long end = start.timeSec() + lengthSec >= table.durationSec()
+          ? table.audioEnd()
+          : table.seek(start.timeSec() + lengthSec).offset();
+      copyRange(source.path(), start.offset(), end, target);
+      removeOlderClips(target);
+      return true;
+    } finally {
+      inFlight.remove(rel);
+    }
+  }
+
+  private String clipPath(String mp3Path, MediaFileService.MediaFile source) {
+    String stem = mp3Path.replaceFirst("(?i)\\.mp3$", "");
+    return PREVIEWS_DIR + "/" + stem + "." + source.version() + "." + lengthSec + "s.mp3";
+  }
+
+  private static void copyRange(Path source, long from, long to, Path target) throws IOException {
+    Files.createDirectories(target.getParent());
+    Path tmp = Files.createTempFile(target.getParent(), ".preview-", ".tmp");
+    try {
+      try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+           FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+        long pos = from;
+        while (pos < to) {
+          long n = in.transferTo(pos, to - pos, out);
+          if (n <= 0) throw new IOException("unexpected end of " + source);
+          pos += n;
+        }
+      }
+      Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+
+  // 같은 곡의 이전 버전/길이 클립 정리
+  private static void removeOlderClips(Path clip) {
+    String name = clip.getFileName().toString();
+    String stem = name.replaceFirst("\\.[0-9a-z]+-[0-9a-z]+\\.\\d+s\\.mp3$", "");
+    Pattern sibling = Pattern.compile(Pattern.quote(stem) + "\\.[0-9a-z]+-[0-9a-z]+\\.\\d+s\\.mp3");
+    try (DirectoryStream<Path> dir = Files.newDirectoryStream(clip.getParent())) {
+      for (Path p : dir) {
+        String other = p.getFileName().toString();
+        if (!other.equals(name) && sibling.matcher(other).matches()) Files.deleteIfExists(p);
+      }
+    } catch (IOException e) {
+      log.warn("cannot clean up old preview clips of {}", clip, e);
+    }
+  }
+
+  private static Thread daemon(Runnable r, String name) {
+    Thread t = new Thread(r, name);
+    t.setDaemon(true);
+    t.setPriority(Thread.NORM_PRIORITY - 1);
+    return t;
+  }
+
+  @PreDestroy
+  void shutdown() {
+    coordinator.shutdownNow();
+    workers.shutdownNow();
+  }
+}
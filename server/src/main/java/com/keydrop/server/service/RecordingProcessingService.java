@@ -0,0 +1,145 @@
+package com.keydrop.server.service;
+
+import com.keydrop.server.audio.ContainerProbe;
+import com.keydrop.server.audio.PeakAccumulator;
+import com.keydrop.server.audio.PeakLevels;
+import com.keydrop.server.domain.Recording;
+import com.keydrop.server.domain.RecordingPeaks;
+import com.keydrop.server.repository.RecordingMetadata;
+import com.keydrop.server.repository.RecordingPeaksRepository;
+import com.keydrop.server.repository.RecordingRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Derives server-side facts about an uploaded recording in one streaming pass:
+ * SHA-256 of the content, container/codec and real duration from the headers,
+ * and a multi-resolution peak summary for waveform rendering.
+ *
+ * Work runs on a small bounded pool so uploads return immediately. If the queue is full the
+ * recording simply stays PENDING and the periodic sweep picks it up later.
+ */
+@Service
+public class RecordingProcessingService {
+
+  private static final Logger log = LoggerFactory.getLogger(RecordingProcessingService.class);
+  private static final int MAX_BARS = 4096;
+  private static final int MIN_BARS = 128;
+
+  private final RecordingRepository repo;
+  private final RecordingPeaksRepository peaksRepo;
+  private final RecordingService recordingService;
+  private final ThreadPoolExecutor executor;
+  private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+  public RecordingProcessingService(
+      RecordingRepository repo,
+      RecordingPeaksRepository peaksRepo,
+      RecordingService recordingService,
+      @Value("${app.recordings.processing.threads:2}") int threads,
+      @Value("${app.recordings.processing.queue-capacity:100}") int queueCapacity
+  ) {
+    this.repo = repo;
+    this.peaksRepo = peaksRepo;
+    this.recordingService = recordingService;
+
+    AtomicInteger seq = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        r -> {
+          Thread t = new Thread(r, "recording-processing-" + seq.incrementAndGet());
+          t.setDaemon(true);
+          t.setPriority(Thread.NORM_PRIORITY - 1);
+          return t;
+        },
+        new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  @EventListener
+  public void onRecordingStored(RecordingStoredEvent event) {
+    submit(event.recordingId());
+  }
+
+  public void submit(long recordingId) {
+    if (!inFlight.add(recordingId)) return;
+    try {
+      executor.execute(() -> {
+        try {
+          process(recordingId);
+        } finally {
+          inFlight.remove(recordingId);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      inFlight.remove(recordingId);
+      log.info("processing queue full, recording {} stays pending", recordingId);
+    }
+  }
+
+  @Scheduled(initialDelayString = "PT1M", fixedDelayString = "PT5M")
+  void sweepPending() {
+    List<Long> ids = repo.findIdsByProcessingStatus(Recording.ProcessingStatus.PENDING, PageRequest.of(0, 100));
+    ids.forEach(this::submit);
+  }
+
+  void process(long recordingId) {
+    RecordingMetadata m = repo.findMetadataById(recordingId).orElse(null);
+    if (m == null) return;
+
+    try {
+      MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+      PeakAccumulator peaks = new PeakAccumulator();
+      ContainerProbe.Result probe;
+
+      try (InputStream raw = recordingService.openAudio(m);
+           DigestInputStream in = new DigestInputStream(new BufferedInputStream(raw, 64 * 1024), sha256)) {
+        probe = ContainerProbe.probe(in, peaks);
+        // 파서가 일찍 끝나도 해시는 끝까지 (같은 스트림, 추가 읽기 없음)
+        in.transferTo(OutputStream.nullOutputStream());
+      }
+
+      if (!peaks.isEmpty()) {
+        peaksRepo.save(RecordingPeaks.builder()
+            .recordingId(recordingId)
+            .levels(PeakLevels.encode(peaks.toLevels(MAX_BARS, MIN_BARS)))
+            .build());
+      }
+
+      Double duration = probe.durationSec() != null && probe.durationSec() > 0
+          ? probe.durationSec()
+          : m.getDurationSec();
+      repo.applyProcessingResult(recordingId, Recording.ProcessingStatus.DONE,
+          HexFormat.of().formatHex(sha256.digest()), probe.codec(), duration, LocalDateTime.now());
+    } catch (Exception e) {
+      log.warn("failed to process recording {}", recordingId, e);
+      repo.updateProcessingStatus(recordingId, Recording.ProcessingStatus.FAILED, LocalDateTime.now());
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdownNow();
+  }
+}
@@ -1,61 +1,219 @@
 package com.keydrop.server.service;
 
+import com.keydrop.server.audio.PeakLevels;
 import com.keydrop.server.domain.Recording;
 import com.keydrop.server.dto.RecordingDto;
+import com.keydrop.server.dto.RecordingPage;
+import com.keydrop.server.dto.RecordingPeaksDto;
+import com.keydrop.server.repository.RecordingMetadata;
+import com.keydrop.server.repository.RecordingPeaksRepository;
 import com.keydrop.server.repository.RecordingRepository;
+import com.keydrop.server.storage.RecordingStorage;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class RecordingService {
 
+  private static final int DB_CHUNK_BYTES = 256 * 1024;
+  private static final int MAX_PAGE_SIZE = 200;
+
   private final RecordingRepository repo;
+  private final RecordingPeaksRepository peaksRepo;
+  private final RecordingStorage storage;
+  private final ApplicationEventPublisher events;
 
-  public RecordingService(RecordingRepository repo) {
+  public RecordingService(RecordingRepository repo, RecordingPeaksRepository peaksRepo,
+                          RecordingStorage storage, ApplicationEventPublisher events) {
     this.repo = repo;
+    this.peaksRepo = peaksRepo;
+    this.storage = storage;
+    this.events = events;
   }
 
   public RecordingDto create(MultipartFile file, Double durationSec, Long userId) {
     if (file == null || file.isEmpty()) throw new IllegalArgumentException("file is required");
     if (userId == null) throw new IllegalArgumentException("userId is required");
 
-    byte[] bytes;
-    try {
-      bytes = file.getBytes();
+    // multipart 임시파일 -> storage 로 스트리밍 (전체 바이트를 힙에 올리지 않음)
+    RecordingStorage.StoredObject stored;
+    try (InputStream in = file.getInputStream()) {
+      stored = storage.store(in);
     } catch (IOException e) {
-      throw new IllegalStateException("failed to read upload", e);
+      throw new IllegalStateException("failed to store upload", e);
     }
 
-    String fileName = file.getOriginalFilename() != null ? file.getOriginalFilename() : "recording";
-    String contentType = file.getContentType() != null ? file.getContentType() : "application/octet-stream";
+    return createFromStored(stored, file.getOriginalFilename(), file.getContentType(), durationSec, userId);
+  }
 
+  /**
+   * Registers a blob that is already in storage (multipart or chunked upload) as a recording.
+   */
+  public RecordingDto createFromStored(RecordingStorage.StoredObject stored, String fileName,
+                                       String contentType, Double durationSec, Long userId) {
+    // 저장 실패 시 blob 은 참조가 없으므로 RecordingBlobGarbageCollector 가 회수
     Recording saved = repo.save(Recording.builder()
         .userId(userId)
-        .fileName(fileName)
-        .contentType(contentType)
-        .sizeBytes((long) bytes.length)
+        .fileName(fileName != null ? fileName : "recording")
+        .contentType(contentType != null ? contentType : "application/octet-stream")
+        .sizeBytes(stored.sizeBytes())
         .durationSec(durationSec != null ? durationSec : 0.0)
-        .audioData(bytes)
+        .storageKey(stored.key())
+        .contentSha256(stored.key())
         .build());
 
+    events.publishEvent(new RecordingStoredEvent(saved.getRecordingId()));
     return toDto(saved);
   }
 
-  public List<RecordingDto> listByUserId(Long userId) {
+  public RecordingMetadata getMetadata(long id) {
+    return repo.findMetadataById(id).orElseThrow();
+  }
+
+  /**
+   * Streams {@code length} bytes of the recording starting at {@code offset}.
+   * Files in storage go through FileChannel.transferTo; legacy bytea rows are read
+   * from Postgres in fixed-size substring() chunks so the whole blob never hits the heap.
+   */
+  public void writeAudio(RecordingMetadata m, long offset, long length, OutputStream out) throws IOException {
+    if (m.getStorageKey() != null) {
+      storage.transferTo(m.getStorageKey(), offset, length, Channels.newChannel(out));
+      return;
+    }
+
+    long pos = offset;
+    long end = offset + length;
+    while (pos < end) {
+      int len = (int) Math.min(DB_CHUNK_BYTES, end - pos);
+      byte[] chunk = repo.readAudioChunk(m.getRecordingId(), Math.toIntExact(pos + 1), len);
+      if (chunk == null || chunk.length == 0) {
+        throw new IOException("Unexpected end of recording " + m.getRecordingId());
+      }
+      out.write(chunk);
+      pos += chunk.length;
+    }
+  }
+
+  /**
+   * Sequential stream over the recording's audio (storage file or legacy bytea in chunks).
+   */
+  public InputStream openAudio(RecordingMetadata m) throws IOException {
+    if (m.getStorageKey() != null) {
+      return storage.open(m.getStorageKey());
+    }
+    return new LegacyAudioInputStream(m.getRecordingId(), m.getSizeBytes());
+  }
+
+  /**
+   * Peak summary, or empty if the recording has not been processed (or had no decodable audio).
+   */
+  public Optional<RecordingPeaksDto> getPeaks(RecordingMetadata m) {
+    return peaksRepo.findById(m.getRecordingId()).map(p -> new RecordingPeaksDto(
+        m.getRecordingId(),
+        m.getDurationSec(),
+        PeakLevels.decode(p.getLevels()).stream()
+            .map(level -> {
+              int[] peaks = new int[level.length];
+              for (int i = 0; i < level.length; i++) peaks[i] = level[i] & 0xFF;
+              return new RecordingPeaksDto.Level(level.length, peaks);
+            })
+            .toList()
+    ));
+  }
+
+  /**
+   * Keyset page of a user's recordings, newest first. Only metadata columns are read.
+   */
+  public RecordingPage listByUserId(Long userId, String cursor, int limit) {
     if (userId == null) throw new IllegalArgumentException("userId is required");
-    return repo.findAllByUserIdOrderByCreatedAtDesc(userId).stream().map(this::toDto).toList();
+    int size = Math.max(1, Math.min(MAX_PAGE_SIZE, limit));
+    // 한 건 더 읽어서 다음 페이지 존재 여부 판단
+    PageRequest page = PageRequest.of(0, size + 1);
+
+    List<RecordingMetadata> rows;
+    if (cursor == null || cursor.isBlank()) {
+      rows = repo.findPageByUserId(userId, page);
+    } else {
+      Cursor c = Cursor.decode(cursor);
+      rows = repo.findPageByUserIdAfter(userId, c.createdAt(), c.recordingId(), page);
+    }
+
+    String next = null;
+    if (rows.size() > size) {
+      rows = rows.subList(0, size);
+      RecordingMetadata last = rows.get(size - 1);
+      next = new Cursor(last.getCreatedAt(), last.getRecordingId()).encode();
+    }
+    return new RecordingPage(rows.stream().map(this::toDto).toList(), next);
+  }
+
+  /** All of a user's recordings, newest first (read page by page, metadata columns only). */
+  public List<RecordingDto> listAllByUserId(Long userId) {
+    List<RecordingDto> all = new ArrayList<>();
+    String cursor = null;
+    do {
+      RecordingPage page = listByUserId(userId, cursor, MAX_PAGE_SIZE);
+      all.addAll(page.items());
+      cursor = page.nextCursor();
+    } while (cursor != null);
+    return all;
   }
 
   public RecordingDto get(long id) {
-    Recording r = repo.findById(id).orElseThrow();
-    return toDto(r);
+    return toDto(getMetadata(id));
   }
 
-  public Recording getEntity(long id) {
-    return repo.findById(id).orElseThrow();
+  private final class LegacyAudioInputStream extends InputStream {
+    private final long recordingId;
+    private final long size;
+    private long pos;
+    private byte[] chunk = new byte[0];
+    private int chunkPos;
+
+    LegacyAudioInputStream(long recordingId, long size) {
+      this.recordingId = recordingId;
+      this.size = size;
+    }
+
+    @Override
+    public int read() throws IOException {
+      return fill() ? chunk[chunkPos++] & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (len == 0) return 0;
+      if (!fill()) return -1;
+      int n = Math.min(len, chunk.length - chunkPos);
+      System.arraycopy(chunk, chunkPos, b, off, n);
+      chunkPos += n;
+      return n;
+    }
+
+    private boolean fill() {
+      if (chunkPos < chunk.length) return true;
+      if (pos >= size) return false;
+      int len = (int) Math.min(DB_CHUNK_BYTES, size - pos);
+      byte[] next = repo.readAudioChunk(recordingId, Math.toIntExact(pos + 1), len);
+      if (next == null || next.length == 0) return false;
+      chunk = next;
+      chunkPos = 0;
+      pos += next.length;
+      return true;
+    }
   }
 
   private RecordingDto toDto(Recording r) {
@@ -69,5 +227,37 @@ public class RecordingService {
         "/api/recordings/" + r.getRecordingId() + "/file"
     );
   }
+
+  private RecordingDto toDto(RecordingMetadata m) {
+    return new RecordingDto(
+        m.getRecordingId(),
+        m.getFileName(),
+        m.getContentType(),
+        m.getSizeBytes(),
+        m.getDurationSec(),
+        m.getCreatedAt(),
+        "/api/recordings/" + m.getRecordingId() + "/file"
+    );
+  }
+
+  /**
+   * Opaque page cursor: base64url("{createdAt}|{recordingId}") of the last row returned.
+   */
+  private record Cursor(LocalDateTime createdAt, long recordingId) {
+    String encode() {
+      String raw = createdAt + "|" + recordingId;
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Cursor decode(String value) {
+      try {
+        String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+        int sep = raw.lastIndexOf('|');
+        return new Cursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+      } catch (RuntimeException e) {
+        throw new IllegalArgumentException("Invalid cursor");
+      }
+    }
+  }
 }
 
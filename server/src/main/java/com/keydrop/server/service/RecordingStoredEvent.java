@@ -0,0 +1,6 @@
+package com.keydrop.server.service;
+
+/**
+ * Published after a recording row and its blob have been saved.
+ */
+public record RecordingStoredEvent(long recordingId) {}
@@ -0,0 +1,313 @@
+package com.keydrop.server.service;
+
+import com.keydrop.server.dto.RecordingDto;
+import com.keydrop.server.dto.RecordingUploadRequest;
+import com.keydrop.server.dto.RecordingUploadStatus;
+import com.keydrop.server.storage.RecordingStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resumable chunked uploads for long recordings.
+ *
+ * A session preallocates {uploadDir}/{uploadId}.part to the announced total size. Chunks can
+ * arrive in any order and in parallel; each one is received into its own temp file, checked
+ * against its SHA-256 and only then copied to its offset with positional FileChannel writes, so
+ * concurrent chunks only share a short per-session lock around the copy.
+ * Finalizing hands the assembled file to {@link RecordingStorage} (a rename for local storage).
+ *
+ * Session state is kept in memory; after a server restart the client simply opens a new session.
+ */
+@Service
+public class RecordingUploadService {
+
+  private static final Logger log = LoggerFactory.getLogger(RecordingUploadService.class);
+  private static final long MIN_CHUNK_SIZE = 256L * 1024;
+  private static final int IO_BUFFER_SIZE = 64 * 1024;
+
+  private final RecordingStorage storage;
+  private final RecordingService recordingService;
+  private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+  private final Path uploadDir;
+  private final long maxSize;
+  private final long defaultChunkSize;
+  private final long maxChunkSize;
+  private final Duration sessionTtl;
+
+  public RecordingUploadService(
+      RecordingStorage storage,
+      RecordingService recordingService,
+      @Value("${app.recordings.upload.dir}") String uploadDir,
+      @Value("${app.recordings.upload.max-size}") DataSize maxSize,
+      @Value("${app.recordings.upload.default-chunk-size}") DataSize defaultChunkSize,
+      @Value("${app.recordings.upload.max-chunk-size}") DataSize maxChunkSize,
+      @Value("${app.recordings.upload.session-ttl}") Duration sessionTtl
+  ) throws IOException {
+    this.storage = storage;
+    this.recordingService = recordingService;
+    this.uploadDir = Paths.get(uploadDir).toAbsolutePath().normalize();
+    this.maxSize = maxSize.toBytes();
+    this.defaultChunkSize = defaultChunkSize.toBytes();
+    this.maxChunkSize = maxChunkSize.toBytes();
+    this.sessionTtl = sessionTtl;
+    Files.createDirectories(this.uploadDir);
+    // 세션은 메모리에만 있으므로 재시작 전에 남은 청크 임시 파일은 쓸모없음
+    try (var leftovers = Files.newDirectoryStream(this.uploadDir, "*.chunk")) {
+      for (Path p : leftovers) deleteQuietly(p);
+    }
+  }
+
+  public RecordingUploadStatus create(RecordingUploadRequest req, Long userId) {
+    if (userId == null) throw new IllegalArgumentException("userId is required");
+    long total = req.totalSize();
+    if (total <= 0 || total > maxSize) {
+      throw new IllegalArgumentException("totalSize must be between 1 and " + maxSize + " bytes");
+    }
+
+    long chunkSize = req.chunkSize() != null ? req.chunkSize() : defaultChunkSize;
+    chunkSize = Math.max(MIN_CHUNK_SIZE, Math.min(maxChunkSize, chunkSize));
+    int chunkCount = Math.toIntExact((total + chunkSize - 1) / chunkSize);
+
+    String uploadId = UUID.randomUUID().toString().replace("-", "");
+    Path part = uploadDir.resolve(uploadId + ".part");
+    try (RandomAccessFile raf = new RandomAccessFile(part.toFile(), "rw")) {
+      // 전체 크기로 미리 할당해두고 각 청크는 자기 위치에 바로 씀
+      raf.setLength(total);
+    } catch (IOException e) {
+      throw new IllegalStateException("failed to allocate upload", e);
+    }
+
+    UploadSession session = new UploadSession(uploadId, userId, req.fileName(), req.contentType(),
+        req.durationSec(), total, chunkSize, chunkCount, part);
+    sessions.put(uploadId, session);
+    return session.status();
+  }
+
+  /**
+   * Receives one chunk into its own temp file and checks its length and SHA-256 there; only a
+   * verified chunk is copied into the .part file at its offset, so a bad retry of an already
+   * accepted chunk never touches the good bytes. Otherwise the client just retries that chunk.
+   */
+  public RecordingUploadStatus putChunk(String uploadId, int index, String sha256Hex, InputStream body, Long userId)
+      throws IOException {
+    UploadSession session = getOwned(uploadId, userId);
+    if (index < 0 || index >= session.chunkCount) {
+      throw new IllegalArgumentException("chunk index out of range: " + index);
+    }
+    if (sha256Hex == null || sha256Hex.isBlank()) {
+      throw new IllegalArgumentException("X-Chunk-Sha256 header is required");
+    }
+    byte[] expectedDigest;
+    try {
+      expectedDigest = HexFormat.of().parseHex(sha256Hex.trim());
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("X-Chunk-Sha256 must be a hex SHA-256 digest");
+    }
+
+    long offset = index * session.chunkSize;
+    long expectedLength = Math.min(session.chunkSize, session.totalSize - offset);
+
+    // 같은 청크의 재전송이 동시에 와도 서로 다른 임시 파일
+    Path chunkFile = Files.createTempFile(uploadDir, uploadId + "." + index + ".", ".chunk");
+    try {
+      MessageDigest digest = sha256();
+      byte[] buffer = new byte[IO_BUFFER_SIZE];
+      long written = 0;
+      try (OutputStream out = Files.newOutputStream(chunkFile, StandardOpenOption.WRITE)) {
+        int n;
+        while ((n = body.read(buffer)) != -1) {
+          if (written + n > expectedLength) {
+            throw new IllegalArgumentException("chunk " + index + " is larger than " + expectedLength + " bytes");
+          }
+          digest.update(buffer, 0, n);
+          out.write(buffer, 0, n);
+          written += n;
+        }
+      }
+
+      if (written != expectedLength) {
+        throw new IllegalArgumentException("chunk " + index + " must be " + expectedLength + " bytes, got " + written);
+      }
+      if (!MessageDigest.isEqual(expectedDigest, digest.digest())) {
+        throw new IllegalArgumentException("checksum mismatch for chunk " + index);
+      }
+
+      // 검증이 끝난 청크만 .part 에 복사. 복사 중에는 미수신 상태로 두고 complete 와 배타적으로
+      session.beginWrite(index);
+      boolean copied = false;
+      try (FileChannel src = FileChannel.open(chunkFile, StandardOpenOption.READ);
+           FileChannel dst = FileChannel.open(session.partFile, StandardOpenOption.WRITE)) {
+        long pos = 0;
+        while (pos < expectedLength) {
+          pos += dst.transferFrom(src, offset + pos, expectedLength - pos);
+        }
+        copied = true;
+      } finally {
+        session.endWrite(index, copied);
+      }
+    } finally {
+      deleteQuietly(chunkFile);
+    }
+    return session.status();
+  }
+
+  public RecordingUploadStatus status(String uploadId, Long userId) {
+    return getOwned(uploadId, userId).status();
+  }
+
+  public RecordingDto complete(String uploadId, Long userId) {
+    UploadSession session = getOwned(uploadId, userId);
+    // 쓰는 중인 청크가 없고 모두 받았을 때만; 이후 putChunk 는 거절됨
+    session.beginComplete();
+    // 동시에 complete 가 두 번 들어와도 한 번만 처리
+    if (!sessions.remove(uploadId, session)) {
+      throw new IllegalArgumentException("upload not found");
+    }
+
+    RecordingStorage.StoredObject stored;
+    try {
+      stored = storage.store(session.partFile);
+    } catch (IOException e) {
+      deleteQuietly(session.partFile);
+      throw new IllegalStateException("failed to store upload", e);
+    }
+    return recordingService.createFromStored(stored, session.fileName, session.contentType,
+        session.durationSec, session.userId);
+  }
+
+  public void abort(String uploadId, Long userId) {
+    UploadSession session = getOwned(uploadId, userId);
+    if (sessions.remove(uploadId, session)) {
+      deleteQuietly(session.partFile);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "PT10M")
+  void expireIdleSessions() {
+    Instant cutoff = Instant.now().minus(sessionTtl);
+    sessions.values().removeIf(s -> {
+      if (s.lastTouched().isAfter(cutoff)) return false;
+      deleteQuietly(s.partFile);
+      return true;
+    });
+  }
+
+  private UploadSession getOwned(String uploadId, Long userId) {
+    UploadSession session = sessions.get(uploadId);
+    if (session == null || !session.userId.equals(userId)) {
+      throw new IllegalArgumentException("upload not found");
+    }
+    return session;
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void deleteQuietly(Path path) {
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException e) {
+      log.warn("failed to delete upload file {}", path, e);
+    }
+  }
+
+  private static final class UploadSession {
+    final String uploadId;
+    final Long userId;
+    final String fileName;
+    final String contentType;
+    final Double durationSec;
+    final long totalSize;
+    final long chunkSize;
+    final int chunkCount;
+    final Path partFile;
+
+    private final BitSet received;
+    private volatile Instant lastTouched = Instant.now();
+
+    UploadSession(String uploadId, Long userId, String fileName, String contentType, Double durationSec,
+                  long totalSize, long chunkSize, int chunkCount, Path partFile) {
+      this.uploadId = uploadId;
+      this.userId = userId;
+      this.fileName = fileName;
+      this.contentType = contentType;
+      this.durationSec = durationSec;
+      this.totalSize = totalSize;
+      this.chunkSize = chunkSize;
+      this.chunkCount = chunkCount;
+      this.partFile = partFile;
+      this.received = new BitSet(chunkCount);
+    }
+
+    private int writers;
+    private boolean completing;
+
+    synchronized void beginWrite(int index) {
+      if (completing) throw new IllegalArgumentException("upload is already being completed");
+      writers++;
+      received.clear(index);
+      lastTouched = Instant.now();
+    }
+
+    synchronized void endWrite(int index, boolean ok) {
+      writers--;
+      if (ok) received.set(index);
+      lastTouched = Instant.now();
+    }
+
+    synchronized void beginComplete() {
+      if (completing) throw new IllegalArgumentException("upload is already being completed");
+      if (writers > 0) throw new IllegalArgumentException("chunks are still being written");
+      if (received.cardinality() != chunkCount) throw new IllegalArgumentException("upload is missing chunks");
+      completing = true;
+    }
+
+    Instant lastTouched() {
+      return lastTouched;
+    }
+
+    synchronized RecordingUploadStatus status() {
+      lastTouched = Instant.now();
+      List<RecordingUploadStatus.ChunkRange> ranges = new ArrayList<>();
+      int start = received.nextSetBit(0);
+      while (start >= 0) {
+        int end = received.nextClearBit(start);
+        ranges.add(new RecordingUploadStatus.ChunkRange(start, end - 1));
+        start = received.nextSetBit(end);
+      }
+      return new RecordingUploadStatus(uploadId, totalSize, chunkSize, chunkCount, ranges,
+          received.cardinality() == chunkCount);
+    }
+  }
+}
@@ -0,0 +1,226 @@
+package com.keydrop.server.service;
+
+import com.keydrop.server.audio.Mp3SeekTable;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * {@link Mp3SeekTable}s for the MP3 files in app.media.dir.
+ *
+ * Each table is stored next to its file as a hidden sidecar, {dir}/.{name}.seek, whose header
+ * records the size and mtime of the file it was built from; a replaced file simply gets a new
+ * table. Loaded tables stay in memory (a few KB per track). Missing sidecars are built at startup
+ * and whenever the catalog changes on a single background thread, and on demand when a seek hits
+ * a file that has none yet. The same scan drops tables and sidecars of files that are gone.
+ *
+ * Derived files (previews/, thumbs/) are not indexed: they are regenerated and replaced on their own
+ * schedule and are never seeked into.
+ */
+@Service
+public class SeekIndexService {
+
+  private static final Logger log = LoggerFactory.getLogger(SeekIndexService.class);
+  private static final int MAGIC = 0x4B44534B; // "KDSK"
+  private static final int FORMAT_VERSION = 1;
+
+  private record Entry(long size, long lastModified, Mp3SeekTable table) {}
+
+  private final MediaFileService media;
+  private final int framesPerEntry;
+  private final ThreadPoolExecutor scanner;
+  private final Map<Path, Entry> tables = new ConcurrentHashMap<>();
+
+  public SeekIndexService(
+      MediaFileService media,
+      @Value("${app.media.seek.frames-per-entry:8}") int framesPerEntry
+  ) {
+    this.media = media;
+    this.framesPerEntry = Math.max(1, framesPerEntry);
+    // 스캔 요청이 몰려도 대기 작업은 최신 1개만 유지
+    this.scanner = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(1),
+        r -> {
+          Thread t = new Thread(r, "seek-index-scan");
+          t.setDaemon(true);
+          t.setPriority(Thread.NORM_PRIORITY - 1);
+          return t;
+        },
+        new ThreadPoolExecutor.DiscardOldestPolicy());
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onReady() {
+    scanner.execute(this::indexLibrary);
+  }
+
+  @EventListener
+  public void onCatalogUpdated(MusicCatalogUpdatedEvent event) {
+    scanner.execute(this::indexLibrary);
+  }
+
+  /** Seek table of an MP3 file, built (and its sidecar written) if needed; empty for other files. */
+  public Optional<Mp3SeekTable> table(MediaFileService.MediaFile file) throws IOException {
+    if (!isMp3(file.path()) || isDerived(file.path())) return Optional.empty();
+    Entry e = cached(file);
+    if (e != null) return Optional.ofNullable(e.table());
+    long mtime = file.lastModified().toEpochMilli();
+
+    Path sidecar = sidecarOf(file.path());
+    Mp3SeekTable table = readSidecar(sidecar, file.size(), mtime);
+    if (table == null) {
+      try (InputStream in = new BufferedInputStream(Files.newInputStream(file.path()), 64 * 1024)) {
+        table = Mp3SeekTable.build(in, framesPerEntry);
+      }
+      if (table == null) {
+        log.warn("no MPEG audio frames in {}", file.path());
+      } else {
+        writeSidecar(sidecar, file.size(), mtime, table);
+      }
+    }
+    // 프레임이 없는 파일도 기억해서 매번 다시 스캔하지 않음
+    tables.put(file.path(), new Entry(file.size(), mtime, table));
+    return Optional.ofNullable(table);
+  }
+
+  private void indexLibrary() {
+    long started = System.nanoTime();
+    List<Path> files;
+    List<Path> sidecars;
+    try (Stream<Path> walk = Files.walk(media.mediaDir())) {
+      List<Path> all = walk.filter(Files::isRegularFile).toList();
+      files = all.stream().filter(p -> isMp3(p) && !isDerived(p)).toList();
+      sidecars = all.stream().filter(SeekIndexService::isSidecar).toList();
+    } catch (IOException | UncheckedIOException e) {
+      log.warn("cannot list {}", media.mediaDir(), e);
+      return;
+    }
+    removeStale(sidecars);
+    int built = 0;
+    for (Path p : files) {
+      if (Thread.currentThread().isInterrupted()) return;
+      try {
+        MediaFileService.MediaFile file = media.find(media.mediaDir().relativize(p).toString()).orElse(null);
+        if (file == null || cached(file) != null) continue;
+        table(file);
+        built++;
+      } catch (IOException | RuntimeException e) {
+        log.warn("cannot index {}", p, e);
+      }
+    }
+    if (built > 0) {
+      log.info("seek tables: {} files loaded or built ({} ms)", built, (System.nanoTime() - started) / 1_000_000);
+    }
+  }
+
+  // 지워진 파일의 메모리 테이블과, 원본이 없거나 색인 대상이 아닌 sidecar 정리
+  private void removeStale(List<Path> sidecars) {
+    tables.keySet().removeIf(p -> !Files.isRegularFile(p));
+    for (Path sidecar : sidecars) {
+      Path file = fileOf(sidecar);
+      if (isDerived(file) || !Files.isRegularFile(file)) {
+        try {
+          Files.deleteIfExists(sidecar);
+        } catch (IOException e) {
+          log.warn("cannot delete stale seek table {}", sidecar, e);
+        }
+      }
+    }
+  }
+
+  private Entry cached(MediaFileService.MediaFile file) {
+    Entry e = tables.get(file.path());
+    boolean fresh = e != null && e.size() == file.size() && e.lastModified() == file.lastModified().toEpochMilli();
+    return fresh ? e : null;
+  }
+
+  private static Mp3SeekTable readSidecar(Path sidecar, long size, long mtime) {
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(sidecar)))) {
+      if (in.readInt() != MAGIC || in.readUnsignedByte() != FORMAT_VERSION) return null;
+      if (in.readLong() != size || in.readLong() != mtime) return null;
+      return Mp3SeekTable.readFrom(in);
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException e) {
+      log.warn("ignoring unreadable seek table {}", sidecar, e);
+      return null;
+    }
+  }
+
+  private static void writeSidecar(Path sidecar, long size, long mtime, Mp3SeekTable table) {
+    try {
+      Path tmp = Files.createTempFile(sidecar.getParent(), ".seek-", ".tmp");
+      try {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+          out.writeInt(MAGIC);
+          out.writeByte(FORMAT_VERSION);
+          out.writeLong(size);
+          out.writeLong(mtime);
+          table.writeTo(out);
+        }
+        Files.move(tmp, sidecar, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } finally {
+        Files.deleteIfExists(tmp);
+      }
+    } catch (IOException e) {
+      // 읽기 전용 디렉터리여도 메모리 테이블로 동작
+      log.warn("cannot write seek table {}", sidecar, e);
+    }
+  }
+
+  private static Path sidecarOf(Path file) {
+    return file.resolveSibling("." + file.getFileName() + ".seek");
+  }
+
+  private static Path fileOf(Path sidecar) {
+    String name = sidecar.getFileName().toString();
+    return sidecar.resolveSibling(name.substring(1, name.length() - ".seek".length()));
+  }
+
+  private static boolean isSidecar(Path file) {
+    String name = file.getFileName().toString();
+    return name.startsWith(".") && name.toLowerCase(Locale.ROOT).endsWith(".mp3.seek");
+  }
+
+  private boolean isDerived(Path file) {
+    Path rel = media.mediaDir().relativize(file);
+    if (rel.getNameCount() < 2) return false;
+    String top = rel.getName(0).toString();
+    return top.equals(PreviewClipService.PREVIEWS_DIR) || top.equals(CoverArtService.THUMBS_DIR);
+  }
+
+  private static boolean isMp3(Path file) {
+    String name = file.getFileName().toString();
+    return !name.startsWith(".") && name.toLowerCase(Locale.ROOT).endsWith(".mp3");
+  }
+
+  @PreDestroy
+  void shutdown() {
+    scanner.shutdownNow();
+  }
+}
@@ -0,0 +1,7 @@
+package com.keydrop.server.service;
+
+/**
+ * Published when a user's profile fields (e-mail, nickname, ...) are written, so that
+ * {@link UserProfileService} drops its cached copy once the transaction has committed.
+ */
+public record UserProfileChangedEvent(Long userId) {}
@@ -0,0 +1,75 @@
+package com.keydrop.server.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.keydrop.server.domain.User;
+import com.keydrop.server.dto.UserMeDto;
+import com.keydrop.server.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+
+/**
+ * Profile of the signed-in user (/api/users/me) without a database round trip per request.
+ *
+ * Entries are keyed by userId and dropped when {@link AuthService} publishes a
+ * {@link UserProfileChangedEvent} (after the transaction commits, so a concurrent read cannot put
+ * the old row back); the TTL only covers changes made outside the application.
+ */
+@Service
+public class UserProfileService {
+
+  public record Profile(UserMeDto dto, String etag) {}
+
+  private final UserRepository userRepository;
+  private final Cache<Long, Profile> cache;
+
+  public UserProfileService(
+      UserRepository userRepository,
+      @Value("${app.users.profile-cache.max-size:10000}") long maxSize,
+      @Value("${app.users.profile-cache.ttl:10m}") Duration ttl,
+      MeterRegistry meterRegistry
+  ) {
+    this.userRepository = userRepository;
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(ttl)
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "users.profile");
+  }
+
+  public Profile profile(long userId) {
+    // 없는 유저는 캐시하지 않음 (예외가 그대로 전파됨)
+    return cache.get(userId, id -> {
+      User user = userRepository.findById(id)
+          .orElseThrow(() -> new IllegalArgumentException("유저를 찾을 수 없습니다."));
+      UserMeDto dto = new UserMeDto(user.getEmail(), user.getNickname());
+      return new Profile(dto, etag(id, dto));
+    });
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onProfileChanged(UserProfileChangedEvent event) {
+    cache.invalidate(event.userId());
+  }
+
+  private static String etag(long userId, UserMeDto dto) {
+    try {
+      MessageDigest md = MessageDigest.getInstance("SHA-256");
+      md.update((userId + "\n" + dto.getEmail() + "\n" + dto.getNickname()).getBytes(StandardCharsets.UTF_8));
+      return "\"" + HexFormat.of().formatHex(md.digest(), 0, 16) + "\"";
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,197 @@
+package com.keydrop.server.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Stores recordings as plain files under app.recordings.dir, addressed by SHA-256.
+ *
+ * Layout: {dir}/{k[0..2]}/{k[2..4]}/{key}, so a single directory never grows too large and the
+ * first directory level doubles as the garbage-collection shard. Uploads are streamed into
+ * {dir}/tmp while being hashed and are then either moved into place or, if the content already
+ * exists, dropped in favour of the existing blob.
+ *
+ * Storing an existing blob refreshes its mtime under the same per-key lock the collector uses,
+ * so a blob that is being re-referenced is never deleted underneath a new recording.
+ */
+@Component
+public class LocalRecordingStorage implements RecordingStorage {
+
+  // transferTo 한 번에 넘기는 최대 크기
+  private static final long TRANSFER_CHUNK = 8L * 1024 * 1024;
+  private static final int IO_BUFFER_SIZE = 64 * 1024;
+  private static final Pattern KEY_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+  private final Path root;
+  private final Path tmpDir;
+  private final Object[] locks = new Object[64];
+
+  public LocalRecordingStorage(@Value("${app.recordings.dir}") String recordingsDir) throws IOException {
+    this.root = Paths.get(recordingsDir).toAbsolutePath().normalize();
+    this.tmpDir = root.resolve("tmp");
+    Files.createDirectories(tmpDir);
+    for (int i = 0; i < locks.length; i++) locks[i] = new Object();
+  }
+
+  @Override
+  public StoredObject store(InputStream in) throws IOException {
+    Path tmp = Files.createTempFile(tmpDir, "upload-", ".part");
+    try {
+      MessageDigest sha256 = sha256();
+      long size = 0;
+      byte[] buf = new byte[IO_BUFFER_SIZE];
+      try (FileChannel dst = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+        int n;
+        while ((n = in.read(buf)) != -1) {
+          sha256.update(buf, 0, n);
+          ByteBuffer bb = ByteBuffer.wrap(buf, 0, n);
+          while (bb.hasRemaining()) dst.write(bb);
+          size += n;
+        }
+        dst.force(false);
+      }
+      return commit(tmp, HexFormat.of().formatHex(sha256.digest()), size);
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+
+  @Override
+  public StoredObject store(Path source) throws IOException {
+    // 청크 업로드로 조립된 파일: 해시만 한 번 읽어서 계산하고 rename 으로 이동
+    MessageDigest sha256 = sha256();
+    long size = 0;
+    ByteBuffer buf = ByteBuffer.allocateDirect(IO_BUFFER_SIZE);
+    try (FileChannel ch = FileChannel.open(source, StandardOpenOption.READ)) {
+      while (ch.read(buf) != -1) {
+        buf.flip();
+        size += buf.remaining();
+        sha256.update(buf);
+        buf.clear();
+      }
+    }
+    try {
+      return commit(source, HexFormat.of().formatHex(sha256.digest()), size);
+    } finally {
+      Files.deleteIfExists(source);
+    }
+  }
+
+  /**
+   * Moves a fully written, hashed file into its content address, or reuses the existing blob.
+   */
+  private StoredObject commit(Path file, String key, long size) throws IOException {
+    Path target = resolve(key);
+    synchronized (lockFor(key)) {
+      if (Files.isRegularFile(target)) {
+        Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+        return new StoredObject(key, size, true);
+      }
+      Files.createDirectories(target.getParent());
+      try {
+        Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Path staged = Files.createTempFile(target.getParent(), key, ".part");
+        Files.copy(file, staged, StandardCopyOption.REPLACE_EXISTING);
+        Files.move(staged, target, StandardCopyOption.ATOMIC_MOVE);
+      }
+    }
+    return new StoredObject(key, size, false);
+  }
+
+  @Override
+  public InputStream open(String key) throws IOException {
+    return Files.newInputStream(resolve(key));
+  }
+
+  @Override
+  public void transferTo(String key, long offset, long length, WritableByteChannel target) throws IOException {
+    try (FileChannel src = FileChannel.open(resolve(key), StandardOpenOption.READ)) {
+      long pos = offset;
+      long end = offset + length;
+      while (pos < end) {
+        long n = src.transferTo(pos, Math.min(TRANSFER_CHUNK, end - pos), target);
+        if (n <= 0) {
+          throw new IOException("Unexpected end of recording blob " + key);
+        }
+        pos += n;
+      }
+    }
+  }
+
+  @Override
+  public boolean exists(String key) {
+    return Files.isRegularFile(resolve(key));
+  }
+
+  @Override
+  public List<BlobInfo> listShard(int shard) throws IOException {
+    Path dir = root.resolve(String.format("%02x", shard));
+    List<BlobInfo> blobs = new ArrayList<>();
+    if (!Files.isDirectory(dir)) return blobs;
+
+    try (Stream<Path> files = Files.walk(dir, 2)) {
+      for (Path p : (Iterable<Path>) files::iterator) {
+        String name = p.getFileName().toString();
+        if (!KEY_PATTERN.matcher(name).matches()) continue;
+        BasicFileAttributes attrs = Files.readAttributes(p, BasicFileAttributes.class);
+        if (attrs.isRegularFile()) {
+          blobs.add(new BlobInfo(name, attrs.size(), attrs.lastModifiedTime().toInstant()));
+        }
+      }
+    }
+    return blobs;
+  }
+
+  @Override
+  public boolean deleteIfUnchangedSince(String key, Instant cutoff) throws IOException {
+    Path target = resolve(key);
+    synchronized (lockFor(key)) {
+      if (!Files.isRegularFile(target)) return false;
+      if (Files.getLastModifiedTime(target).toInstant().isAfter(cutoff)) return false;
+      Files.delete(target);
+    }
+    return true;
+  }
+
+  private Object lockFor(String key) {
+    return locks[Math.floorMod(key.hashCode(), locks.length)];
+  }
+
+  Path resolve(String key) {
+    if (key == null || !KEY_PATTERN.matcher(key).matches()) {
+      throw new IllegalArgumentException("Invalid storage key");
+    }
+    return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package com.keydrop.server.storage;
+
+import com.keydrop.server.repository.RecordingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Incremental mark-and-sweep for {@link RecordingStorage}.
+ *
+ * Each run visits the next few shards only, asks Postgres which of their keys are still referenced
+ * (plain indexed selects in small batches, no table locks) and deletes the rest. Blobs younger than
+ * the grace period are skipped so that a just-stored upload whose row is not committed yet survives.
+ */
+@Component
+public class RecordingBlobGarbageCollector {
+
+  private static final Logger log = LoggerFactory.getLogger(RecordingBlobGarbageCollector.class);
+  private static final int QUERY_BATCH = 500;
+
+  private final RecordingStorage storage;
+  private final RecordingRepository repo;
+  private final Duration grace;
+  private final int shardsPerRun;
+  private final AtomicInteger nextShard = new AtomicInteger();
+
+  public RecordingBlobGarbageCollector(
+      RecordingStorage storage,
+      RecordingRepository repo,
+      @Value("${app.recordings.gc.grace:PT6H}") Duration grace,
+      @Value("${app.recordings.gc.shards-per-run:4}") int shardsPerRun
+  ) {
+    this.storage = storage;
+    this.repo = repo;
+    this.grace = grace;
+    this.shardsPerRun = shardsPerRun;
+  }
+
+  @Scheduled(initialDelayString = "PT5M", fixedDelayString = "${app.recordings.gc.interval:PT10M}")
+  void collect() {
+    long reclaimed = 0;
+    for (int i = 0; i < shardsPerRun; i++) {
+      int shard = Math.floorMod(nextShard.getAndIncrement(), RecordingStorage.SHARD_COUNT);
+      try {
+        reclaimed += collectShard(shard);
+      } catch (IOException | RuntimeException e) {
+        log.warn("recording blob GC failed for shard {}", shard, e);
+      }
+    }
+    if (reclaimed > 0) {
+      log.info("recording blob GC reclaimed {} bytes", reclaimed);
+    }
+  }
+
+  long collectShard(int shard) throws IOException {
+    Instant cutoff = Instant.now().minus(grace);
+    List<RecordingStorage.BlobInfo> candidates = storage.listShard(shard).stream()
+        .filter(b -> b.lastModified().isBefore(cutoff))
+        .toList();
+
+    long reclaimed = 0;
+    for (int from = 0; from < candidates.size(); from += QUERY_BATCH) {
+      List<RecordingStorage.BlobInfo> batch = candidates.subList(from, Math.min(candidates.size(), from + QUERY_BATCH));
+      Set<String> referenced = repo.findReferencedStorageKeys(batch.stream().map(RecordingStorage.BlobInfo::key).toList());
+      for (RecordingStorage.BlobInfo blob : batch) {
+        if (referenced.contains(blob.key())) continue;
+        // 조회 이후에 같은 내용이 다시 저장됐다면 mtime 이 갱신되어 삭제되지 않음
+        if (storage.deleteIfUnchangedSince(blob.key(), cutoff)) {
+          reclaimed += blob.sizeBytes();
+        }
+      }
+    }
+    return reclaimed;
+  }
+}
@@ -0,0 +1,65 @@
+package com.keydrop.server.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Content-addressed blob store for recording payloads.
+ *
+ * The key of a blob is the hex SHA-256 of its bytes, so saving the same audio twice stores it once.
+ * The recordings table only keeps metadata plus the key; a blob is referenced by every row whose
+ * storage_key points at it and is reclaimed by {@link RecordingBlobGarbageCollector} once no row does.
+ */
+public interface RecordingStorage {
+
+  int SHARD_COUNT = 256;
+
+  /**
+   * Streams the given input into the store, hashing it on the way in. Implementations must not
+   * buffer the whole payload in memory.
+   */
+  StoredObject store(InputStream in) throws IOException;
+
+  /**
+   * Stores an already assembled local file. The source may be moved instead of copied,
+   * so callers must not use it afterwards.
+   */
+  default StoredObject store(Path source) throws IOException {
+    try (InputStream in = Files.newInputStream(source)) {
+      return store(in);
+    } finally {
+      Files.deleteIfExists(source);
+    }
+  }
+
+  InputStream open(String key) throws IOException;
+
+  /**
+   * Copies {@code length} bytes starting at {@code offset} into the target channel,
+   * using zero-copy transfer where the backing store supports it.
+   */
+  void transferTo(String key, long offset, long length, WritableByteChannel target) throws IOException;
+
+  boolean exists(String key);
+
+  /** Blobs in one shard (0..{@link #SHARD_COUNT}-1), for incremental garbage collection. */
+  List<BlobInfo> listShard(int shard) throws IOException;
+
+  /**
+   * Deletes the blob unless it was stored or re-stored (deduplicated) after {@code cutoff}.
+   * Returns true if the blob was removed.
+   */
+  boolean deleteIfUnchangedSince(String key, Instant cutoff) throws IOException;
+
+  /**
+   * @param deduplicated true if identical content was already stored and reused
+   */
+  record StoredObject(String key, long sizeBytes, boolean deduplicated) {}
+
+  record BlobInfo(String key, long sizeBytes, Instant lastModified) {}
+}
@@ -0,0 +1,103 @@
+package com.keydrop.server.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Read-only memory mappings of hot files, LRU-evicted by total mapped bytes.
+ *
+ * An entry is only valid for the (size, mtime) it was mapped at; a changed file is remapped on the
+ * next request. Evicted mappings are released when their buffers are garbage collected, so the
+ * mapped total can briefly exceed the limit after an eviction.
+ *
+ * Metrics: {@code <name>.requests{result=hit|miss|bypass}}, {@code <name>.evictions},
+ * {@code <name>.bytes}, {@code <name>.entries}.
+ */
+public class MappedFileCache {
+
+  private record Entry(MappedByteBuffer buffer, long size, long lastModified) {}
+
+  private final long maxBytes;
+  private final long maxFileBytes;
+  private final LinkedHashMap<Path, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+  private long totalBytes;
+
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter bypasses;
+  private final Counter evictions;
+
+  public MappedFileCache(String name, long maxBytes, long maxFileBytes, MeterRegistry registry) {
+    this.maxBytes = maxBytes;
+    this.maxFileBytes = Math.min(maxFileBytes, maxBytes);
+    this.hits = Counter.builder(name + ".requests").tag("result", "hit").register(registry);
+    this.misses = Counter.builder(name + ".requests").tag("result", "miss").register(registry);
+    this.bypasses = Counter.builder(name + ".requests").tag("result", "bypass").register(registry);
+    this.evictions = Counter.builder(name + ".evictions").register(registry);
+    Gauge.builder(name + ".bytes", this, MappedFileCache::totalBytes).baseUnit("bytes").register(registry);
+    Gauge.builder(name + ".entries", this, MappedFileCache::size).register(registry);
+  }
+
+  /**
+   * Returns a read-only view of the whole file, mapping it on a miss, or null if the file is
+   * too large to cache (the caller then reads it from disk).
+   */
+  public MappedByteBuffer get(Path file, long size, long lastModified) throws IOException {
+    if (size <= 0 || size > maxFileBytes) {
+      bypasses.increment();
+      return null;
+    }
+    synchronized (this) {
+      Entry e = entries.get(file);
+      if (e != null && e.size() == size && e.lastModified() == lastModified) {
+        hits.increment();
+        return (MappedByteBuffer) e.buffer().duplicate();
+      }
+    }
+
+    // 매핑은 락 밖에서 (같은 파일이 동시에 두 번 매핑될 수 있지만 결과는 같음)
+    MappedByteBuffer mapped;
+    try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+      mapped = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+    misses.increment();
+
+    synchronized (this) {
+      Entry old = entries.put(file, new Entry(mapped, size, lastModified));
+      if (old != null) totalBytes -= old.size();
+      totalBytes += size;
+      Iterator<Map.Entry<Path, Entry>> it = entries.entrySet().iterator();
+      while (totalBytes > maxBytes && it.hasNext()) {
+        Map.Entry<Path, Entry> eldest = it.next();
+        if (eldest.getKey().equals(file)) continue;
+        totalBytes -= eldest.getValue().size();
+        it.remove();
+        evictions.increment();
+      }
+    }
+    return (MappedByteBuffer) mapped.duplicate();
+  }
+
+  public synchronized void invalidate(Path file) {
+    Entry old = entries.remove(file);
+    if (old != null) totalBytes -= old.size();
+  }
+
+  synchronized long totalBytes() {
+    return totalBytes;
+  }
+
+  synchronized int size() {
+    return entries.size();
+  }
+}
@@ -0,0 +1,200 @@
+package com.keydrop.server.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Writes a byte representation to the servlet response with conditional GET
+ * (ETag / If-None-Match, Last-Modified / If-Modified-Since) and single-range
+ * (Range / If-Range / 206) support.
+ *
+ * The body is produced by a {@link RangeWriter} so callers can stream straight from
+ * a file channel or the database without ever materializing the payload.
+ * Multi-range and malformed Range headers are answered with the full representation (RFC 9110
+ * allows ignoring Range); 416 is only sent for a well-formed range outside the representation.
+ */
+public final class RangeResponder {
+
+  private RangeResponder() {
+  }
+
+  @FunctionalInterface
+  public interface RangeWriter {
+    void write(long offset, long length, OutputStream out) throws IOException;
+  }
+
+  /**
+   * Range to answer with when the request has no Range header of its own. Only called when it will
+   * actually be served (not for a 304, not when the client sent Range), so it may do the work of
+   * finding the range and set response headers that describe it.
+   */
+  @FunctionalInterface
+  public interface ImpliedRange {
+    HttpRange resolve(HttpServletResponse res) throws IOException;
+  }
+
+  public record Representation(
+      long length,
+      MediaType contentType,
+      String etag,
+      Instant lastModified,
+      CacheControl cacheControl,
+      String contentDisposition
+  ) {}
+
+  public static void respond(HttpServletRequest req, HttpServletResponse res,
+                             Representation rep, RangeWriter writer) throws IOException {
+    respond(req, res, rep, writer, (ImpliedRange) null);
+  }
+
+  /**
+   * Like {@link #respond(HttpServletRequest, HttpServletResponse, Representation, RangeWriter)}, but
+   * answers with the range from {@code impliedRange} (as a 206) when the request carries no Range
+   * header of its own.
+   */
+  public static void respond(HttpServletRequest req, HttpServletResponse res,
+                             Representation rep, RangeWriter writer, ImpliedRange impliedRange) throws IOException {
+    writeValidators(res, rep);
+    res.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+    if (isNotModified(req, rep)) {
+      res.setStatus(HttpStatus.NOT_MODIFIED.value());
+      return;
+    }
+
+    long length = rep.length();
+    long start = 0;
+    long end = length - 1;
+    boolean partial = false;
+
+    String rangeHeader = req.getHeader(HttpHeaders.RANGE);
+    if (rangeHeader != null && length > 0 && ifRangeMatches(req, rep)) {
+      List<HttpRange> ranges;
+      try {
+        ranges = HttpRange.parseRanges(rangeHeader);
+      } catch (IllegalArgumentException e) {
+        // 문법이 틀린 Range 는 없는 것으로 보고 전체 응답 (RFC 9110 14.2), 416 은 범위를 벗어난 경우만
+        ranges = List.of();
+      }
+      if (ranges.size() == 1) {
+        try {
+          start = ranges.get(0).getRangeStart(length);
+          end = ranges.get(0).getRangeEnd(length);
+        } catch (IllegalArgumentException e) {
+          start = length; // 시작이 길이 이상
+        }
+        if (start >= length || start > end) {
+          res.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+          res.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+          return;
+        }
+        partial = true;
+      }
+    } else if (rangeHeader == null && impliedRange != null && length > 0) {
+      HttpRange range = impliedRange.resolve(res);
+      if (range != null) {
+        start = range.getRangeStart(length);
+        end = range.getRangeEnd(length);
+        partial = start > 0 || end < length - 1;
+      }
+    }
+
+    long count = length == 0 ? 0 : end - start + 1;
+    if (rep.contentType() != null) {
+      res.setContentType(rep.contentType().toString());
+    }
+    if (rep.contentDisposition() != null) {
+      res.setHeader(HttpHeaders.CONTENT_DISPOSITION, rep.contentDisposition());
+    }
+    res.setContentLengthLong(count);
+    if (partial) {
+      res.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+      res.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+    } else {
+      res.setStatus(HttpStatus.OK.value());
+    }
+
+    if (count == 0 || "HEAD".equals(req.getMethod())) {
+      return;
+    }
+    OutputStream out = res.getOutputStream();
+    writer.write(start, count, out);
+    out.flush();
+  }
+
+  private static void writeValidators(HttpServletResponse res, Representation rep) {
+    if (rep.etag() != null) {
+      res.setHeader(HttpHeaders.ETAG, rep.etag());
+    }
+    if (rep.lastModified() != null) {
+      res.setDateHeader(HttpHeaders.LAST_MODIFIED, rep.lastModified().toEpochMilli());
+    }
+    if (rep.cacheControl() != null && rep.cacheControl().getHeaderValue() != null) {
+      res.setHeader(HttpHeaders.CACHE_CONTROL, rep.cacheControl().getHeaderValue());
+    }
+  }
+
+  private static boolean isNotModified(HttpServletRequest req, Representation rep) {
+    String ifNoneMatch = req.getHeader(HttpHeaders.IF_NONE_MATCH);
+    if (ifNoneMatch != null) {
+      // If-None-Match 가 있으면 If-Modified-Since 는 무시 (RFC 9110 13.2.2)
+      return rep.etag() != null && etagListMatches(ifNoneMatch, rep.etag());
+    }
+    if (rep.lastModified() != null) {
+      long ims = dateHeader(req, HttpHeaders.IF_MODIFIED_SINCE);
+      return ims >= 0 && rep.lastModified().getEpochSecond() <= ims / 1000;
+    }
+    return false;
+  }
+
+  private static boolean ifRangeMatches(HttpServletRequest req, Representation rep) {
+    String ifRange = req.getHeader(HttpHeaders.IF_RANGE);
+    if (ifRange == null) {
+      return true;
+    }
+    String value = ifRange.trim();
+    if (value.startsWith("\"") || value.startsWith("W/")) {
+      // If-Range 는 strong comparison 만 허용
+      return rep.etag() != null && !value.startsWith("W/") && value.equals(rep.etag());
+    }
+    long since = dateHeader(req, HttpHeaders.IF_RANGE);
+    return since >= 0 && rep.lastModified() != null && rep.lastModified().getEpochSecond() == since / 1000;
+  }
+
+  // If-None-Match 는 weak comparison
+  private static boolean etagListMatches(String header, String etag) {
+    String bare = stripWeak(etag);
+    for (String candidate : header.split(",")) {
+      String c = candidate.trim();
+      if (c.equals("*")) {
+        return true;
+      }
+      if (stripWeak(c).equals(bare)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String stripWeak(String etag) {
+    return etag.startsWith("W/") ? etag.substring(2) : etag;
+  }
+
+  private static long dateHeader(HttpServletRequest req, String name) {
+    try {
+      return req.getDateHeader(name);
+    } catch (IllegalArgumentException e) {
+      return -1;
+    }
+  }
+}
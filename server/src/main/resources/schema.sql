@@ -0,0 +1,5 @@
+-- Runs after Hibernate (spring.jpa.defer-datasource-initialization=true).
+-- ddl-auto: update never relaxes constraints on existing columns, so those changes live here.
+
+-- Recording payloads moved to RecordingStorage; audio_data is only kept for legacy rows.
+ALTER TABLE IF EXISTS recordings ALTER COLUMN audio_data DROP NOT NULL;
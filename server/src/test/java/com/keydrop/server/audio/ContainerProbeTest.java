@@ -0,0 +1,168 @@
+package com.keydrop.server.audio;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ContainerProbeTest {
+
+  @Test
+  void wavDurationCodecAndPeaks() throws IOException {
+    int rate = 8000;
+    ByteArrayOutputStream pcm = new ByteArrayOutputStream();
+    for (int i = 0; i < rate; i++) le(pcm, i % 2 == 0 ? 16384 : -16384, 2);
+
+    PeakAccumulator peaks = new PeakAccumulator();
+    ContainerProbe.Result r = probe(wav(1, rate, 2, 16, pcm.toByteArray()), peaks);
+
+    assertThat(r.container()).isEqualTo("wav");
+    assertThat(r.codec()).isEqualTo("pcm_s16le");
+    assertThat(r.durationSec()).isCloseTo(1.0, within(1e-9));
+    assertThat(peaks.isEmpty()).isFalse();
+  }
+
+  @Test
+  void wavWithBlockAlignSmallerThanFrameIsNotRead() throws IOException {
+    // 2 채널 16비트인데 blockAlign 2: 예전에는 마지막 프레임에서 배열 범위를 넘었음
+    ContainerProbe.Result r = probe(wav(2, 44100, 2, 16, new byte[4096]), new PeakAccumulator());
+
+    assertThat(r.container()).isEqualTo("wav");
+    assertThat(r.durationSec()).isNull();
+  }
+
+  @Test
+  void wavWithHugeBlockAlignUsesBoundedBuffer() throws IOException {
+    ContainerProbe.Result r = probe(wav(1, 8000, 0xFFFF, 16, new byte[0xFFFF * 2]), new PeakAccumulator());
+
+    assertThat(r.durationSec()).isCloseTo(2 / 8000.0, within(1e-9));
+  }
+
+  @Test
+  void webmCodecAndDuration() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    write(out, 0x1A, 0x45, 0xDF, 0xA3, 0x80);                       // EBML header, empty
+    write(out, 0x18, 0x53, 0x80, 0x67, 0x01, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF); // Segment, unknown size
+    write(out, 0x15, 0x49, 0xA9, 0x66, 0x8E);                       // Info
+    write(out, 0x2A, 0xD7, 0xB1, 0x83, 0x0F, 0x42, 0x40);           // TimecodeScale 1_000_000
+    write(out, 0x44, 0x89, 0x84);                                   // Duration (float) 1500 ms
+    be(out, Float.floatToIntBits(1500f), 4);
+    write(out, 0x16, 0x54, 0xAE, 0x6B, 0x89);                       // Tracks
+    write(out, 0xAE, 0x87);                                         // TrackEntry
+    write(out, 0x86, 0x86);                                         // CodecID
+    out.write("A_OPUS".getBytes(StandardCharsets.US_ASCII));
+
+    ContainerProbe.Result r = probe(out.toByteArray(), new PeakAccumulator());
+
+    assertThat(r.container()).isEqualTo("webm");
+    assertThat(r.codec()).isEqualTo("opus");
+    assertThat(r.durationSec()).isCloseTo(1.5, within(1e-9));
+  }
+
+  @Test
+  void webmWithOversizedCodecIdDoesNotAllocateIt() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    write(out, 0x1A, 0x45, 0xDF, 0xA3, 0x80);
+    write(out, 0x18, 0x53, 0x80, 0x67, 0x01, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF);
+    // CodecID 크기 4 GB (8바이트 vint), 실제 데이터는 몇 바이트뿐
+    write(out, 0x86, 0x01, 0x00, 0x00, 0x01, 0x00, 0x00, 0x00, 0x00);
+    out.write("A_OPUS".getBytes(StandardCharsets.US_ASCII));
+
+    ContainerProbe.Result r = probe(out.toByteArray(), new PeakAccumulator());
+
+    assertThat(r.container()).isEqualTo("webm");
+    assertThat(r.codec()).isNull();
+  }
+
+  @Test
+  void oggOpusDurationFromLastGranuleMinusPreSkip() throws IOException {
+    ByteArrayOutputStream head = new ByteArrayOutputStream();
+    head.write("OpusHead".getBytes(StandardCharsets.US_ASCII));
+    write(head, 1, 1);       // version, channels
+    le(head, 312, 2);        // pre-skip
+    le(head, 48000, 4);      // input sample rate
+    le(head, 0, 2);          // gain
+    write(head, 0);          // mapping family
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    oggPage(out, 0, head.toByteArray());
+    oggPage(out, 48000 + 312, new byte[10]);
+
+    ContainerProbe.Result r = probe(out.toByteArray(), new PeakAccumulator());
+
+    assertThat(r.container()).isEqualTo("ogg");
+    assertThat(r.codec()).isEqualTo("opus");
+    assertThat(r.durationSec()).isCloseTo(1.0, within(1e-9));
+  }
+
+  @Test
+  void mp3DurationFromFrameHeaders() throws IOException {
+    // MPEG1 Layer III, 128 kbps, 44.1 kHz, no padding: 417 bytes per frame
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (int i = 0; i < 10; i++) {
+      be(out, 0xFFFB9000, 4);
+      out.write(new byte[417 - 4]);
+    }
+
+    ContainerProbe.Result r = probe(out.toByteArray(), new PeakAccumulator());
+
+    assertThat(r.container()).isEqualTo("mp3");
+    assertThat(r.durationSec()).isCloseTo(10 * 1152 / 44100.0, within(1e-9));
+  }
+
+  @Test
+  void unknownInput() throws IOException {
+    assertThat(probe(new byte[] {1, 2, 3, 4, 5}, new PeakAccumulator()).container()).isEqualTo("unknown");
+    assertThat(probe(new byte[] {1, 2}, new PeakAccumulator()).container()).isEqualTo("unknown");
+  }
+
+  private static ContainerProbe.Result probe(byte[] bytes, PeakAccumulator peaks) throws IOException {
+    return ContainerProbe.probe(new ByteArrayInputStream(bytes), peaks);
+  }
+
+  private static byte[] wav(int channels, int rate, int blockAlign, int bits, byte[] data) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    out.write("RIFF".getBytes(StandardCharsets.US_ASCII));
+    le(out, 36 + data.length, 4);
+    out.write("WAVEfmt ".getBytes(StandardCharsets.US_ASCII));
+    le(out, 16, 4);
+    le(out, 1, 2);
+    le(out, channels, 2);
+    le(out, rate, 4);
+    le(out, (long) rate * blockAlign, 4);
+    le(out, blockAlign, 2);
+    le(out, bits, 2);
+    out.write("data".getBytes(StandardCharsets.US_ASCII));
+    le(out, data.length, 4);
+    out.write(data);
+    return out.toByteArray();
+  }
+
+  private static void oggPage(ByteArrayOutputStream out, long granule, byte[] data) throws IOException {
+    out.write("OggS".getBytes(StandardCharsets.US_ASCII));
+    write(out, 0, 0);        // version, header type
+    le(out, granule, 8);
+    le(out, 1, 4);           // serial
+    le(out, 0, 4);           // sequence
+    le(out, 0, 4);           // crc (검사하지 않음)
+    write(out, 1, data.length);
+    out.write(data);
+  }
+
+  private static void write(ByteArrayOutputStream out, int... bytes) {
+    for (int b : bytes) out.write(b);
+  }
+
+  private static void le(ByteArrayOutputStream out, long v, int n) {
+    for (int i = 0; i < n; i++) out.write((int) (v >>> (8 * i)) & 0xFF);
+  }
+
+  private static void be(ByteArrayOutputStream out, long v, int n) {
+    for (int i = n - 1; i >= 0; i--) out.write((int) (v >>> (8 * i)) & 0xFF);
+  }
+}
@@ -0,0 +1,157 @@
+package com.keydrop.server.audio;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class Mp3SeekTableTest {
+
+  // MPEG1 Layer III, 44.1 kHz, stereo, no padding
+  private static final int HEADER_128K = 0xFFFB9000; // 417 bytes
+  private static final int HEADER_192K = 0xFFFBB000; // 626 bytes
+  private static final int HEADER_64K = 0xFFFB5000;  // 208 bytes
+  private static final double FRAME_SEC = 1152 / 44100.0;
+
+  @Test
+  void cbrEntriesEveryNFrames() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (int i = 0; i < 20; i++) frame(out, HEADER_128K);
+
+    Mp3SeekTable table = build(out.toByteArray(), 4);
+
+    assertThat(table.entries()).isEqualTo(5);
+    assertThat(table.durationSec()).isCloseTo(20 * FRAME_SEC, within(1e-9));
+    assertThat(table.audioEnd()).isEqualTo(20 * 417L);
+    assertThat(table.seek(0)).isEqualTo(new Mp3SeekTable.SeekPoint(0, 0));
+    // 5번째 프레임 시각 -> 그 이전의 마지막 항목 (4번째 프레임)
+    Mp3SeekTable.SeekPoint p = table.seek(5 * FRAME_SEC);
+    assertThat(p.offset()).isEqualTo(4 * 417L);
+    assertThat(p.timeSec()).isCloseTo(4 * FRAME_SEC, within(1e-9));
+    // 범위 밖은 끝 쪽 항목으로
+    assertThat(table.seek(1e6).offset()).isEqualTo(16 * 417L);
+    assertThat(table.seek(-3).offset()).isZero();
+  }
+
+  @Test
+  void skipsId3TagAndExcludesTrailingData() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    out.write("ID3".getBytes(StandardCharsets.US_ASCII));
+    write(out, 4, 0, 0, 0, 0, 0, 100); // v2.4, flags 0, size 100 (syncsafe)
+    out.write(new byte[100]);
+    for (int i = 0; i < 3; i++) frame(out, HEADER_128K);
+    // 잘린 마지막 프레임은 세지 않음
+    be(out, HEADER_128K);
+    out.write(new byte[50]);
+
+    Mp3SeekTable table = build(out.toByteArray(), 1);
+
+    assertThat(table.entries()).isEqualTo(3);
+    assertThat(table.seek(0).offset()).isEqualTo(110);
+    assertThat(table.seek(2 * FRAME_SEC).offset()).isEqualTo(110 + 2 * 417L);
+    assertThat(table.audioEnd()).isEqualTo(110 + 3 * 417L);
+    assertThat(table.durationSec()).isCloseTo(3 * FRAME_SEC, within(1e-9));
+  }
+
+  @Test
+  void rejectsFalseSyncWithDifferentStreamParameters() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    frame(out, HEADER_128K);
+    // MPEG2 Layer III 헤더처럼 보이는 쓰레기: 첫 프레임과 버전이 달라 무시되어야 함
+    write(out, 0xFF, 0xF3, 0x90, 0x00, 0x00, 0x00);
+    frame(out, HEADER_128K);
+
+    Mp3SeekTable table = build(out.toByteArray(), 1);
+
+    assertThat(table.entries()).isEqualTo(2);
+    assertThat(table.seek(FRAME_SEC).offset()).isEqualTo(417 + 6);
+    assertThat(table.durationSec()).isCloseTo(2 * FRAME_SEC, within(1e-9));
+  }
+
+  @Test
+  void vbrOffsetsFollowFrameSizesAndXingFrameIsNotCounted() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] xing = new byte[417];
+    be(xing, HEADER_128K);
+    // 헤더 4바이트 + MPEG1 스테레오 side info 32바이트 뒤
+    System.arraycopy("Xing".getBytes(StandardCharsets.US_ASCII), 0, xing, 4 + 32, 4);
+    out.write(xing);
+    int[] headers = {HEADER_192K, HEADER_64K, HEADER_128K, HEADER_192K, HEADER_64K};
+    int[] lengths = {626, 208, 417, 626, 208};
+    for (int h : headers) frame(out, h);
+
+    Mp3SeekTable table = build(out.toByteArray(), 1);
+
+    assertThat(table.entries()).isEqualTo(headers.length);
+    assertThat(table.durationSec()).isCloseTo(headers.length * FRAME_SEC, within(1e-9));
+    long offset = 417;
+    for (int i = 0; i < headers.length; i++) {
+      Mp3SeekTable.SeekPoint p = table.seek(i * FRAME_SEC + 1e-6);
+      assertThat(p.offset()).as("frame %d", i).isEqualTo(offset);
+      assertThat(p.timeSec()).isCloseTo(i * FRAME_SEC, within(1e-9));
+      offset += lengths[i];
+    }
+    assertThat(table.audioEnd()).isEqualTo(offset);
+  }
+
+  @Test
+  void serializedTableAnswersTheSame() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (int i = 0; i < 30; i++) frame(out, i % 3 == 0 ? HEADER_192K : HEADER_128K);
+    Mp3SeekTable table = build(out.toByteArray(), 4);
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    table.writeTo(new DataOutputStream(bytes));
+    Mp3SeekTable copy = Mp3SeekTable.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+    assertThat(copy.entries()).isEqualTo(table.entries());
+    assertThat(copy.audioEnd()).isEqualTo(table.audioEnd());
+    assertThat(copy.durationSec()).isEqualTo(table.durationSec());
+    for (int i = 0; i < 30; i++) {
+      assertThat(copy.seek(i * FRAME_SEC)).isEqualTo(table.seek(i * FRAME_SEC));
+    }
+  }
+
+  @Test
+  void corruptSerializedTableIsRejected() {
+    byte[] zeros = new byte[32];
+    assertThatThrownBy(() -> Mp3SeekTable.readFrom(new DataInputStream(new ByteArrayInputStream(zeros))))
+        .isInstanceOf(IOException.class);
+  }
+
+  @Test
+  void noFramesGivesNull() throws IOException {
+    assertThat(build(new byte[1000], 1)).isNull();
+    assertThat(build(new byte[] {1, 2}, 1)).isNull();
+  }
+
+  private static Mp3SeekTable build(byte[] bytes, int framesPerEntry) throws IOException {
+    return Mp3SeekTable.build(new ByteArrayInputStream(bytes), framesPerEntry);
+  }
+
+  private static void frame(ByteArrayOutputStream out, int header) {
+    Mp3FrameHeader h = Mp3FrameHeader.parse(header);
+    be(out, header);
+    out.write(new byte[h.frameLength() - 4], 0, h.frameLength() - 4);
+  }
+
+  private static void write(ByteArrayOutputStream out, int... bytes) {
+    for (int b : bytes) out.write(b);
+  }
+
+  private static void be(ByteArrayOutputStream out, int v) {
+    for (int i = 3; i >= 0; i--) out.write((v >>> (8 * i)) & 0xFF);
+  }
+
+  private static void be(byte[] b, int v) {
+    for (int i = 0; i < 4; i++) b[i] = (byte) (v >>> (8 * (3 - i)));
+  }
+}
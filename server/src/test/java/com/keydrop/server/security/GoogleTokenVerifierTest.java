@@ -0,0 +1,301 @@
+package com.keydrop.server.security;
+
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GoogleTokenVerifierTest {
+
+  private static final String CLIENT_ID = "keydrop-test.apps.googleusercontent.com";
+  private static final String ISSUER = "https://accounts.google.com";
+
+  private static final KeyPair KEY_A = rsaKeyPair();
+  private static final KeyPair KEY_B = rsaKeyPair();
+  private static final KeyPair KEY_C = rsaKeyPair();
+
+  @TempDir
+  Path dir;
+
+  private final TestClock clock = new TestClock();
+  private final List<GoogleTokenVerifier> verifiers = new ArrayList<>();
+
+  @AfterEach
+  void shutdown() {
+    verifiers.forEach(GoogleTokenVerifier::shutdown);
+  }
+
+  @Test
+  void validTokenIsAccepted() throws IOException {
+    GoogleTokenVerifier verifier = verifier(jwksFile(jwk("a", KEY_A)));
+
+    GoogleIdToken.Payload payload = verifier.verify(token("a", KEY_A, ISSUER, CLIENT_ID, expiresIn(Duration.ofHours(1))));
+
+    assertThat(payload.getSubject()).isEqualTo("google-user-1");
+    assertThat(payload.getEmail()).isEqualTo("dj@example.com");
+  }
+
+  @Test
+  void shortIssuerFormIsAccepted() throws IOException {
+    GoogleTokenVerifier verifier = verifier(jwksFile(jwk("a", KEY_A)));
+
+    assertThat(verifier.verify(token("a", KEY_A, "accounts.google.com", CLIENT_ID, expiresIn(Duration.ofHours(1)))))
+        .isNotNull();
+  }
+
+  @Test
+  void wrongAudienceOrIssuerIsRejected() throws IOException {
+    GoogleTokenVerifier verifier = verifier(jwksFile(jwk("a", KEY_A)));
+    Date exp = expiresIn(Duration.ofHours(1));
+
+    assertThatThrownBy(() -> verifier.verify(token("a", KEY_A, ISSUER, "other-client", exp)))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> verifier.verify(token("a", KEY_A, "https://evil.example.com", CLIENT_ID, exp)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void expiredTokenIsRejected() throws IOException {
+    GoogleTokenVerifier verifier = verifier(jwksFile(jwk("a", KEY_A)));
+
+    // 허용 오차(5분)를 넘겨 만료된 토큰
+    assertThatThrownBy(() -> verifier.verify(token("a", KEY_A, ISSUER, CLIENT_ID, expiresIn(Duration.ofMinutes(-10)))))
+        .isInstanceOf(IllegalArgumentException.class);
+    // 오차 안쪽이면 통과
+    assertThat(verifier.verify(token("a", KEY_A, ISSUER, CLIENT_ID, expiresIn(Duration.ofMinutes(-1))))).isNotNull();
+  }
+
+  @Test
+  void tokenSignedWithAnotherKeyUnderAKnownKidIsRejected() throws IOException {
+    GoogleTokenVerifier verifier = verifier(jwksFile(jwk("a", KEY_A)));
+
+    assertThatThrownBy(() -> verifier.verify(token("a", KEY_B, ISSUER, CLIENT_ID, expiresIn(Duration.ofHours(1)))))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void malformedTokenIsRejected() throws IOException {
+    GoogleTokenVerifier verifier = verifier(jwksFile(jwk("a", KEY_A)));
+
+    assertThatThrownBy(() -> verifier.verify("not-a-jwt")).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void unknownKidRefetchesAtMostOncePer30Seconds() throws IOException {
+    Path jwks = jwksFile(jwk("a", KEY_A));
+    GoogleTokenVerifier verifier = verifier(jwks);
+    Date exp = expiresIn(Duration.ofHours(1));
+    verifier.verify(token("a", KEY_A, ISSUER, CLIENT_ID, exp));
+
+    // 키 교체: 파일에는 b 가 있지만 방금 가져왔으므로 다시 읽지 않음
+    Files.writeString(jwks, jwks(jwk("a", KEY_A), jwk("b", KEY_B)));
+    String tokenB = token("b", KEY_B, ISSUER, CLIENT_ID, exp);
+    assertThatThrownBy(() -> verifier.verify(tokenB)).isInstanceOf(IllegalArgumentException.class);
+
+    clock.advance(Duration.ofSeconds(29));
+    assertThatThrownBy(() -> verifier.verify(tokenB)).isInstanceOf(IllegalArgumentException.class);
+
+    clock.advance(Duration.ofSeconds(2));
+    assertThat(verifier.verify(tokenB)).isNotNull();
+    // 이전 키는 남아 있어야 함
+    assertThat(verifier.verify(token("a", KEY_A, ISSUER, CLIENT_ID, exp))).isNotNull();
+  }
+
+  @Test
+  void failedRefetchAlsoStartsThe30SecondWindow() throws IOException {
+    Path jwks = jwksFile(jwk("a", KEY_A));
+    GoogleTokenVerifier verifier = verifier(jwks);
+    Date exp = expiresIn(Duration.ofHours(1));
+    verifier.verify(token("a", KEY_A, ISSUER, CLIENT_ID, exp));
+
+    // 키 서버 장애
+    Files.delete(jwks);
+    clock.advance(Duration.ofSeconds(31));
+    String tokenC = token("c", KEY_C, ISSUER, CLIENT_ID, exp);
+    assertThatThrownBy(() -> verifier.verify(tokenC)).isInstanceOf(IllegalArgumentException.class);
+    // 실패해도 기존 키로는 계속 검증
+    assertThat(verifier.verify(token("a", KEY_A, ISSUER, CLIENT_ID, exp))).isNotNull();
+
+    // 복구되어도 실패한 시도로부터 30초가 지나기 전에는 다시 가져오지 않음
+    Files.writeString(jwks, jwks(jwk("a", KEY_A), jwk("c", KEY_C)));
+    clock.advance(Duration.ofSeconds(10));
+    assertThatThrownBy(() -> verifier.verify(tokenC)).isInstanceOf(IllegalArgumentException.class);
+
+    clock.advance(Duration.ofSeconds(21));
+    assertThat(verifier.verify(tokenC)).isNotNull();
+  }
+
+  @Test
+  void concurrentFirstLoginsShareOneFetch() throws Exception {
+    // 가져오기 횟수를 세기 위해 이 테스트만 file: 대신 로컬 HTTP 서버를 씀
+    AtomicInteger fetches = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+    byte[] body = jwks(jwk("a", KEY_A)).getBytes(StandardCharsets.UTF_8);
+    HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/certs", exchange -> {
+      fetches.incrementAndGet();
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      exchange.getResponseHeaders().set("Cache-Control", "public, max-age=3600");
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    });
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.start();
+
+    int logins = 8;
+    ExecutorService pool = Executors.newFixedThreadPool(logins);
+    try {
+      GoogleTokenVerifier verifier = verifier(
+          URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/certs"));
+      String token = token("a", KEY_A, ISSUER, CLIENT_ID, expiresIn(Duration.ofHours(1)));
+
+      CountDownLatch started = new CountDownLatch(logins);
+      List<Future<GoogleIdToken.Payload>> results = new ArrayList<>();
+      for (int i = 0; i < logins; i++) {
+        results.add(pool.submit(() -> {
+          started.countDown();
+          return verifier.verify(token);
+        }));
+      }
+      started.await(5, TimeUnit.SECONDS);
+      // 나머지 로그인이 진행 중인 가져오기에 합류할 시간
+      Thread.sleep(200);
+      release.countDown();
+
+      for (Future<GoogleIdToken.Payload> r : results) {
+        assertThat(r.get(10, TimeUnit.SECONDS).getSubject()).isEqualTo("google-user-1");
+      }
+      assertThat(fetches.get()).isEqualTo(1);
+    } finally {
+      release.countDown();
+      pool.shutdownNow();
+      server.stop(0);
+    }
+  }
+
+  private GoogleTokenVerifier verifier(Path jwks) {
+    return verifier(jwks.toUri());
+  }
+
+  private GoogleTokenVerifier verifier(URI jwksUri) {
+    GoogleTokenVerifier v = new GoogleTokenVerifier(jwksUri, CLIENT_ID, JsonMapper.builder().build(), clock);
+    verifiers.add(v);
+    return v;
+  }
+
+  private Date expiresIn(Duration d) {
+    return Date.from(clock.instant().plus(d));
+  }
+
+  private String token(String kid, KeyPair key, String issuer, String audience, Date exp) {
+    return Jwts.builder()
+        .setHeaderParam("kid", kid)
+        .setIssuer(issuer)
+        .setAudience(audience)
+        .setSubject("google-user-1")
+        .claim("email", "dj@example.com")
+        .claim("email_verified", true)
+        .setIssuedAt(Date.from(exp.toInstant().minus(Duration.ofHours(1))))
+        .setExpiration(exp)
+        .signWith(key.getPrivate(), SignatureAlgorithm.RS256)
+        .compact();
+  }
+
+  private Path jwksFile(String... keys) throws IOException {
+    Path file = dir.resolve("certs.json");
+    Files.writeString(file, jwks(keys));
+    return file;
+  }
+
+  private static String jwks(String... keys) {
+    return "{\"keys\":[" + String.join(",", keys) + "]}";
+  }
+
+  private static String jwk(String kid, KeyPair key) {
+    RSAPublicKey pub = (RSAPublicKey) key.getPublic();
+    return "{\"kty\":\"RSA\",\"alg\":\"RS256\",\"use\":\"sig\",\"kid\":\"" + kid + "\""
+        + ",\"n\":\"" + b64(pub.getModulus()) + "\",\"e\":\"" + b64(pub.getPublicExponent()) + "\"}";
+  }
+
+  // JWK 는 부호 없는 big-endian, 패딩 없는 base64url
+  private static String b64(BigInteger v) {
+    byte[] b = v.toByteArray();
+    if (b.length > 1 && b[0] == 0) b = Arrays.copyOfRange(b, 1, b.length);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(b);
+  }
+
+  private static KeyPair rsaKeyPair() {
+    try {
+      KeyPairGenerator g = KeyPairGenerator.getInstance("RSA");
+      g.initialize(2048);
+      return g.generateKeyPair();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static final class TestClock extends Clock {
+    private volatile Instant now = Instant.now();
+
+    void advance(Duration d) {
+      now = now.plus(d);
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+  }
+}
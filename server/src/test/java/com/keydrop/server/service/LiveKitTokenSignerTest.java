@@ -0,0 +1,92 @@
+package com.keydrop.server.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.livekit.server.AccessToken;
+import io.livekit.server.CanPublish;
+import io.livekit.server.CanSubscribe;
+import io.livekit.server.RoomJoin;
+import io.livekit.server.RoomName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LiveKitTokenSignerTest {
+
+  private static final String API_KEY = "APIkeydrop";
+  private static final String API_SECRET = "0123456789abcdef0123456789abcdef-secret";
+  private static final Duration TTL = Duration.ofHours(6);
+
+  private final LiveKitTokenSigner signer = new LiveKitTokenSigner(API_KEY, API_SECRET, TTL, 100);
+
+  @Test
+  void viewerTokenMatchesSdkToken() {
+    assertSameAsSdk("dj-abc123", "viewer-42", false);
+  }
+
+  @Test
+  void djTokenMatchesSdkToken() {
+    assertSameAsSdk("dj-abc123", "dj-7", true);
+  }
+
+  @Test
+  void identityNeedingJsonEscapingMatchesSdkToken() {
+    assertSameAsSdk("room \"quoted\"", "dj \"x\" \\ back\nslash\ttab \u0001 한글", true);
+  }
+
+  @Test
+  void signatureDoesNotVerifyWithAnotherSecret() {
+    String token = signer.sign("room", "viewer-1", false);
+    assertThatThrownBy(() -> parse(token, API_SECRET + "-other"))
+        .isInstanceOf(JwtException.class);
+  }
+
+  private void assertSameAsSdk(String room, String identity, boolean canPublish) {
+    AccessToken sdk = new AccessToken(API_KEY, API_SECRET);
+    sdk.setIdentity(identity);
+    sdk.setName(identity);
+    sdk.setTtl(TTL.toMillis());
+    sdk.addGrants(new RoomJoin(true), new RoomName(room), new CanSubscribe(true), new CanPublish(canPublish));
+
+    // 두 토큰 모두 API secret 으로 서명이 검증되어야 함 (실패하면 parse 가 예외)
+    Jws<Claims> expected = parse(sdk.toJwt(), API_SECRET);
+    Jws<Claims> actual = parse(signer.sign(room, identity, canPublish), API_SECRET);
+
+    assertThat(actual.getHeader().getAlgorithm()).isEqualTo(expected.getHeader().getAlgorithm()).isEqualTo("HS256");
+    assertThat(actual.getHeader().getType()).isEqualTo(expected.getHeader().getType());
+
+    Claims a = actual.getBody();
+    Claims e = expected.getBody();
+    assertThat(a.getIssuer()).isEqualTo(API_KEY);
+    assertThat(a.getSubject()).isEqualTo(identity);
+    assertThat(a.get("name")).isEqualTo(identity);
+    assertThat(a.getId()).isEqualTo(identity);
+    assertThat(a.get("video")).isEqualTo(e.get("video"));
+    assertThat(Math.abs(a.getExpiration().getTime() - e.getExpiration().getTime())).isLessThanOrEqualTo(5_000);
+    // SDK 가 빈 grant 묶음(sip 등)을 붙이는 버전이 있어 빈 map 은 비교에서 제외
+    assertThat(withoutExp(a)).isEqualTo(withoutExp(e));
+  }
+
+  private static Map<String, Object> withoutExp(Claims claims) {
+    Map<String, Object> m = new HashMap<>(claims);
+    m.remove(Claims.EXPIRATION);
+    m.values().removeIf(v -> v instanceof Map<?, ?> map && map.isEmpty());
+    return m;
+  }
+
+  private static Jws<Claims> parse(String token, String secret) {
+    return Jwts.parserBuilder()
+        .setSigningKey(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+        .build()
+        .parseClaimsJws(token);
+  }
+}
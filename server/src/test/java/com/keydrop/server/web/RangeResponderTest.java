@@ -0,0 +1,240 @@
+package com.keydrop.server.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RangeResponderTest {
+
+  private static final byte[] BODY = body(100);
+  private static final String ETAG = "\"v1\"";
+  private static final Instant LAST_MODIFIED = Instant.parse("2025-01-02T03:04:05Z");
+
+  @Test
+  void fullResponseWithoutRange() throws IOException {
+    MockHttpServletResponse res = respond(get());
+
+    assertThat(res.getStatus()).isEqualTo(200);
+    assertThat(res.getContentAsByteArray()).isEqualTo(BODY);
+    assertThat(res.getContentLengthLong()).isEqualTo(100);
+    assertThat(res.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+    assertThat(res.getHeader(HttpHeaders.ETAG)).isEqualTo(ETAG);
+    assertThat(res.getContentType()).isEqualTo("audio/mpeg");
+    assertThat(res.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("max-age=60");
+  }
+
+  @Test
+  void singleRange() throws IOException {
+    MockHttpServletResponse res = respond(get(HttpHeaders.RANGE, "bytes=10-19"));
+
+    assertThat(res.getStatus()).isEqualTo(206);
+    assertThat(res.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 10-19/100");
+    assertThat(res.getContentLengthLong()).isEqualTo(10);
+    assertThat(res.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(BODY, 10, 20));
+  }
+
+  @Test
+  void openEndedRangeIsClampedToLength() throws IOException {
+    MockHttpServletResponse res = respond(get(HttpHeaders.RANGE, "bytes=90-500"));
+
+    assertThat(res.getStatus()).isEqualTo(206);
+    assertThat(res.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 90-99/100");
+    assertThat(res.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(BODY, 90, 100));
+  }
+
+  @Test
+  void suffixRange() throws IOException {
+    MockHttpServletResponse res = respond(get(HttpHeaders.RANGE, "bytes=-5"));
+
+    assertThat(res.getStatus()).isEqualTo(206);
+    assertThat(res.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 95-99/100");
+    assertThat(res.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(BODY, 95, 100));
+  }
+
+  @Test
+  void rangePastTheEndIs416() throws IOException {
+    MockHttpServletResponse res = respond(get(HttpHeaders.RANGE, "bytes=100-"));
+
+    assertThat(res.getStatus()).isEqualTo(416);
+    assertThat(res.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */100");
+    assertThat(res.getContentAsByteArray()).isEmpty();
+  }
+
+  @Test
+  void malformedRangeGetsFullResponse() throws IOException {
+    for (String range : new String[] {"bytes=abc", "items=0-10", "bytes=20-10"}) {
+      MockHttpServletResponse res = respond(get(HttpHeaders.RANGE, range));
+
+      assertThat(res.getStatus()).as(range).isEqualTo(200);
+      assertThat(res.getHeader(HttpHeaders.CONTENT_RANGE)).as(range).isNull();
+      assertThat(res.getContentAsByteArray()).as(range).isEqualTo(BODY);
+    }
+  }
+
+  @Test
+  void multiRangeGetsFullResponse() throws IOException {
+    MockHttpServletResponse res = respond(get(HttpHeaders.RANGE, "bytes=0-9,20-29"));
+
+    assertThat(res.getStatus()).isEqualTo(200);
+    assertThat(res.getHeader(HttpHeaders.CONTENT_RANGE)).isNull();
+    assertThat(res.getContentAsByteArray()).isEqualTo(BODY);
+  }
+
+  @Test
+  void ifRangeMatchingEtagHonoursRange() throws IOException {
+    MockHttpServletRequest req = get(HttpHeaders.RANGE, "bytes=0-9");
+    req.addHeader(HttpHeaders.IF_RANGE, ETAG);
+
+    assertThat(respond(req).getStatus()).isEqualTo(206);
+  }
+
+  @Test
+  void ifRangeMismatchGetsFullResponse() throws IOException {
+    for (String ifRange : new String[] {"\"v0\"", "W/\"v1\"", "Thu, 01 Jan 2015 00:00:00 GMT"}) {
+      MockHttpServletRequest req = get(HttpHeaders.RANGE, "bytes=0-9");
+      req.addHeader(HttpHeaders.IF_RANGE, ifRange);
+
+      MockHttpServletResponse res = respond(req);
+
+      assertThat(res.getStatus()).as(ifRange).isEqualTo(200);
+      assertThat(res.getContentAsByteArray()).as(ifRange).isEqualTo(BODY);
+    }
+  }
+
+  @Test
+  void ifNoneMatchIs304WithoutBody() throws IOException {
+    for (String inm : new String[] {ETAG, "W/\"v1\"", "\"v0\", \"v1\"", "*"}) {
+      MockHttpServletResponse res = respond(get(HttpHeaders.IF_NONE_MATCH, inm));
+
+      assertThat(res.getStatus()).as(inm).isEqualTo(304);
+      assertThat(res.getHeader(HttpHeaders.ETAG)).as(inm).isEqualTo(ETAG);
+      assertThat(res.getContentAsByteArray()).as(inm).isEmpty();
+    }
+  }
+
+  @Test
+  void ifNoneMatchMismatchIgnoresIfModifiedSince() throws IOException {
+    MockHttpServletRequest req = get(HttpHeaders.IF_NONE_MATCH, "\"v0\"");
+    req.addHeader(HttpHeaders.IF_MODIFIED_SINCE, LAST_MODIFIED.plus(Duration.ofDays(1)).toEpochMilli());
+
+    assertThat(respond(req).getStatus()).isEqualTo(200);
+  }
+
+  @Test
+  void ifModifiedSinceIs304() throws IOException {
+    MockHttpServletRequest req = get(HttpHeaders.IF_MODIFIED_SINCE, LAST_MODIFIED.toEpochMilli());
+
+    assertThat(respond(req).getStatus()).isEqualTo(304);
+  }
+
+  @Test
+  void headWritesHeadersOnly() throws IOException {
+    MockHttpServletRequest req = new MockHttpServletRequest("HEAD", "/media");
+    req.addHeader(HttpHeaders.RANGE, "bytes=10-19");
+
+    MockHttpServletResponse res = respond(req);
+
+    assertThat(res.getStatus()).isEqualTo(206);
+    assertThat(res.getContentLengthLong()).isEqualTo(10);
+    assertThat(res.getContentAsByteArray()).isEmpty();
+  }
+
+  @Test
+  void impliedRangeIsServedWithoutRangeHeader() throws IOException {
+    AtomicInteger calls = new AtomicInteger();
+    MockHttpServletResponse res = new MockHttpServletResponse();
+
+    RangeResponder.respond(get(), res, representation(), RangeResponderTest::write, r -> {
+      calls.incrementAndGet();
+      r.setHeader("X-Seek-Time", "1.5");
+      return HttpRange.createByteRange(40, 59);
+    });
+
+    assertThat(calls.get()).isEqualTo(1);
+    assertThat(res.getStatus()).isEqualTo(206);
+    assertThat(res.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 40-59/100");
+    assertThat(res.getHeader("X-Seek-Time")).isEqualTo("1.5");
+    assertThat(res.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(BODY, 40, 60));
+  }
+
+  @Test
+  void impliedRangeCoveringEverythingIsA200() throws IOException {
+    MockHttpServletResponse res = new MockHttpServletResponse();
+
+    RangeResponder.respond(get(), res, representation(), RangeResponderTest::write,
+        r -> HttpRange.createByteRange(0, 99));
+
+    assertThat(res.getStatus()).isEqualTo(200);
+    assertThat(res.getHeader(HttpHeaders.CONTENT_RANGE)).isNull();
+  }
+
+  @Test
+  void impliedRangeIsNotResolvedWhenRangeHeaderIsPresent() throws IOException {
+    AtomicInteger calls = new AtomicInteger();
+    MockHttpServletResponse res = new MockHttpServletResponse();
+
+    RangeResponder.respond(get(HttpHeaders.RANGE, "bytes=0-9"), res, representation(), RangeResponderTest::write,
+        r -> {
+          calls.incrementAndGet();
+          return HttpRange.createByteRange(40, 59);
+        });
+
+    assertThat(calls.get()).isZero();
+    assertThat(res.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 0-9/100");
+  }
+
+  @Test
+  void impliedRangeIsNotResolvedForA304() throws IOException {
+    AtomicInteger calls = new AtomicInteger();
+    MockHttpServletResponse res = new MockHttpServletResponse();
+
+    RangeResponder.respond(get(HttpHeaders.IF_NONE_MATCH, ETAG), res, representation(), RangeResponderTest::write,
+        r -> {
+          calls.incrementAndGet();
+          return HttpRange.createByteRange(40, 59);
+        });
+
+    assertThat(calls.get()).isZero();
+    assertThat(res.getStatus()).isEqualTo(304);
+  }
+
+  private static MockHttpServletResponse respond(MockHttpServletRequest req) throws IOException {
+    MockHttpServletResponse res = new MockHttpServletResponse();
+    RangeResponder.respond(req, res, representation(), RangeResponderTest::write);
+    return res;
+  }
+
+  private static MockHttpServletRequest get(String... headers) {
+    MockHttpServletRequest req = new MockHttpServletRequest("GET", "/media");
+    for (int i = 0; i < headers.length; i += 2) req.addHeader(headers[i], headers[i + 1]);
+    return req;
+  }
+
+  private static RangeResponder.Representation representation() {
+    return new RangeResponder.Representation(BODY.length, MediaType.parseMediaType("audio/mpeg"), ETAG,
+        LAST_MODIFIED, CacheControl.maxAge(Duration.ofSeconds(60)), null);
+  }
+
+  private static void write(long offset, long length, OutputStream out) throws IOException {
+    out.write(BODY, (int) offset, (int) length);
+  }
+
+  private static byte[] body(int n) {
+    byte[] b = new byte[n];
+    for (int i = 0; i < n; i++) b[i] = (byte) i;
+    return b;
+  }
+}